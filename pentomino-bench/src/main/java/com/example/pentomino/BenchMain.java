@@ -0,0 +1,18 @@
+// File: src/main/java/com/example/pentomino/BenchMain.java
+package com.example.pentomino;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// jmh's own Main, but always with the gc profiler on so every run reports gc.alloc.rate.norm (bytes per op).
+// takes the usual jmh arguments, e.g. java -jar target/benchmarks.jar BoardBench -p size=10x6
+public class BenchMain {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder().parent(cli).addProfiler(GCProfiler.class).build()).run();
+    }
+}
@@ -0,0 +1,80 @@
+// File: src/main/java/com/example/pentomino/BoardBench.java
+package com.example.pentomino;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// fits / place+remove / isComplete on a half-filled board.
+// 10x6 is the game board (single long), 20x20 goes through the multi-word variant
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBench {
+    private static final int PROBES = 1024; // power of two, probes are picked with & (PROBES-1)
+
+    @Param({"10x6", "20x20"})
+    public String size;
+
+    private Board<Integer> board;
+    // random (piece, rotation, anchor) triples, about half of them fit
+    private final Pentomino[] piece = new Pentomino[PROBES];
+    private final int[] rot = new int[PROBES], ax = new int[PROBES], ay = new int[PROBES];
+    // the subset of probes that fit, for place/remove
+    private int[] fitting;
+    private int next;
+
+    @Setup
+    public void setup() {
+        String[] wh = size.split("x");
+        int w = Integer.parseInt(wh[0]), h = Integer.parseInt(wh[1]);
+        board = Board.create(w, h);
+        List<Pentomino> all = PentominoLibrary.all();
+        Random rnd = new Random(42);
+
+        // drop random pieces until about half the board is covered
+        int key = 0;
+        for (int tries = 0; tries < 10_000 && key * 5 < w * h / 2; tries++) {
+            Pentomino p = all.get(rnd.nextInt(all.size()));
+            int r = rnd.nextInt(8), x = rnd.nextInt(w), y = rnd.nextInt(h);
+            if (board.fits(p, r, x, y)) board.place(p, r, x, y, key++);
+        }
+
+        int[] fit = new int[PROBES];
+        int n = 0;
+        for (int i = 0; i < PROBES; i++) {
+            piece[i] = all.get(rnd.nextInt(all.size()));
+            rot[i] = rnd.nextInt(8);
+            ax[i] = rnd.nextInt(w);
+            ay[i] = rnd.nextInt(h);
+            if (board.fits(piece[i], rot[i], ax[i], ay[i])) fit[n++] = i;
+        }
+        if (n == 0) throw new IllegalStateException("no probe fits the " + size + " board");
+        fitting = Arrays.copyOf(fit, n);
+    }
+
+    @Benchmark
+    public boolean fits() {
+        int i = next++ & (PROBES - 1);
+        return board.fits(piece[i], rot[i], ax[i], ay[i]);
+    }
+
+    // the board is back to the setup state after every call
+    @Benchmark
+    public void placeRemove() {
+        int i = fitting[next++ % fitting.length];
+        board.place(piece[i], rot[i], ax[i], ay[i], -1);
+        board.remove(-1);
+    }
+
+    @Benchmark
+    public boolean isComplete() {
+        return board.isComplete();
+    }
+}
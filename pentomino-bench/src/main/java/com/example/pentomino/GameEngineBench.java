@@ -0,0 +1,53 @@
+// File: src/main/java/com/example/pentomino/GameEngineBench.java
+package com.example.pentomino;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// a whole 240 s game on a virtual clock, no display. idle never touches a piece (pure timer work),
+// firstFit drops every spawned piece on the first anchor / rotation that fits
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameEngineBench {
+    private long seed;
+
+    @Benchmark
+    public int idle() {
+        VirtualClock clock = new VirtualClock();
+        GameEngine game = new GameEngine(Board.COLS, Board.ROWS, PentominoLibrary.all(), clock);
+        game.start(seed++);
+        while (!game.isOver()) {
+            clock.set(game.nextEventAt());
+            game.update();
+        }
+        return game.spawned();
+    }
+
+    @Benchmark
+    public int firstFit() {
+        VirtualClock clock = new VirtualClock();
+        GameEngine game = new GameEngine(Board.COLS, Board.ROWS, PentominoLibrary.all(), clock);
+        game.start(seed++);
+        while (!game.isOver()) {
+            GameEngine.Piece p = game.poolPiece();
+            if (p != null) place(game, p);
+            clock.set(game.nextEventAt());
+            game.update();
+        }
+        return game.spawned();
+    }
+
+    private static void place(GameEngine game, GameEngine.Piece p) {
+        for (int r = 0; r < 4; r++) {
+            for (int y = 0; y < Board.ROWS; y++)
+                for (int x = 0; x < Board.COLS; x++)
+                    if (game.place(p, x, y)) return;
+            game.rotate(p, 1);
+        }
+    }
+}
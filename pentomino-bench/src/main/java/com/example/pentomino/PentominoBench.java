@@ -0,0 +1,41 @@
+// File: src/main/java/com/example/pentomino/PentominoBench.java
+package com.example.pentomino;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// the geometry the UI asks for on every rotate / drop
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PentominoBench {
+    // an un-normalized shape, like rotateCW hands to normalize, and the arrays it's normalized in
+    private static final int[] RAW_X = {0, 1, 1, 1, 2}, RAW_Y = {-2, -2, -1, 0, 0};
+    private final int[] xs = new int[5], ys = new int[5];
+    private List<Pentomino> pieces;
+    private int next;
+
+    @Setup
+    public void setup() {
+        pieces = PentominoLibrary.all();
+    }
+
+    @Benchmark
+    public Orientation rotated() {
+        int i = next++;
+        return pieces.get(i % pieces.size()).orientation(i & 7);
+    }
+
+    @Benchmark
+    public int[] normalize() {
+        System.arraycopy(RAW_X, 0, xs, 0, 5);
+        System.arraycopy(RAW_Y, 0, ys, 0, 5);
+        Pentomino.normalize(xs, ys);
+        return xs;
+    }
+}
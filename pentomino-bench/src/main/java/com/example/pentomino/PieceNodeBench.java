@@ -0,0 +1,62 @@
+// File: src/main/java/com/example/pentomino/PieceNodeBench.java
+package com.example.pentomino;
+
+import javafx.scene.Group;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// what the piece nodes cost on the way to a placement: DraggablePiece.turn() on every rotation (moving its
+// 5 rectangles to the new orientation, rebuild() in the older results) and applyDrag() on every frame of a
+// drag (fits at the snapped anchor and the snap ghost following it over a half-full board).
+// nodes are built off the FX thread and never shown, which JavaFX allows as long as they aren't in a live scene
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dprism.order=sw", "-Djava.awt.headless=true"})
+public class PieceNodeBench {
+    private final Group group = new Group();
+    private final List<Rectangle> rects = new ArrayList<>();
+    private final SnapGhost ghost = new SnapGhost(Launcher.CELL);
+    private final Board<Integer> board = Board.create(Board.COLS, Board.ROWS);
+    private List<Pentomino> pieces;
+    private int next;
+
+    @Setup
+    public void setup() {
+        pieces = PentominoLibrary.all();
+        // the left half of the board filled as far as first fits get it, so the ghost flips between legal and illegal
+        for (Pentomino p : pieces)
+            place:
+            for (int ay = 0; ay < Board.ROWS; ay++)
+                for (int ax = 0; ax < Board.COLS / 2; ax++)
+                    if (p.orientation(0).width + ax <= Board.COLS / 2 && board.fits(p, 0, ax, ay)) {
+                        board.place(p, 0, ax, ay, p.id());
+                        break place;
+                    }
+        Launcher.buildCells(group, rects, pieces.get(0).orientation(0), Color.CORNFLOWERBLUE);
+    }
+
+    @Benchmark
+    public Group rotate() {
+        int i = next++;
+        Launcher.moveCells(rects, pieces.get(i % pieces.size()).orientation(i & 7));
+        return group;
+    }
+
+    // one piece dragged around the board, a cell further every frame
+    @Benchmark
+    public SnapGhost drag() {
+        int i = next++;
+        Pentomino p = pieces.get(5);
+        int ax = i % Board.COLS, ay = (i / Board.COLS) % Board.ROWS;
+        ghost.show(p.orientation(2), ax, ay, board.fits(p, 2, ax, ay));
+        return ghost;
+    }
+}
@@ -0,0 +1,130 @@
+// File: src/main/java/com/example/pentomino/RenderBench.java
+package com.example.pentomino;
+
+import javafx.application.Platform;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+// one board change plus the pulse that shows it, node board vs canvas board, for growing board sizes.
+// the board is half full of locked pieces. every op takes one of them off (or puts it back) and then
+// snapshots the scene, which runs the same css / layout / sync / render steps as a pulse.
+// runs on the headless Monocle platform with the software pipeline, no display needed.
+// the FX thread hand-off is included in every op and costs the same in both modes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dglass.platform=Monocle", "-Dmonocle.platform=Headless", "-Dprism.order=sw"})
+public class RenderBench {
+    private static final int CELL = Launcher.CELL;
+
+    @Param({"nodes", "canvas"})
+    public String mode;
+
+    @Param({"10x6", "20x20", "40x40"})
+    public String size;
+
+    private record Locked(Pentomino piece, int rot, int x, int y, Color color, Group node) {}
+
+    private final List<Locked> locked = new ArrayList<>();
+    private boolean[] off; // locked piece i is currently taken off the board
+    private Scene scene;
+    private Pane pane;
+    private BoardCanvas canvas;
+    private WritableImage frame;
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        startFx();
+        onFx(() -> {
+            String[] wh = size.split("x");
+            int w = Integer.parseInt(wh[0]), h = Integer.parseInt(wh[1]);
+            pane = new Pane();
+            if (mode.equals("canvas")) {
+                canvas = new BoardCanvas(w, h, CELL);
+                pane.getChildren().add(canvas);
+            } else {
+                Launcher.drawGridNodes(pane, w, h);
+            }
+
+            // same random half-full board as BoardBench
+            Board<Integer> board = Board.create(w, h);
+            List<Pentomino> all = PentominoLibrary.all();
+            Random rnd = new Random(42);
+            for (int tries = 0; tries < 100_000 && locked.size() * 5 < w * h / 2; tries++) {
+                Pentomino p = all.get(rnd.nextInt(all.size()));
+                int r = rnd.nextInt(8), x = rnd.nextInt(w), y = rnd.nextInt(h);
+                if (!board.fits(p, r, x, y)) continue;
+                board.place(p, r, x, y, locked.size());
+                Color color = Color.hsb(rnd.nextDouble() * 360, 0.75, 0.95);
+                Group node = null;
+                if (canvas != null) {
+                    canvas.paint(p.orientation(r), x, y, color);
+                } else {
+                    node = new Group();
+                    Launcher.buildCells(node, new ArrayList<>(), p.orientation(r), color);
+                    node.setLayoutX(x * CELL);
+                    node.setLayoutY(y * CELL);
+                    pane.getChildren().add(node);
+                }
+                locked.add(new Locked(p, r, x, y, color, node));
+            }
+            if (canvas != null) canvas.flush();
+            off = new boolean[locked.size()];
+
+            // not shown in a window: the snapshot below is the only render, so nothing else competes with it
+            scene = new Scene(pane, w * CELL, h * CELL);
+            frame = scene.snapshot(null);
+            return null;
+        });
+    }
+
+    @Benchmark
+    public WritableImage pulse() throws Exception {
+        return onFx(() -> {
+            int i = next++ % locked.size();
+            Locked l = locked.get(i);
+            off[i] = !off[i];
+            if (canvas != null) {
+                if (off[i]) canvas.erase(l.piece().orientation(l.rot()), l.x(), l.y());
+                else canvas.paint(l.piece().orientation(l.rot()), l.x(), l.y(), l.color());
+                canvas.flush();
+            } else {
+                if (off[i]) pane.getChildren().remove(l.node());
+                else pane.getChildren().add(l.node());
+            }
+            return scene.snapshot(frame);
+        });
+    }
+
+    private static volatile boolean started;
+
+    private static synchronized void startFx() throws InterruptedException {
+        if (started) return;
+        CountDownLatch up = new CountDownLatch(1);
+        Platform.startup(up::countDown);
+        Platform.setImplicitExit(false);
+        up.await();
+        started = true;
+    }
+
+    private static <T> T onFx(Callable<T> work) throws Exception {
+        FutureTask<T> task = new FutureTask<>(work);
+        Platform.runLater(task);
+        return task.get();
+    }
+}
@@ -0,0 +1,37 @@
+// File: src/main/java/com/example/pentomino/SolverBench.java
+package com.example.pentomino;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// full single-threaded enumeration, distinct solutions only (2339 for 6x10, 1010 for 5x12)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class SolverBench {
+    @Param({"6x10", "5x12"})
+    public String board;
+
+    private Solver solver;
+
+    @Setup
+    public void setup() {
+        solver = BoardShape.parse(board).solver(true);
+    }
+
+    @Benchmark
+    public long enumerate() {
+        return solver.count();
+    }
+
+    // building the exact-cover matrix on its own
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Solver build() {
+        return BoardShape.parse(board).solver(true);
+    }
+}
@@ -0,0 +1,46 @@
+// File: src/main/java/com/example/pentomino/TimingWheelBench.java
+package com.example.pentomino;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// the engine's scheduler on its own: moving a deadline (what every click on the pool piece does) and
+// one frame's advance with a timer firing and rescheduling itself. both should show 0 B/op
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimingWheelBench {
+    private static final long MS = 1_000_000L, FRAME = 16 * MS;
+
+    private TimingWheel wheel;
+    private TimingWheel.Timer vanish, countdown;
+    private long now, fired;
+
+    @Setup
+    public void setup() {
+        wheel = new TimingWheel(MS, 1024, 0);
+        vanish = new TimingWheel.Timer(() -> fired++);
+        countdown = new TimingWheel.Timer(() -> {
+            fired++;
+            wheel.schedule(countdown, now + 1000 * MS);
+        });
+        wheel.schedule(countdown, 1000 * MS);
+    }
+
+    @Benchmark
+    public boolean reschedule() {
+        wheel.schedule(vanish, now + (20_000 + (fired++ & 1023)) * MS);
+        return vanish.isScheduled();
+    }
+
+    @Benchmark
+    public long frame() {
+        now += FRAME;
+        wheel.advanceTo(now);
+        return fired;
+    }
+}
@@ -0,0 +1,400 @@
+// File: src/main/java/com/example/pentomino/Board.java
+package com.example.pentomino;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// the board is a bitboard: cell (x,y) is bit number y*w + x.
+// boards with up to 64 cells (the 10x6 one has 60) fit in a single long, bigger ones use a long[],
+// and really big ones (more than LARGE cells) are cut into 8x8 chunks, see Chunked
+abstract class Board<K> {
+    // the game board
+    static final int COLS = 10, ROWS = 6;
+    static final int LARGE = 1024;
+
+    final int w, h;
+
+    Board(int w, int h) {
+        this.w = w;
+        this.h = h;
+    }
+
+    // picks the cheapest representation for the size
+    static <K> Board<K> create(int w, int h) {
+        if (w * h <= Long.SIZE) return new Single<>(w, h);
+        return w * h <= LARGE ? new Multi<>(w, h) : new Chunked<>(w, h);
+    }
+
+    int width()  { return w; }
+    int height() { return h; }
+
+    abstract void clear();
+    abstract boolean fits(Pentomino p, int rot, int ax, int ay);
+    // callers check fits() first, placing over occupied cells is not supported
+    abstract void place(Pentomino p, int rot, int ax, int ay, K key);
+    abstract void remove(K key);
+    abstract boolean isComplete();
+    abstract boolean isOccupied(int x, int y);
+    // the key of the piece covering (x,y), null if the cell is empty. one array read
+    abstract K keyAt(int x, int y);
+    // the pieces currently on the board, one entry per placed piece
+    abstract List<Pentomino> placedPieces();
+
+    // the pieces on a board, a slot each, in parallel arrays: key, piece, orientation and anchor. a small
+    // open-addressing table finds the slot of a key. freed slots and table entries are reused and the arrays
+    // only ever grow, so once a board has been as full as it gets, place / remove allocate nothing
+    static final class Slots<K> {
+        private Object[] keys = new Object[16];
+        private Pentomino[] pieces = new Pentomino[16];
+        private Orientation[] orientations = new Orientation[16];
+        private int[] xs = new int[16], ys = new int[16];
+        private int[] free = new int[16]; // released slots below end, reused first
+        private int freeCount, end, size;
+        private int[] index = new int[32]; // slot + 1 at the hash of its key, 0 is empty; at most half full
+
+        int size() { return size; }
+        // slots 0 until end, the empty ones have a null key
+        int end()  { return end; }
+
+        @SuppressWarnings("unchecked")
+        K key(int s)                   { return (K) keys[s]; }
+        Pentomino piece(int s)         { return pieces[s]; }
+        Orientation orientation(int s) { return orientations[s]; }
+        int x(int s)                   { return xs[s]; }
+        int y(int s)                   { return ys[s]; }
+
+        // the slot of the key, -1 if it isn't on the board
+        int find(Object key) {
+            int m = index.length - 1;
+            for (int i = hash(key) & m; ; i = (i + 1) & m) {
+                int s = index[i] - 1;
+                if (s < 0) return -1;
+                if (keys[s].equals(key)) return s;
+            }
+        }
+
+        // the key must not be on the board yet
+        int add(K key, Pentomino p, Orientation o, int ax, int ay) {
+            int s = freeCount > 0 ? free[--freeCount] : end++;
+            if (s == keys.length) grow();
+            keys[s] = key;
+            pieces[s] = p;
+            orientations[s] = o;
+            xs[s] = ax;
+            ys[s] = ay;
+            if (++size * 2 > index.length) rehash(index.length * 2);
+            else insert(s);
+            return s;
+        }
+
+        void release(int s) {
+            unindex(s);
+            keys[s] = null;
+            pieces[s] = null;
+            orientations[s] = null;
+            free[freeCount++] = s;
+            size--;
+        }
+
+        void clear() {
+            Arrays.fill(keys, 0, end, null);
+            Arrays.fill(pieces, 0, end, null);
+            Arrays.fill(orientations, 0, end, null);
+            Arrays.fill(index, 0);
+            freeCount = end = size = 0;
+        }
+
+        List<Pentomino> pieces() {
+            List<Pentomino> out = new ArrayList<>(size);
+            for (int s = 0; s < end; s++) if (keys[s] != null) out.add(pieces[s]);
+            return out;
+        }
+
+        private static int hash(Object key) {
+            int h = key.hashCode() * 0x9e3779b9; // the identity and Integer hashes of the keys cluster without it
+            return h ^ h >>> 16;
+        }
+
+        private void insert(int s) {
+            int m = index.length - 1, i = hash(keys[s]) & m;
+            while (index[i] != 0) i = (i + 1) & m;
+            index[i] = s + 1;
+        }
+
+        // takes the slot out of the table and moves the entries behind it back, so no probe runs into a hole
+        private void unindex(int s) {
+            int m = index.length - 1, i = hash(keys[s]) & m;
+            while (index[i] != s + 1) i = (i + 1) & m;
+            for (int j = (i + 1) & m; index[j] != 0; j = (j + 1) & m) {
+                int home = hash(keys[index[j] - 1]) & m;
+                if (((j - home) & m) >= ((j - i) & m)) { // home is at or before the hole, the entry may move there
+                    index[i] = index[j];
+                    i = j;
+                }
+            }
+            index[i] = 0;
+        }
+
+        private void grow() {
+            int n = keys.length * 2;
+            keys = Arrays.copyOf(keys, n);
+            pieces = Arrays.copyOf(pieces, n);
+            orientations = Arrays.copyOf(orientations, n);
+            xs = Arrays.copyOf(xs, n);
+            ys = Arrays.copyOf(ys, n);
+            free = Arrays.copyOf(free, n);
+        }
+
+        private void rehash(int capacity) {
+            index = new int[capacity];
+            for (int s = 0; s < end; s++) if (keys[s] != null) insert(s);
+        }
+    }
+
+    // one word, every operation is a single AND / OR / ANDNOT
+    static final class Single<K> extends Board<K> {
+        private final boolean standard; // COLS x ROWS, masks come straight from the orientation table
+        private final long full;
+        private long occ; // occupied
+        private final Slots<K> slots = new Slots<>();
+        private final int[] owner; // slot + 1 of the piece on every cell, 0 if it's empty
+
+        Single(int w, int h) {
+            super(w, h);
+            int n = w * h;
+            if (n > Long.SIZE) throw new IllegalArgumentException("board has " + n + " cells, max is 64");
+            this.full = n == Long.SIZE ? -1L : (1L << n) - 1;
+            this.standard = w == COLS && h == ROWS;
+            this.owner = new int[n];
+        }
+
+        // mask of the piece at the anchor, 0 if any cell falls off the board
+        long mask(Orientation o, int ax, int ay) {
+            if (standard) return o.mask(ax, ay);
+            return o.fitsInside(w, h, ax, ay) ? o.maskAt(w, ax, ay) : 0;
+        }
+
+        long occupancy() { return occ; }
+
+        // copies every placed piece and its mask into the arrays (at least placedPieces().size() long),
+        // returns how many there are
+        int placements(Pentomino[] pieces, long[] masks) {
+            int n = 0;
+            for (int s = 0; s < slots.end(); s++) {
+                if (slots.key(s) == null) continue;
+                pieces[n] = slots.piece(s);
+                masks[n++] = mask(slots.orientation(s), slots.x(s), slots.y(s));
+            }
+            return n;
+        }
+
+        @Override void clear() {
+            occ = 0;
+            slots.clear();
+            Arrays.fill(owner, 0);
+        }
+        @Override boolean fits(Pentomino p, int rot, int ax, int ay) {
+            long m = mask(p.orientation(rot), ax, ay);
+            return m != 0 && (occ & m) == 0;
+        }
+        @Override void place(Pentomino p, int rot, int ax, int ay, K key) {
+            remove(key);
+            Orientation o = p.orientation(rot);
+            occ |= mask(o, ax, ay);
+            int s = slots.add(key, p, o, ax, ay);
+            for (int i = 0; i < o.xs.length; i++) owner[(ay + o.ys[i]) * w + ax + o.xs[i]] = s + 1;
+        }
+        @Override void remove(K key) {
+            int s = slots.find(key);
+            if (s < 0) return;
+            Orientation o = slots.orientation(s);
+            int ax = slots.x(s), ay = slots.y(s);
+            occ &= ~mask(o, ax, ay);
+            for (int i = 0; i < o.xs.length; i++) owner[(ay + o.ys[i]) * w + ax + o.xs[i]] = 0;
+            slots.release(s);
+        }
+        @Override boolean isComplete() {
+            return occ == full;
+        }
+        @Override boolean isOccupied(int x, int y) {
+            return (occ >>> (y * w + x) & 1L) != 0;
+        }
+        @Override K keyAt(int x, int y) {
+            int s = owner[y * w + x] - 1;
+            return s < 0 ? null : slots.key(s);
+        }
+        @Override List<Pentomino> placedPieces() {
+            return slots.pieces();
+        }
+    }
+
+    // multi-word variant for boards with more than 64 cells.
+    // a piece spans a handful of bits spread over several rows, so instead of a full-width
+    // mask per piece we go over its orientation's cells, and a filled counter keeps isComplete O(1)
+    static final class Multi<K> extends Board<K> {
+        private final int cells;
+        private final long[] occ;
+        private int filled;
+        private final Slots<K> slots = new Slots<>();
+        private final int[] owner; // slot + 1 of the piece on every cell, 0 if it's empty
+
+        Multi(int w, int h) {
+            super(w, h);
+            this.cells = w * h;
+            this.occ = new long[(cells + Long.SIZE - 1) / Long.SIZE];
+            this.owner = new int[cells];
+        }
+
+        private boolean bit(int i) {
+            return (occ[i >>> 6] & 1L << i) != 0;
+        }
+
+        @Override void clear() {
+            Arrays.fill(occ, 0);
+            filled = 0;
+            slots.clear();
+            Arrays.fill(owner, 0);
+        }
+        @Override boolean fits(Pentomino p, int rot, int ax, int ay) {
+            Orientation o = p.orientation(rot);
+            if (!o.fitsInside(w, h, ax, ay)) return false;
+            for (int i = 0; i < o.xs.length; i++)
+                if (bit((ay + o.ys[i]) * w + ax + o.xs[i])) return false;
+            return true;
+        }
+        @Override void place(Pentomino p, int rot, int ax, int ay, K key) {
+            remove(key);
+            Orientation o = p.orientation(rot);
+            int s = slots.add(key, p, o, ax, ay);
+            for (int i = 0; i < o.xs.length; i++) {
+                int b = (ay + o.ys[i]) * w + ax + o.xs[i];
+                occ[b >>> 6] |= 1L << b;
+                owner[b] = s + 1;
+            }
+            filled += o.xs.length;
+        }
+        @Override void remove(K key) {
+            int s = slots.find(key);
+            if (s < 0) return;
+            Orientation o = slots.orientation(s);
+            int ax = slots.x(s), ay = slots.y(s);
+            for (int i = 0; i < o.xs.length; i++) {
+                int b = (ay + o.ys[i]) * w + ax + o.xs[i];
+                occ[b >>> 6] &= ~(1L << b);
+                owner[b] = 0;
+            }
+            filled -= o.xs.length;
+            slots.release(s);
+        }
+        @Override boolean isComplete() {
+            return filled == cells;
+        }
+        @Override boolean isOccupied(int x, int y) {
+            return bit(y * w + x);
+        }
+        @Override K keyAt(int x, int y) {
+            int s = owner[y * w + x] - 1;
+            return s < 0 ? null : slots.key(s);
+        }
+        @Override List<Pentomino> placedPieces() {
+            return slots.pieces();
+        }
+    }
+
+    // for large boards, e.g. 100x100 with a couple of thousand pieces. the board is cut into 8x8 chunks of
+    // one long each, so a piece touches at most four words. next to the bits every chunk has a grid of the
+    // keys on its cells, the spatial index: keyAt is one array read instead of a walk over the pieces.
+    // a chunk's key grid only exists while something is on it, an empty board costs a long per chunk
+    static final class Chunked<K> extends Board<K> {
+        static final int CHUNK = 8; // cells per chunk side
+
+        private final int cells, chunksX, chunksY;
+        private final long[] occ;       // per chunk, bit (y % 8) * 8 + x % 8
+        private final Object[][] keys;  // per chunk, the key on every cell, null while the chunk is empty
+        private final int[] used;       // per chunk, occupied cells
+        private int filled;
+        private final Slots<K> slots = new Slots<>();
+
+        Chunked(int w, int h) {
+            super(w, h);
+            this.cells = w * h;
+            this.chunksX = (w + CHUNK - 1) / CHUNK;
+            this.chunksY = (h + CHUNK - 1) / CHUNK;
+            this.occ = new long[chunksX * chunksY];
+            this.keys = new Object[occ.length][];
+            this.used = new int[occ.length];
+        }
+
+        int chunksX() { return chunksX; }
+        int chunksY() { return chunksY; }
+
+        // the occupied cells of chunk (cx,cy), bit (y % 8) * 8 + x % 8
+        long chunk(int cx, int cy) {
+            return occ[cy * chunksX + cx];
+        }
+
+        private int chunkOf(int x, int y) { return (y / CHUNK) * chunksX + x / CHUNK; }
+        private static int bitOf(int x, int y) { return (y % CHUNK) * CHUNK + x % CHUNK; }
+
+        private void set(int x, int y, K key) {
+            int c = chunkOf(x, y), b = bitOf(x, y);
+            if (keys[c] == null) keys[c] = new Object[CHUNK * CHUNK];
+            keys[c][b] = key;
+            occ[c] |= 1L << b;
+            used[c]++;
+        }
+
+        private void unset(int x, int y) {
+            int c = chunkOf(x, y), b = bitOf(x, y);
+            occ[c] &= ~(1L << b);
+            if (--used[c] == 0) keys[c] = null;
+            else keys[c][b] = null;
+        }
+
+        @Override void clear() {
+            Arrays.fill(occ, 0);
+            Arrays.fill(keys, null);
+            Arrays.fill(used, 0);
+            filled = 0;
+            slots.clear();
+        }
+        @Override boolean fits(Pentomino p, int rot, int ax, int ay) {
+            Orientation o = p.orientation(rot);
+            if (!o.fitsInside(w, h, ax, ay)) return false;
+            for (int i = 0; i < o.xs.length; i++)
+                if (isOccupied(ax + o.xs[i], ay + o.ys[i])) return false;
+            return true;
+        }
+        @Override void place(Pentomino p, int rot, int ax, int ay, K key) {
+            remove(key);
+            Orientation o = p.orientation(rot);
+            for (int i = 0; i < o.xs.length; i++) set(ax + o.xs[i], ay + o.ys[i], key);
+            filled += o.xs.length;
+            slots.add(key, p, o, ax, ay);
+        }
+        @Override void remove(K key) {
+            int s = slots.find(key);
+            if (s < 0) return;
+            Orientation o = slots.orientation(s);
+            int ax = slots.x(s), ay = slots.y(s);
+            for (int i = 0; i < o.xs.length; i++) unset(ax + o.xs[i], ay + o.ys[i]);
+            filled -= o.xs.length;
+            slots.release(s);
+        }
+        @Override boolean isComplete() {
+            return filled == cells;
+        }
+        @Override boolean isOccupied(int x, int y) {
+            return (occ[chunkOf(x, y)] & 1L << bitOf(x, y)) != 0;
+        }
+        @SuppressWarnings("unchecked")
+        @Override K keyAt(int x, int y) {
+            Object[] k = keys[chunkOf(x, y)];
+            return k == null ? null : (K) k[bitOf(x, y)];
+        }
+        @Override List<Pentomino> placedPieces() {
+            return slots.pieces();
+        }
+    }
+}
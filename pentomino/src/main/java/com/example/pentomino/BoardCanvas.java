@@ -0,0 +1,85 @@
+// File: src/main/java/com/example/pentomino/BoardCanvas.java
+package com.example.pentomino;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+// the grid and every locked piece drawn into one Canvas, instead of a Rectangle + Line nodes for the grid
+// and a Group of 5 Rectangles per placed piece. the scene graph stays one node no matter how big the board
+// is or how many pieces are down.
+// each cell remembers its colour, changes only mark cells dirty and flush() repaints just those cells
+final class BoardCanvas extends Canvas {
+    private static final Color GRID = Color.LIGHTGRAY, BACKGROUND = Color.WHITE, OUTLINE = Color.GRAY;
+
+    private final int cols, cell;
+    private final Color[] fill; // null = empty cell
+    private final BitSet dirty;
+    private final GraphicsContext g;
+
+    BoardCanvas(int cols, int rows, int cell) {
+        super(cols * cell, rows * cell);
+        this.cols = cols;
+        this.cell = cell;
+        this.fill = new Color[cols * rows];
+        this.dirty = new BitSet(cols * rows);
+        this.g = getGraphicsContext2D();
+        repaintAll();
+    }
+
+    int cellAtX(double x) { return (int) Math.floor(x / cell); }
+    int cellAtY(double y) { return (int) Math.floor(y / cell); }
+
+    void paint(Orientation o, int ax, int ay, Color color) {
+        for (int i = 0; i < o.xs.length; i++) set(ax + o.xs[i], ay + o.ys[i], color);
+    }
+
+    void erase(Orientation o, int ax, int ay) {
+        for (int i = 0; i < o.xs.length; i++) set(ax + o.xs[i], ay + o.ys[i], null);
+    }
+
+    private void set(int x, int y, Color color) {
+        int i = y * cols + x;
+        if (fill[i] == color) return;
+        fill[i] = color;
+        dirty.set(i);
+    }
+
+    // empties the board, one full repaint (which also lets the canvas drop its queued draw commands)
+    void clearCells() {
+        Arrays.fill(fill, null);
+        repaintAll();
+    }
+
+    // repaints the cells changed since the last flush
+    void flush() {
+        for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) paintCell(i);
+        dirty.clear();
+    }
+
+    private void repaintAll() {
+        dirty.clear();
+        g.setFill(BACKGROUND);
+        g.fillRect(0, 0, getWidth(), getHeight());
+        for (int i = 0; i < fill.length; i++) paintCell(i);
+    }
+
+    // same look as the node version: light grid lines on white, pieces as rounded rects inset by 1px
+    private void paintCell(int i) {
+        double px = (i % cols) * cell, py = (i / cols) * cell;
+        g.setFill(BACKGROUND);
+        g.fillRect(px, py, cell, cell);
+        g.setStroke(GRID);
+        g.setLineWidth(1);
+        g.strokeRect(px, py, cell, cell);
+        Color c = fill[i];
+        if (c == null) return;
+        g.setFill(c);
+        g.fillRoundRect(px + 1, py + 1, cell - 2, cell - 2, 8, 8);
+        g.setStroke(OUTLINE);
+        g.strokeRoundRect(px + 1, py + 1, cell - 2, cell - 2, 8, 8);
+    }
+}
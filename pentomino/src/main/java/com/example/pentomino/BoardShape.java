@@ -0,0 +1,42 @@
+// File: src/main/java/com/example/pentomino/BoardShape.java
+package com.example.pentomino;
+
+// the classic boards the 12 pentominoes tile. names are rows x columns like the game's 6x10
+enum BoardShape {
+    RECT_3X20("3x20", 20, 3),
+    RECT_4X15("4x15", 15, 4),
+    RECT_5X12("5x12", 12, 5),
+    RECT_6X10("6x10", Board.COLS, Board.ROWS),
+    SQUARE_8X8_HOLE("8x8-hole", 8, 8, 3, 3, 2, 2); // 2x2 hole in the middle
+
+    final String label;
+    final int width, height;
+    private final boolean[] blocked;
+
+    BoardShape(String label, int width, int height) {
+        this(label, width, height, 0, 0, 0, 0);
+    }
+
+    BoardShape(String label, int width, int height, int holeX, int holeY, int holeW, int holeH) {
+        this.label = label;
+        this.width = width;
+        this.height = height;
+        this.blocked = new boolean[width * height];
+        for (int y = holeY; y < holeY + holeH; y++)
+            for (int x = holeX; x < holeX + holeW; x++)
+                blocked[y * width + x] = true;
+    }
+
+    boolean[] blocked() {
+        return blocked.clone();
+    }
+
+    Solver solver(boolean distinct) {
+        return new Solver(width, height, blocked, PentominoLibrary.all(), distinct);
+    }
+
+    static BoardShape parse(String s) {
+        for (BoardShape b : values()) if (b.label.equalsIgnoreCase(s) || b.name().equalsIgnoreCase(s)) return b;
+        throw new IllegalArgumentException("unknown board " + s + ", expected one of 3x20, 4x15, 5x12, 6x10, 8x8-hole");
+    }
+}
@@ -0,0 +1,226 @@
+// File: src/main/java/com/example/pentomino/BoardViewport.java
+package com.example.pentomino;
+
+import javafx.scene.Group;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.transform.Scale;
+import javafx.scene.transform.Translate;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Function;
+
+// window onto a board too big for the screen, e.g. 100x100. the mouse wheel scrolls (shift for sideways),
+// ctrl + wheel zooms around the pointer and a middle-button drag pans.
+// the board is drawn in 8x8 cell chunks (the same ones as Board.Chunked) and only the chunks in view have
+// nodes: a grid path, a background and a rectangle per occupied cell, coloured from the board's key on it.
+// a chunk that scrolls out of view goes back to a spare pile and is reused for the next one that comes in,
+// so the scene graph stays the size of the viewport whatever the size of the board or the number of pieces.
+// the chunk nodes are mouse transparent, the owner finds what's under the mouse with cellAtX / cellAtY and
+// Board.keyAt. changes only mark chunks dirty, flush() redraws the dirty ones that are in view
+final class BoardViewport<K> extends Region {
+    private static final int CHUNK = Board.Chunked.CHUNK;
+    private static final double MIN_ZOOM = 0.25, MAX_ZOOM = 2, ZOOM_STEP = 1.1;
+    private static final Color GRID = Color.LIGHTGRAY, BACKGROUND = Color.WHITE, OUTLINE = Color.GRAY;
+
+    private final Board<K> board;
+    private final int cols, rows, cell, chunksX, chunksY;
+    private final Function<K, Color> colorOf;
+    private final Group content = new Group(), chunks = new Group(), overlay = new Group();
+    private final Translate translate = new Translate();
+    private final Scale scale = new Scale(1, 1);
+    private final Rectangle clip = new Rectangle();
+    private final Map<Integer, ChunkView> live = new HashMap<>(); // chunks in view, by cy * chunksX + cx
+    private final ArrayDeque<ChunkView> spare = new ArrayDeque<>();
+    private double zoom = 1, scrollX, scrollY; // scroll is in screen pixels
+    private double panX, panY;                   // pointer position of a middle-button drag
+
+    BoardViewport(Board<K> board, int cell, Function<K, Color> colorOf) {
+        this.board = board;
+        this.cols = board.width();
+        this.rows = board.height();
+        this.cell = cell;
+        this.chunksX = (cols + CHUNK - 1) / CHUNK;
+        this.chunksY = (rows + CHUNK - 1) / CHUNK;
+        this.colorOf = colorOf;
+        chunks.setMouseTransparent(true);
+        overlay.setMouseTransparent(true);
+        content.getChildren().addAll(chunks, overlay);
+        content.getTransforms().setAll(translate, scale);
+        getChildren().add(content);
+        setClip(clip);
+        setPickOnBounds(true);
+
+        setOnScroll(e -> {
+            if (e.isControlDown()) zoomAt(e.getX(), e.getY(), e.getDeltaY() > 0 ? ZOOM_STEP : 1 / ZOOM_STEP);
+            else if (e.isShiftDown() && e.getDeltaX() == 0) scrollBy(-e.getDeltaY(), 0);
+            else scrollBy(-e.getDeltaX(), -e.getDeltaY());
+            e.consume();
+        });
+        addEventHandler(MouseEvent.MOUSE_PRESSED, e -> {
+            if (e.getButton() != MouseButton.MIDDLE) return;
+            panX = e.getX();
+            panY = e.getY();
+            e.consume();
+        });
+        addEventHandler(MouseEvent.MOUSE_DRAGGED, e -> {
+            if (!e.isMiddleButtonDown()) return;
+            scrollBy(panX - e.getX(), panY - e.getY());
+            panX = e.getX();
+            panY = e.getY();
+            e.consume();
+        });
+    }
+
+    // for things drawn over the board in board pixels (cell * CELL), like the snap ghost
+    Group overlay() { return overlay; }
+
+    // board cell under a point of the viewport, in cells (floor it for the cell, round it to snap)
+    double toCellX(double x) { return (x + scrollX) / (cell * zoom); }
+    double toCellY(double y) { return (y + scrollY) / (cell * zoom); }
+    int cellAtX(double x) { return (int) Math.floor(toCellX(x)); }
+    int cellAtY(double y) { return (int) Math.floor(toCellY(y)); }
+
+    double zoom() { return zoom; }
+
+    // the cells of the piece changed, its chunks get redrawn on the next flush if they're in view
+    void changed(Orientation o, int ax, int ay) {
+        for (int i = 0; i < o.xs.length; i++) {
+            ChunkView v = live.get(((ay + o.ys[i]) / CHUNK) * chunksX + (ax + o.xs[i]) / CHUNK);
+            if (v != null) v.dirty = true;
+        }
+    }
+
+    // the board was emptied
+    void clearCells() {
+        for (ChunkView v : live.values()) v.dirty = true;
+        flush();
+    }
+
+    void flush() {
+        for (ChunkView v : live.values()) if (v.dirty) v.redraw();
+    }
+
+    void scrollBy(double dx, double dy) {
+        scrollX += dx;
+        scrollY += dy;
+        requestLayout();
+    }
+
+    // keeps the board point under (x,y) where it is
+    void zoomAt(double x, double y, double factor) {
+        double z = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom * factor));
+        scrollX = (scrollX + x) / zoom * z - x;
+        scrollY = (scrollY + y) / zoom * z - y;
+        zoom = z;
+        requestLayout();
+    }
+
+    @Override protected void layoutChildren() {
+        double w = getWidth(), h = getHeight();
+        clip.setWidth(w);
+        clip.setHeight(h);
+        scrollX = Math.max(0, Math.min(scrollX, cols * cell * zoom - w));
+        scrollY = Math.max(0, Math.min(scrollY, rows * cell * zoom - h));
+        translate.setX(-scrollX);
+        translate.setY(-scrollY);
+        scale.setX(zoom);
+        scale.setY(zoom);
+        updateVisible(w, h);
+    }
+
+    // drops the chunks that left the view and brings in the ones that came into it
+    private void updateVisible(double w, double h) {
+        double size = CHUNK * cell * zoom;
+        int cx0 = (int) (scrollX / size), cx1 = Math.min(chunksX - 1, (int) ((scrollX + w) / size));
+        int cy0 = (int) (scrollY / size), cy1 = Math.min(chunksY - 1, (int) ((scrollY + h) / size));
+        for (Iterator<ChunkView> it = live.values().iterator(); it.hasNext(); ) {
+            ChunkView v = it.next();
+            if (v.cx >= cx0 && v.cx <= cx1 && v.cy >= cy0 && v.cy <= cy1) continue;
+            it.remove();
+            chunks.getChildren().remove(v);
+            spare.push(v);
+        }
+        for (int cy = cy0; cy <= cy1; cy++)
+            for (int cx = cx0; cx <= cx1; cx++) {
+                int key = cy * chunksX + cx;
+                if (live.containsKey(key)) continue;
+                ChunkView v = spare.isEmpty() ? new ChunkView() : spare.pop();
+                v.show(cx, cy);
+                live.put(key, v);
+                chunks.getChildren().add(v);
+            }
+    }
+
+    // the nodes of one chunk in view, in board pixels
+    private final class ChunkView extends Group {
+        private final Rectangle background = new Rectangle();
+        private final Path grid = new Path();
+        private final Rectangle[] cells = new Rectangle[CHUNK * CHUNK]; // made the first time the cell is occupied
+        private int cx, cy, cw = -1, ch = -1; // chunk and its size in cells, edge chunks can be smaller
+        private boolean dirty;
+
+        ChunkView() {
+            background.setFill(BACKGROUND);
+            grid.setStroke(GRID);
+            getChildren().addAll(background, grid);
+        }
+
+        void show(int cx, int cy) {
+            this.cx = cx;
+            this.cy = cy;
+            setLayoutX(cx * CHUNK * cell);
+            setLayoutY(cy * CHUNK * cell);
+            int w = Math.min(CHUNK, cols - cx * CHUNK), h = Math.min(CHUNK, rows - cy * CHUNK);
+            if (w != cw || h != ch) reshape(w, h);
+            redraw();
+        }
+
+        private void reshape(int w, int h) {
+            cw = w;
+            ch = h;
+            background.setWidth(w * cell);
+            background.setHeight(h * cell);
+            grid.getElements().clear();
+            for (int x = 0; x <= w; x++) grid.getElements().addAll(new MoveTo(x * cell, 0), new LineTo(x * cell, h * cell));
+            for (int y = 0; y <= h; y++) grid.getElements().addAll(new MoveTo(0, y * cell), new LineTo(w * cell, y * cell));
+        }
+
+        // same look as the node board: pieces as rounded rects inset by 1px
+        void redraw() {
+            dirty = false;
+            int x0 = cx * CHUNK, y0 = cy * CHUNK;
+            for (int y = 0; y < ch; y++)
+                for (int x = 0; x < cw; x++) {
+                    int i = y * CHUNK + x;
+                    K key = board.keyAt(x0 + x, y0 + y);
+                    Rectangle r = cells[i];
+                    if (key == null) {
+                        if (r != null) r.setVisible(false);
+                        continue;
+                    }
+                    if (r == null) {
+                        r = cells[i] = new Rectangle(cell - 2, cell - 2);
+                        r.setStroke(OUTLINE);
+                        r.setArcWidth(8); r.setArcHeight(8);
+                        r.setLayoutX(x * cell + 1);
+                        r.setLayoutY(y * cell + 1);
+                        getChildren().add(r);
+                    }
+                    r.setFill(colorOf.apply(key));
+                    r.setVisible(true);
+                }
+            for (int i = 0; i < cells.length; i++) // cells past the edge of a reused chunk
+                if (cells[i] != null && (i % CHUNK >= cw || i / CHUNK >= ch)) cells[i].setVisible(false);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+// File: src/main/java/com/example/pentomino/Challenges.java
+package com.example.pentomino;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// puzzle challenges: boards that start with some pentominoes already locked in place, chosen so the
+// missing ones go back in exactly one way. generate a pack with
+//   java -cp target/classes com.example.pentomino.Challenges [--count N] [--prefill K] [--threads N]
+//        [--seed S] [--board B] [--out FILE]
+// (boards as in Enumerate, 6x10 and challenges-6x10.pack by default, 4 pieces preset). a challenge
+// starts from a random tiling: two pieces go anywhere and the solver finishes the board from there.
+// K pieces of it stay, the others come off, and a counting search that stops at the second solution
+// tells whether they only fit back one way; random subsets are tried until one does, and after TILINGS
+// tilings without one the generator gives up (an empty board, K = 0, never has just one way). pieces
+// are only turned the ways the game can turn them, nothing is mirrored. the rating is the number of
+// search nodes it took to prove the completion unique, roughly how much a player has to try.
+// challenge i is seeded from the seed and i, so the pack is the same however many threads made it.
+//
+// layout, big-endian:
+//   header   int magic, int version, byte width, byte height, byte pieces, byte 0, long blocked cells, int count
+//   records  int rating, then per piece id a byte rotation (0xFF if the piece is missing) and a byte anchor y*w+x
+// records are sorted by rating, easiest first, and read in place through the map
+public class Challenges {
+    private static final int MAGIC = 0x5043484C; // "PCHL"
+    private static final int VERSION = 1;
+    private static final int HEADER = 24;
+    private static final int MISSING = 0xFF;
+    private static final long TILING_BUDGET = 200_000;  // nodes to finish a random start, else try another
+    private static final long UNIQUE_BUDGET = 5_000_000; // nodes to settle uniqueness, else the subset is dropped
+    private static final int SUBSETS = 30;               // subsets of one tiling tried before starting over
+    private static final int TILINGS = 2000;             // tilings tried before giving up on a challenge
+
+    record Challenge(int rating, List<GameEngine.Preset> presets) {}
+
+    public static void main(String[] args) throws IOException {
+        int count = 1000, prefill = 4, threads = Runtime.getRuntime().availableProcessors();
+        long seed = 1;
+        BoardShape shape = BoardShape.RECT_6X10;
+        Path out = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--count" -> count = Integer.parseInt(args[++i].replace("_", ""));
+                case "--prefill" -> prefill = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--board" -> shape = BoardShape.parse(args[++i]);
+                case "--out" -> out = Path.of(args[++i]);
+                default -> throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+        if (prefill < 1 || prefill >= PentominoLibrary.all().size()) throw new IllegalArgumentException("--prefill must be 1.." + (PentominoLibrary.all().size() - 1));
+        if (out == null) out = Path.of(fileName(shape));
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        Challenge[] made = new Challenge[count];
+        long t0 = System.nanoTime();
+        pool.invoke(new Batch(shape, prefill, seed, made, 0, count));
+        long t1 = System.nanoTime();
+        pool.shutdown();
+        write(out, shape, Arrays.asList(made));
+
+        long[] ratings = new long[count];
+        for (int i = 0; i < count; i++) ratings[i] = made[i].rating();
+        Arrays.sort(ratings);
+        double minutes = (t1 - t0) / 6e10;
+        System.out.printf("%s: %d challenges with %d pieces preset on %d threads in %.1fs (%.0f per minute), %d bytes%n",
+                out, count, prefill, threads, (t1 - t0) / 1e9, count / minutes, Files.size(out));
+        if (count > 0)
+            System.out.printf("rating (search nodes) min %d, median %d, p90 %d, max %d%n",
+                    ratings[0], ratings[count / 2], ratings[(int) (count * 0.9)], ratings[count - 1]);
+    }
+
+    static String fileName(BoardShape shape) {
+        return "challenges-" + shape.label + ".pack";
+    }
+
+    // challenges [from, to) into out, split in halves down to single challenges like SelfPlay's games
+    @SuppressWarnings("serial") // fork/join tasks are never serialized
+    private static final class Batch extends RecursiveAction {
+        private final BoardShape shape;
+        private final int prefill;
+        private final long seed;
+        private final Challenge[] out;
+        private final int from, to;
+
+        Batch(BoardShape shape, int prefill, long seed, Challenge[] out, int from, int to) {
+            this.shape = shape;
+            this.prefill = prefill;
+            this.seed = seed;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override protected void compute() {
+            if (to - from <= 1) {
+                if (to > from) out[from] = generate(shape, prefill, SelfPlay.gameSeed(seed, from));
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Batch(shape, prefill, seed, out, from, mid), new Batch(shape, prefill, seed, out, mid, to));
+        }
+    }
+
+    // one challenge with prefill pieces in place, the same one for the same seed. IllegalStateException
+    // if TILINGS random tilings had none
+    static Challenge generate(BoardShape shape, int prefill, long seed) {
+        return generate(shape, prefill, seed, TILINGS);
+    }
+
+    static Challenge generate(BoardShape shape, int prefill, long seed, int maxTilings) {
+        Random rng = new Random(seed);
+        List<Pentomino> all = PentominoLibrary.all();
+        if (prefill < 1 || prefill >= all.size()) throw new IllegalArgumentException("prefill must be 1.." + (all.size() - 1) + ", got " + prefill);
+        for (int tilings = 0; tilings < maxTilings; tilings++) {
+            GameEngine.Preset[] tiling = randomTiling(shape, all, rng);
+            if (tiling == null) continue;
+            for (int attempt = 0; attempt < SUBSETS; attempt++) {
+                for (int i = tiling.length - 1; i > 0; i--) { // shuffle, the first prefill stay
+                    int j = rng.nextInt(i + 1);
+                    GameEngine.Preset t = tiling[i];
+                    tiling[i] = tiling[j];
+                    tiling[j] = t;
+                }
+                List<GameEngine.Preset> kept = List.of(Arrays.copyOf(tiling, prefill));
+                Solver solver = completion(shape, kept);
+                int[] found = {0};
+                solver.solve((s, rows, n) -> ++found[0] < 2, UNIQUE_BUDGET); // stops at the second one
+                if (found[0] == 1 && !solver.exhausted()) return new Challenge((int) Math.min(Integer.MAX_VALUE, solver.nodes()), kept);
+            }
+        }
+        throw new IllegalStateException("no challenge with " + prefill + " pieces preset on " + shape.label + " in " + maxTilings + " tilings");
+    }
+
+    // two random pieces anywhere, then the first tiling the solver finds around them. null if there is none
+    private static GameEngine.Preset[] randomTiling(BoardShape shape, List<Pentomino> all, Random rng) {
+        Board<Integer> board = Board.create(shape.width, shape.height);
+        boolean[] hole = shape.blocked();
+        List<GameEngine.Preset> start = new ArrayList<>();
+        List<Pentomino> left = new ArrayList<>(all);
+        for (int k = 0; k < 2; k++) {
+            Pentomino p = left.remove(rng.nextInt(left.size()));
+            for (int tries = 0; tries < 100; tries++) {
+                int r = rng.nextInt(4);
+                Orientation o = p.orientation(r);
+                int x = rng.nextInt(shape.width - o.width + 1), y = rng.nextInt(shape.height - o.height + 1);
+                if (!board.fits(p, r, x, y) || coversHole(o, x, y, shape.width, hole)) continue;
+                board.place(p, r, x, y, k);
+                start.add(new GameEngine.Preset(p, r, x, y));
+                break;
+            }
+        }
+        if (start.size() < 2) return null;
+        Solver solver = completion(shape, start);
+        GameEngine.Preset[] tiling = new GameEngine.Preset[all.size()];
+        solver.solve((s, rows, n) -> {
+            for (int i = 0; i < n; i++) {
+                Solver.Placement pl = s.placement(rows[i]);
+                tiling[i] = new GameEngine.Preset(pl.orientation().piece, Solver.rotationOf(pl.orientation()), pl.x(), pl.y());
+            }
+            tiling[n] = start.get(0);
+            tiling[n + 1] = start.get(1);
+            return false;
+        }, TILING_BUDGET);
+        return tiling[0] == null ? null : tiling;
+    }
+
+    private static boolean coversHole(Orientation o, int x, int y, int w, boolean[] hole) {
+        for (int i = 0; i < o.xs.length; i++) if (hole[(y + o.ys[i]) * w + x + o.xs[i]]) return true;
+        return false;
+    }
+
+    // the ways the pieces not in placed can fill the rest of the board
+    private static Solver completion(BoardShape shape, List<GameEngine.Preset> placed) {
+        Board<Integer> board = Board.create(shape.width, shape.height);
+        List<Pentomino> left = new ArrayList<>(PentominoLibrary.all());
+        for (int i = 0; i < placed.size(); i++) {
+            GameEngine.Preset s = placed.get(i);
+            board.place(s.shape(), s.rotation(), s.x(), s.y(), i);
+            left.remove(s.shape());
+        }
+        boolean[] blocked = shape.blocked();
+        for (int y = 0; y < shape.height; y++)
+            for (int x = 0; x < shape.width; x++)
+                blocked[y * shape.width + x] |= board.isOccupied(x, y);
+        return Solver.completion(shape.width, shape.height, blocked, left);
+    }
+
+    // --- the pack ---
+
+    static void write(Path file, BoardShape shape, List<Challenge> challenges) throws IOException {
+        List<Challenge> sorted = new ArrayList<>(challenges);
+        sorted.sort(Comparator.comparingInt(Challenge::rating));
+        int pieces = PentominoLibrary.all().size(), record = Integer.BYTES + pieces * 2;
+        ByteBuffer buf = ByteBuffer.allocate(HEADER + sorted.size() * record);
+        long blocked = 0;
+        boolean[] hole = shape.blocked();
+        for (int i = 0; i < hole.length; i++) if (hole[i]) blocked |= 1L << i;
+        buf.putInt(MAGIC).putInt(VERSION).put((byte) shape.width).put((byte) shape.height).put((byte) pieces).put((byte) 0)
+                .putLong(blocked).putInt(sorted.size());
+        byte[] slots = new byte[pieces * 2];
+        for (Challenge c : sorted) {
+            Arrays.fill(slots, (byte) MISSING);
+            for (GameEngine.Preset s : c.presets()) {
+                slots[s.shape().id() * 2] = (byte) s.rotation();
+                slots[s.shape().id() * 2 + 1] = (byte) (s.y() * shape.width + s.x());
+            }
+            buf.putInt(c.rating()).put(slots);
+        }
+        buf.flip();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+        }
+    }
+
+    private final ByteBuffer map;
+    private final int w, h, pieces, count, record;
+    private final long blocked;
+
+    private Challenges(ByteBuffer map) {
+        this.map = map;
+        if (map.limit() < HEADER || map.getInt(0) != MAGIC || map.getInt(4) != VERSION) throw new IllegalArgumentException("not a challenge pack");
+        this.w = map.get(8);
+        this.h = map.get(9);
+        this.pieces = map.get(10);
+        this.blocked = map.getLong(12);
+        this.count = map.getInt(20);
+        this.record = Integer.BYTES + pieces * 2;
+        if (pieces != PentominoLibrary.all().size() || map.limit() != HEADER + (long) count * record)
+            throw new IllegalArgumentException("challenge pack is truncated or for another piece set");
+    }
+
+    // maps the file read-only. the mapping stays valid after the channel is closed
+    static Challenges open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            return new Challenges(map);
+        }
+    }
+
+    int width()  { return w; }
+    int height() { return h; }
+    int size()   { return count; }
+
+    // whether the challenges are for a board like this one: same size, no holes
+    boolean covers(Board<?> board) {
+        return board.width() == w && board.height() == h && blocked == 0;
+    }
+
+    // i-th easiest
+    Challenge get(int i) {
+        int at = HEADER + i * record;
+        List<Pentomino> all = PentominoLibrary.all();
+        List<GameEngine.Preset> presets = new ArrayList<>();
+        for (int id = 0; id < pieces; id++) {
+            int rotation = map.get(at + Integer.BYTES + id * 2) & 0xFF, anchor = map.get(at + Integer.BYTES + id * 2 + 1) & 0xFF;
+            if (rotation != MISSING) presets.add(new GameEngine.Preset(all.get(id), rotation, anchor % w, anchor / w));
+        }
+        return new Challenge(map.getInt(at), presets);
+    }
+
+    // for challenge games: only pieces that aren't on the board yet spawn, each of them equally likely.
+    // the engine's roll is one of 12 and can't be split evenly over, say, 5 missing pieces, so the pick
+    // comes from a Random of the spawner's own, seeded by the game: the same seed gives the same pieces
+    // and the engine's rng is used as always. it listens for the start of every game, so make one per
+    // engine and keep it
+    static GameEngine.Spawner spawner(GameEngine engine) {
+        return new MissingSpawner(engine);
+    }
+
+    private static final class MissingSpawner implements GameEngine.Spawner, GameEngine.Listener {
+        private final GameEngine engine;
+        private Random rng = new Random();
+
+        MissingSpawner(GameEngine engine) {
+            this.engine = engine;
+            engine.addListener(this);
+        }
+
+        @Override public void started(long seed) {
+            rng = new Random(~seed);
+        }
+
+        @Override public Pentomino next(int roll) {
+            List<Pentomino> missing = new ArrayList<>(engine.pieces());
+            for (Pentomino p : engine.board().placedPieces()) missing.remove(p);
+            return missing.isEmpty() ? engine.pieces().get(roll) : missing.get(rng.nextInt(missing.size()));
+        }
+    }
+}
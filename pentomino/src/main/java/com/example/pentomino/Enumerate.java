@@ -0,0 +1,46 @@
+// File: src/main/java/com/example/pentomino/Enumerate.java
+package com.example.pentomino;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+// headless solution counter, run it with
+//   java -cp target/classes com.example.pentomino.Enumerate [--threads N] [--split D] [--all] [board...]
+// boards are 3x20, 4x15, 5x12, 6x10, 8x8-hole (all of them by default). every board is solved once on
+// a single thread and once on the pool, so the last column is the speedup you get from the extra cores
+public class Enumerate {
+
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int split = 3;
+        boolean distinct = true;
+        List<BoardShape> boards = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--split" -> split = Integer.parseInt(args[++i]);
+                case "--all" -> distinct = false; // count mirror images / rotations separately
+                default -> boards.add(BoardShape.parse(args[i]));
+            }
+        }
+        if (boards.isEmpty()) boards = List.of(BoardShape.values());
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        System.out.printf("%-9s %10s %12s %10s %10s %8s%n", "board", "solutions", "nodes", "1 thread", threads + " thr", "speedup");
+        for (BoardShape b : boards) {
+            Solver solver = b.solver(distinct);
+
+            long t0 = System.nanoTime();
+            long single = solver.count();
+            long t1 = System.nanoTime();
+            long parallel = solver.countParallel(pool, split);
+            long t2 = System.nanoTime();
+            if (single != parallel) throw new IllegalStateException(b.label + ": " + single + " vs " + parallel);
+
+            System.out.printf("%-9s %10d %12d %8.0fms %8.0fms %7.2fx%n", b.label, single, solver.nodes(),
+                    (t1 - t0) / 1e6, (t2 - t1) / 1e6, (double) (t1 - t0) / (t2 - t1));
+        }
+        pool.shutdown();
+    }
+}
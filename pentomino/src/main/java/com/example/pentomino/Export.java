@@ -0,0 +1,273 @@
+// File: src/main/java/com/example/pentomino/Export.java
+package com.example.pentomino;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// streams every solution of a board into compressed chunk files (or stdout) without keeping any of them,
+// for enumerations that run for hours. run it with
+//   java -cp target/classes com.example.pentomino.Export [--board 6x10|ROWSxCOLS] [--reuse] [--all]
+//        [--out DIR|-] [--checkpoint FILE] [--chunk N] [--buffer N] [--limit N] [--fresh]
+// the pieces are PentominoLibrary's 12, each once; with --reuse as often as needed (the game's question,
+// which has far more answers and works on any board whose size is a multiple of 5). like Enumerate only
+// one solution per class of board symmetries is kept unless --all is given (--reuse always keeps all).
+// solutions come from a SolutionPublisher, so a slow disk holds up the search instead of filling the heap.
+//
+// DIR gets chunk-000000.psol.gz, chunk-000001.psol.gz, ... each a gzip stream of
+//   header   int magic "PSOL", int version, byte width, byte height, byte placements, byte 0,
+//            long index of the first solution in the chunk
+//   records  placements * 3 bytes per solution, see SolutionPublisher
+// every chunk holds --chunk solutions except the last one of a run: the end of the search or --limit
+// closes it early, and a run that resumes after --limit starts the next chunk rather than filling that
+// one up (--chunk 500 --limit 700 twice gives chunks of 500, 200, 500, 200). so go by the index in a
+// chunk's header, not by its number. once a chunk is closed and on disk, the checkpoint (DIR/checkpoint
+// unless --checkpoint) gets the rows of its last solution, which is all the search needs to pick up right
+// after it, see Solver.solve(listener, resume). run the same command again after a crash or a kill and it
+// goes on from the last closed chunk, rewriting the one it was in the middle of; --fresh starts over. with --out - the records go to stdout after one header, a chunk is a flush, and
+// resuming (only with --checkpoint) repeats whatever came after the last checkpoint.
+// progress goes to stderr every couple of seconds
+public class Export {
+    private static final int MAGIC = 0x50534f4c;       // "PSOL"
+    private static final int CHECKPOINT_MAGIC = 0x50434b50; // "PCKP"
+    private static final int VERSION = 1;
+    private static final long PROGRESS_EVERY = 2 * GameEngine.SECOND;
+
+    public static void main(String[] args) throws Exception {
+        String boardName = "6x10", out = "solutions", checkpointName = null;
+        boolean reuse = false, distinct = true, fresh = false;
+        int chunk = 1_000_000, buffer = 4096;
+        long limit = Long.MAX_VALUE;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--board" -> boardName = args[++i];
+                case "--reuse" -> reuse = true;
+                case "--all" -> distinct = false;
+                case "--out" -> out = args[++i];
+                case "--checkpoint" -> checkpointName = args[++i];
+                case "--chunk" -> chunk = Integer.parseInt(args[++i]);
+                case "--buffer" -> buffer = Integer.parseInt(args[++i]);
+                case "--limit" -> limit = Long.parseLong(args[++i]); // solutions in this run, then stop at a checkpoint
+                case "--fresh" -> fresh = true;
+                default -> throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+
+        int w, h;
+        boolean[] blocked;
+        try {
+            BoardShape b = BoardShape.parse(boardName);
+            w = b.width;
+            h = b.height;
+            blocked = b.blocked();
+        } catch (IllegalArgumentException e) {
+            String[] rc = boardName.toLowerCase().split("x");
+            if (rc.length != 2) throw e;
+            h = Integer.parseInt(rc[0]);
+            w = Integer.parseInt(rc[1]);
+            blocked = new boolean[w * h];
+        }
+        if (w * h > 1 << 16 || w > 127 || h > 127) throw new IllegalArgumentException("board " + boardName + " is too big for the record format");
+        int free = 0;
+        for (boolean b : blocked) if (!b) free++;
+        Solver solver = reuse ? Solver.tiling(w, h, blocked, PentominoLibrary.all())
+                              : new Solver(w, h, blocked, PentominoLibrary.all(), distinct);
+        String config = boardName + (reuse ? " reuse" : distinct ? "" : " all");
+
+        boolean toStdout = out.equals("-");
+        Path dir = toStdout ? null : Path.of(out);
+        if (dir != null) Files.createDirectories(dir);
+        Path checkpoint = checkpointName != null ? Path.of(checkpointName) : dir == null ? null : dir.resolve("checkpoint");
+        Checkpoint from = checkpoint == null || fresh || !Files.exists(checkpoint) ? Checkpoint.START : Checkpoint.read(checkpoint, config);
+        if (from.rows() == null && from.solutions() > 0) {
+            System.err.printf("%s is already complete: %,d solutions%n", config, from.solutions());
+            return;
+        }
+
+        SolutionPublisher publisher = new SolutionPublisher(solver, free, from.rows(), from.solutions(), buffer);
+        Writer writer = new Writer(dir, checkpoint, config, w, h, publisher.recordBytes() / 3, chunk, buffer, limit, from);
+        long t0 = System.nanoTime();
+        if (from.solutions() > 0) System.err.printf("resuming %s after %,d solutions, at chunk %d%n", config, from.solutions(), from.chunk());
+        publisher.subscribe(writer);
+        while (!writer.done.await(PROGRESS_EVERY, TimeUnit.NANOSECONDS)) {
+            double secs = (System.nanoTime() - t0) / 1e9;
+            System.err.printf("%,d solutions (%.0f/s)  %,d nodes  chunk %d  ~%.2f%% of the search%n",
+                    writer.index, (writer.index - from.solutions()) / secs, publisher.nodes(), writer.chunk, 100 * publisher.progress());
+        }
+        if (writer.error != null) throw new IllegalStateException("export failed", writer.error);
+        double secs = (System.nanoTime() - t0) / 1e9;
+        System.err.printf("%s: %,d solutions in %d chunks%s, %.1fs%n", config, writer.index, writer.chunk,
+                writer.complete ? "" : " so far (stopped at --limit)", secs);
+    }
+
+    // rows == null with solutions > 0 means the enumeration is complete
+    record Checkpoint(String config, long solutions, int chunk, int[] rows) {
+        static final Checkpoint START = new Checkpoint("", 0, 0, null);
+
+        static Checkpoint read(Path file, String config) throws IOException {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+                if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != VERSION) throw new IOException(file + " is not a checkpoint");
+                String c = in.readUTF();
+                if (!c.equals(config)) throw new IllegalArgumentException(file + " is for " + c + ", not " + config + " (--fresh to start over)");
+                long solutions = in.readLong();
+                int chunk = in.readInt(), n = in.readInt();
+                int[] rows = n < 0 ? null : new int[n];
+                for (int i = 0; i < n; i++) rows[i] = in.readInt();
+                return new Checkpoint(c, solutions, chunk, rows);
+            }
+        }
+
+        // to a temp file first and then renamed over the old one, a crash leaves one or the other
+        void write(Path file) throws IOException {
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileOutputStream fos = new FileOutputStream(tmp.toFile());
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+                out.writeInt(CHECKPOINT_MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(config);
+                out.writeLong(solutions);
+                out.writeInt(chunk);
+                out.writeInt(rows == null ? -1 : rows.length);
+                if (rows != null) for (int r : rows) out.writeInt(r);
+                out.flush();
+                fos.getFD().sync();
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    // writes the records and keeps the checkpoint, on the publisher's delivery thread
+    private static final class Writer implements Flow.Subscriber<SolutionPublisher.Solution> {
+        private final Path dir, checkpoint;
+        private final String config;
+        private final int w, h, placements, chunkSize, buffer;
+        private final long stopAt;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private Flow.Subscription subscription;
+        private FileOutputStream file; // the current chunk's, to sync it; null on stdout
+        private GZIPOutputStream gzip;
+        private DataOutputStream out;
+        private int inChunk;
+        private volatile long index; // solutions written, of all runs
+        private volatile int chunk;
+        private volatile boolean complete;
+        private volatile Throwable error;
+
+        Writer(Path dir, Path checkpoint, String config, int w, int h, int placements, int chunkSize, int buffer, long limit, Checkpoint from) {
+            this.dir = dir;
+            this.checkpoint = checkpoint;
+            this.config = config;
+            this.w = w;
+            this.h = h;
+            this.placements = placements;
+            this.chunkSize = chunkSize;
+            this.buffer = buffer;
+            this.index = from.solutions();
+            this.chunk = from.chunk();
+            this.stopAt = limit == Long.MAX_VALUE ? Long.MAX_VALUE : from.solutions() + limit;
+        }
+
+        @Override public void onSubscribe(Flow.Subscription s) {
+            subscription = s;
+            try {
+                if (dir == null) {
+                    out = new DataOutputStream(new BufferedOutputStream(System.out, 1 << 16));
+                    header(index);
+                }
+            } catch (IOException e) {
+                fail(e);
+                return;
+            }
+            s.request(buffer);
+        }
+
+        @Override public void onNext(SolutionPublisher.Solution s) {
+            try {
+                if (out == null) openChunk(s.index());
+                out.write(s.record());
+                index = s.index() + 1;
+                if (++inChunk == chunkSize) endChunk(s.rows());
+                if (index == stopAt) {
+                    if (inChunk > 0) endChunk(s.rows());
+                    subscription.cancel();
+                    finish();
+                    return;
+                }
+            } catch (IOException e) {
+                fail(e);
+                return;
+            }
+            subscription.request(1);
+        }
+
+        @Override public void onError(Throwable t) {
+            error = t;
+            done.countDown();
+        }
+
+        @Override public void onComplete() {
+            try {
+                if (inChunk > 0) endChunk(null);
+                complete = true;
+                if (checkpoint != null) new Checkpoint(config, index, chunk, null).write(checkpoint);
+                if (dir == null) out.flush();
+            } catch (IOException e) {
+                error = e;
+            }
+            finish();
+        }
+
+        private void openChunk(long first) throws IOException {
+            file = new FileOutputStream(dir.resolve(String.format("chunk-%06d.psol.gz", chunk)).toFile());
+            gzip = new GZIPOutputStream(file, 1 << 16);
+            out = new DataOutputStream(new BufferedOutputStream(gzip, 1 << 16));
+            header(first);
+        }
+
+        private void header(long first) throws IOException {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeByte(w);
+            out.writeByte(h);
+            out.writeByte(placements);
+            out.writeByte(0);
+            out.writeLong(first);
+        }
+
+        // the chunk goes to disk before the checkpoint that counts it does
+        private void endChunk(int[] lastRows) throws IOException {
+            if (dir != null) {
+                out.flush();
+                gzip.finish();
+                file.getFD().sync();
+                out.close();
+                out = null;
+            } else {
+                out.flush();
+            }
+            inChunk = 0;
+            chunk++;
+            if (checkpoint != null && lastRows != null) new Checkpoint(config, index, chunk, lastRows).write(checkpoint);
+        }
+
+        private void fail(IOException e) {
+            subscription.cancel();
+            error = new UncheckedIOException(e);
+            finish();
+        }
+
+        private void finish() {
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+// File: src/main/java/com/example/pentomino/FairSpawner.java
+package com.example.pentomino;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// "fair spawn": instead of any random shape, the next pool piece is one that can still go somewhere
+// without making the board impossible to finish. a look-ahead queue holds the next few candidates,
+// drawn from a Random seeded by the game so the sequence repeats per seed. whenever the board changes a
+// background thread goes through the queue against the new occupancy and remembers, per candidate, a
+// few placements after which the oracle still thinks the rest can be tiled. when the engine asks for
+// a piece nothing is searched: it gets the first candidate with a remembered placement whose cells are
+// all still free, else a stand-in the worker found among the other shapes, else (nothing checked yet,
+// or nothing fits at all) the head of the queue, which is as random as before. the worker trails the
+// board by at most the move that triggered the spawn; testing the remembered cells against the live
+// occupancy catches what that move covered, and a removal only makes more room
+final class FairSpawner implements GameEngine.Spawner, GameEngine.Listener, AutoCloseable {
+    private static final int DEPTH = 4; // queued candidates
+    private static final int KEEP = 16; // good placements remembered per candidate
+    // with more empty cells than this, a placement that leaves no dead region is taken as good without
+    // a search: open boards are nearly always solvable and searching them only burns the node budget
+    private static final int OPEN_CELLS = 30;
+
+    // an upcoming piece and what the worker found out about it
+    private static final class Upcoming {
+        final Pentomino shape;
+        volatile long[] good; // masks of placements that keep the board solvable, null until checked
+
+        Upcoming(Pentomino shape) {
+            this.shape = shape;
+        }
+    }
+
+    private final GameEngine engine;
+    private final SolvabilityOracle oracle;
+    private final int w, h;
+    private final long full;
+    private final ArrayDeque<Upcoming> queue = new ArrayDeque<>(); // engine thread only
+    private volatile Upcoming standIn; // found by the worker when nothing queued has a good placement
+    private final AtomicLong version = new AtomicLong(); // bumped on every check request, older ones give up
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "fair-spawn");
+        t.setDaemon(true);
+        return t;
+    });
+    private Random rng = new Random();
+
+    // the oracle is shared, it's thread safe and the game's own checks fill the same cache
+    FairSpawner(GameEngine engine, SolvabilityOracle oracle) {
+        Board<?> board = engine.board();
+        if (!(board instanceof Board.Single<?>)) throw new IllegalArgumentException("fair spawn needs a board of up to 64 cells");
+        this.engine = engine;
+        this.oracle = oracle;
+        this.w = board.width();
+        this.h = board.height();
+        int n = w * h;
+        this.full = n == Long.SIZE ? -1L : (1L << n) - 1;
+        engine.addListener(this);
+    }
+
+    // --- engine thread ---
+
+    @Override public Pentomino next(int roll) {
+        if (queue.isEmpty()) refill(); // not started through the listener, e.g. set mid-game
+        long occ = occupancy();
+        Upcoming pick = null;
+        for (Upcoming u : queue)
+            if (stillGood(u, occ)) {
+                pick = u;
+                break;
+            }
+        Upcoming s = standIn;
+        if (pick == null && s != null && stillGood(s, occ)) {
+            standIn = null;
+            return s.shape;
+        }
+        if (pick == null) pick = queue.peekFirst();
+        queue.remove(pick);
+        queue.addLast(new Upcoming(draw()));
+        return pick.shape;
+    }
+
+    @Override public void started(long seed) {
+        if (!active()) return;
+        rng = new Random(seed * 0x9E3779B97F4A7C15L);
+        queue.clear();
+        standIn = null;
+        refill();
+    }
+
+    // every board change goes along with a spawn (a placement or the start) or is a removal
+    @Override public void spawned(GameEngine.Piece p) { if (active()) recheck(); }
+    @Override public void removed(GameEngine.Piece p) { if (active()) recheck(); }
+
+    // waits for the checks asked for so far. for simulations, where the game clock doesn't wait for anyone
+    void settle() {
+        try {
+            worker.submit(() -> {}).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override public void close() {
+        worker.shutdownNow();
+    }
+
+    private boolean active() {
+        return engine.spawner() == this;
+    }
+
+    private void refill() {
+        while (queue.size() < DEPTH) queue.addLast(new Upcoming(draw()));
+    }
+
+    private Pentomino draw() {
+        List<Pentomino> pieces = engine.pieces();
+        return pieces.get(rng.nextInt(pieces.size()));
+    }
+
+    private long occupancy() {
+        return ((Board.Single<?>) engine.board()).occupancy();
+    }
+
+    private static boolean stillGood(Upcoming u, long occ) {
+        long[] good = u.good;
+        if (good == null) return false;
+        for (long m : good) if ((m & occ) == 0) return true;
+        return false;
+    }
+
+    private void recheck() {
+        long v = version.incrementAndGet();
+        long occ = occupancy();
+        Upcoming[] candidates = queue.toArray(new Upcoming[0]);
+        worker.execute(() -> check(v, occ, candidates));
+    }
+
+    // --- worker thread ---
+
+    private void check(long v, long occ, Upcoming[] candidates) {
+        boolean any = false;
+        for (Upcoming u : candidates) {
+            long[] good = goodPlacements(u.shape, occ, v);
+            if (good == null) return; // the board moved on
+            u.good = good;
+            any |= good.length > 0;
+        }
+        if (any) {
+            standIn = null;
+            return;
+        }
+        // nothing queued can go anywhere, look for a stand-in among the other shapes
+        List<Pentomino> others = new ArrayList<>(engine.pieces());
+        Collections.shuffle(others, new Random(occ));
+        for (Pentomino p : others) {
+            long[] good = goodPlacements(p, occ, v);
+            if (good == null) return;
+            if (good.length > 0) {
+                Upcoming s = new Upcoming(p);
+                s.good = good;
+                standIn = s;
+                return;
+            }
+        }
+    }
+
+    // up to KEEP placements of the piece after which the board can still be completed, picked from all
+    // free placements in a random order so they don't all bunch up in one corner. null if a newer check
+    // came in meanwhile
+    private long[] goodPlacements(Pentomino piece, long occ, long v) {
+        long[] free = new long[64];
+        int n = 0;
+        for (int r = 0; r < 4; r++) {
+            Orientation o = piece.orientation(r);
+            boolean seen = false;
+            for (int q = 0; q < r; q++) seen |= piece.orientation(q) == o;
+            if (seen) continue;
+            for (int y = 0; y + o.height <= h; y++)
+                for (int x = 0; x + o.width <= w; x++) {
+                    long m = o.maskAt(w, x, y);
+                    if ((occ & m) != 0) continue;
+                    if (n == free.length) free = Arrays.copyOf(free, n * 2);
+                    free[n++] = m;
+                }
+        }
+        Random order = new Random(occ ^ piece.id());
+        long[] good = new long[Math.min(n, KEEP)];
+        int found = 0;
+        for (int i = n; i > 0 && found < good.length; i--) {
+            if (version.get() != v) return null;
+            int j = order.nextInt(i); // partial Fisher-Yates over free[0..i)
+            long m = free[j];
+            free[j] = free[i - 1];
+            if (solvableAfter(occ | m)) good[found++] = m;
+        }
+        return found == good.length ? good : Arrays.copyOf(good, found);
+    }
+
+    private boolean solvableAfter(long occ) {
+        if (occ == full) return true;
+        if (oracle.hasDeadRegion(occ)) return false;
+        if (Long.bitCount(~occ & full) > OPEN_CELLS) return true;
+        return oracle.check(occ) != SolvabilityOracle.Verdict.DEAD;
+    }
+}
@@ -0,0 +1,322 @@
+// File: src/main/java/com/example/pentomino/GameEngine.java
+package com.example.pentomino;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+// the game rules without any JavaFX: spawning, vanishing, the countdown and winning / losing.
+// time comes from an injected clock (nanoseconds) and everything random from one seeded Random, so the
+// same seed and the same moves always give the same game. nothing happens on its own: update() fires
+// every timer that is due by the clock's current time, the UI calls it every frame and a simulation
+// can jump the clock straight to nextEventAt(). the clock is read once per call (start, update or a
+// move, which runs the due timers first) and that reading is now() for everything the call does, so
+// a game is fully determined by the seed plus the time and arguments of every move (see GameLog)
+final class GameEngine {
+    static final long SECOND = 1_000_000_000L;
+
+    // the tunable numbers. untouched pool pieces vanish after untouchedMin..untouchedMax seconds (both
+    // inclusive), once clicked or dragged after touchedMin..touchedMax, and clicked ones fade out first
+    record Rules(int gameSeconds, int untouchedMin, int untouchedMax, int touchedMin, int touchedMax, long fadeNanos) {
+        static final Rules DEFAULT = new Rules(240, 5, 10, 20, 30, 150_000_000L);
+
+        Rules {
+            if (gameSeconds <= 0 || untouchedMin < 0 || untouchedMax < untouchedMin || touchedMin < 0 || touchedMax < touchedMin || fadeNanos < 0)
+                throw new IllegalArgumentException("bad rules " + gameSeconds + "s " + untouchedMin + "-" + untouchedMax + "s " + touchedMin + "-" + touchedMax + "s");
+        }
+    }
+
+    // everything the UI needs to follow the game. all calls come from inside update() or a move
+    interface Listener {
+        default void started(long seed) {}
+        default void prefilled(Piece p) {}  // locked on the board from the start, see start(seed, presets)
+        default void spawned(Piece p) {}
+        default void touched(Piece p) {}
+        default void placed(Piece p) {}
+        default void removed(Piece p) {}    // a locked piece taken off again by the player
+        default void rotated(Piece p) {}
+        default void fading(Piece p) {}     // the piece vanishes after rules().fadeNanos()
+        default void vanished(Piece p) {}   // the pool piece timed out and is gone
+        default void clock(int remaining, int elapsed) {}
+        default void ended(boolean win, String reason) {}
+    }
+
+    // picks the shape of every new pool piece. the engine draws a uniform roll (an index into pieces())
+    // first, so the rng is used the same way whatever the spawner makes of it. it's called on the
+    // engine's thread in the middle of a move or timer and has to answer right away
+    interface Spawner {
+        Pentomino next(int roll);
+    }
+
+    enum State { POOL, LOCKED, FADING, GONE }
+
+    // a piece that is on the board when the game starts, rotation 0..3 like the game's
+    record Preset(Pentomino shape, int rotation, int x, int y) {}
+
+    // one spawned piece. the pool position and hue are picked here so the rng stays the only source
+    final class Piece {
+        final int serial;
+        final Pentomino shape;
+        final double hue;          // 0..360
+        final double poolX, poolY; // 0..1, where in the pool it shows up
+        private State state = State.POOL;
+        private int rotation;
+        private int anchorX, anchorY;
+        private boolean touched;   // clicked or dragged at least once
+        private boolean fixed;     // a preset, it can't be taken off
+        private long vanishAt, fadeEndsAt;
+
+        private Piece(int serial, Pentomino shape, double hue, double poolX, double poolY) {
+            this.serial = serial;
+            this.shape = shape;
+            this.hue = hue;
+            this.poolX = poolX;
+            this.poolY = poolY;
+        }
+
+        State state()      { return state; }
+        int rotation()     { return rotation; }
+        int anchorX()      { return anchorX; }
+        int anchorY()      { return anchorY; }
+        boolean touched()  { return touched; }
+        boolean fixed()    { return fixed; }
+        long fadeEndsAt()  { return fadeEndsAt; } // clock time the fade is over, only while FADING
+        Orientation orientation() { return shape.orientation(rotation); }
+    }
+
+    private final List<Pentomino> pieces;
+    private final Rules rules;
+    private final Board<Piece> board;
+    private final LongSupplier clock;
+    private final List<Listener> listeners = new ArrayList<>();
+
+    // every deadline of a game lives on one timing wheel (1 ms ticks, about a second per turn). there is
+    // only ever one pool piece, so three reusable timers cover it all: the countdown, the pool piece's
+    // vanish deadline and the end of its fade. the wheel counts from the start of the game (epoch), so
+    // its 1 ms ticks line up the same way whatever the clock read when the game started
+    private final TimingWheel wheel;
+    private final TimingWheel.Timer countdown = new TimingWheel.Timer(this::tick);
+    private final TimingWheel.Timer vanishDue = new TimingWheel.Timer(this::vanishDue);
+    private final TimingWheel.Timer fadeDone = new TimingWheel.Timer(this::fadeDone);
+    private long nextTickAt;
+    private long now, epoch;
+
+    private final Spawner uniform;
+    private Spawner spawner;
+    private Random rng = new Random();
+    private Piece poolPiece;
+    private int serials, spawned, placed, vanished;
+    private int remaining, elapsed;
+    private boolean over, won;
+    private String reason = "";
+
+    GameEngine(int cols, int rows, List<Pentomino> pieces, LongSupplier clock) {
+        this(cols, rows, pieces, clock, Rules.DEFAULT);
+    }
+
+    GameEngine(int cols, int rows, List<Pentomino> pieces, LongSupplier clock, Rules rules) {
+        this.pieces = List.copyOf(pieces);
+        this.rules = rules;
+        this.board = Board.create(cols, rows);
+        this.clock = clock;
+        this.epoch = clock.getAsLong();
+        this.wheel = new TimingWheel(1_000_000L, 1024, 0);
+        this.uniform = this.spawner = this.pieces::get;
+    }
+
+    void addListener(Listener l) {
+        listeners.add(l);
+    }
+
+    // null goes back to uniformly random pieces
+    void setSpawner(Spawner s) {
+        spawner = s == null ? uniform : s;
+    }
+
+    Spawner spawner()     { return spawner; }
+    Rules rules()         { return rules; }
+    List<Pentomino> pieces() { return pieces; }
+    LongSupplier clock()  { return clock; }
+    long now()            { return now; }       // clock reading of the current / last call
+    Board<Piece> board()  { return board; }
+    Piece poolPiece()     { return poolPiece; }
+    int remaining()       { return remaining; }
+    int elapsed()         { return elapsed; }   // seconds since the last placement or vanish
+    int spawned()         { return spawned; }
+    int placed()          { return placed; }    // pieces locked onto the board, taking some off again doesn't count down
+    int vanished()        { return vanished; }  // pool pieces that timed out
+    boolean isOver()      { return over; }
+    boolean isWon()       { return won; }
+    String endReason()    { return reason; }
+
+    // new game from now on the clock
+    void start(long seed) {
+        start(seed, List.of());
+    }
+
+    // new game with the presets already locked on the board (a challenge). they are pieces like any
+    // other, they just never were in the pool and can't be removed
+    void start(long seed, List<Preset> presets) {
+        rng = new Random(seed);
+        now = epoch = clock.getAsLong();
+        wheel.reset(0);
+        board.clear();
+        poolPiece = null;
+        serials = spawned = placed = vanished = 0;
+        remaining = rules.gameSeconds();
+        elapsed = 0;
+        over = won = false;
+        reason = "";
+        nextTickAt = now + SECOND;
+        wheel.schedule(countdown, nextTickAt - epoch);
+        for (Listener l : listeners) l.started(seed);
+        for (Listener l : listeners) l.clock(remaining, elapsed);
+        for (Preset s : presets) {
+            if (!board.fits(s.shape(), s.rotation(), s.x(), s.y()))
+                throw new IllegalArgumentException("preset " + s + " doesn't fit");
+            Piece p = new Piece(serials++, s.shape(), rng.nextDouble() * 360, 0, 0);
+            p.rotation = s.rotation() & 3;
+            p.anchorX = s.x();
+            p.anchorY = s.y();
+            p.state = State.LOCKED;
+            p.fixed = true;
+            board.place(p.shape, p.rotation, p.anchorX, p.anchorY, p);
+            for (Listener l : listeners) l.prefilled(p);
+        }
+        spawnNext();
+    }
+
+    // fires every timer due by now, in time order
+    void update() {
+        now = clock.getAsLong();
+        wheel.advanceTo(now - epoch);
+    }
+
+    // when the next timer is due, Long.MAX_VALUE once the game is over
+    long nextEventAt() {
+        if (over) return Long.MAX_VALUE;
+        long next = wheel.nextDeadline();
+        return next == Long.MAX_VALUE ? next : next + epoch;
+    }
+
+    // --- moves ---
+    // every move brings the timers up to date first, so it sees the game as it is at that time
+    // whenever the last frame ran
+
+    // a click or the start of a drag on the pool piece: it gets the long vanish window from now on
+    void touch(Piece p) {
+        update();
+        if (over || p.state != State.POOL) return;
+        p.touched = true;
+        startVanish(p);
+        for (Listener l : listeners) l.touched(p);
+    }
+
+    void rotate(Piece p, int dir) {
+        update();
+        if (over || p.state != State.POOL) return; // immobile once placed
+        p.rotation = (p.rotation + (dir > 0 ? 1 : 3)) % 4;
+        for (Listener l : listeners) l.rotated(p);
+    }
+
+    // locks the piece at the anchor if it fits there, returns whether it did
+    boolean place(Piece p, int ax, int ay) {
+        update();
+        if (over || p.state != State.POOL || !board.fits(p.shape, p.rotation, ax, ay)) return false;
+        board.place(p.shape, p.rotation, ax, ay, p);
+        p.state = State.LOCKED;
+        placed++;
+        p.anchorX = ax;
+        p.anchorY = ay;
+        elapsed = 0;
+        if (poolPiece == p) {
+            poolPiece = null;
+            wheel.cancel(vanishDue);
+        }
+        for (Listener l : listeners) l.placed(p);
+        for (Listener l : listeners) l.clock(remaining, elapsed);
+        spawnNext();
+        if (board.isComplete()) end(true, "");
+        return true;
+    }
+
+    // takes a locked piece off the board again, it's gone for good
+    void remove(Piece p) {
+        update();
+        if (over || p.state != State.LOCKED || p.fixed) return;
+        board.remove(p);
+        p.state = State.GONE;
+        for (Listener l : listeners) l.removed(p);
+    }
+
+    // --- rules ---
+
+    private void spawnNext() {
+        if (over || poolPiece != null) return;
+        Pentomino shape = spawner.next(rng.nextInt(pieces.size()));
+        double hue = rng.nextDouble() * 360;
+        double x = rng.nextDouble(), y = rng.nextDouble();
+        Piece p = new Piece(serials++, shape, hue, x, y);
+        spawned++;
+        poolPiece = p;
+        startVanish(p);
+        for (Listener l : listeners) l.spawned(p);
+    }
+
+    private void startVanish(Piece p) {
+        int seconds = p.touched
+                ? rules.touchedMin() + rng.nextInt(rules.touchedMax() - rules.touchedMin() + 1)
+                : rules.untouchedMin() + rng.nextInt(rules.untouchedMax() - rules.untouchedMin() + 1);
+        p.vanishAt = now + seconds * SECOND;
+        wheel.schedule(vanishDue, p.vanishAt - epoch);
+    }
+
+    private void tick() {
+        elapsed++;
+        remaining--;
+        for (Listener l : listeners) l.clock(remaining, elapsed);
+        if (remaining <= 0) {
+            end(false, "Time's up!");
+        } else {
+            nextTickAt += SECOND;
+            wheel.schedule(countdown, nextTickAt - epoch);
+        }
+    }
+
+    private void vanishDue() {
+        Piece p = poolPiece;
+        if (p == null || p.state != State.POOL) return;
+        if (p.touched) {
+            p.state = State.FADING;
+            p.fadeEndsAt = p.vanishAt + rules.fadeNanos();
+            for (Listener l : listeners) l.fading(p);
+            wheel.schedule(fadeDone, p.fadeEndsAt - epoch);
+        } else {
+            vanish(p);
+        }
+    }
+
+    private void fadeDone() {
+        if (poolPiece != null) vanish(poolPiece);
+    }
+
+    private void vanish(Piece p) {
+        p.state = State.GONE;
+        vanished++;
+        if (poolPiece == p) poolPiece = null;
+        elapsed = 0;
+        for (Listener l : listeners) l.vanished(p);
+        for (Listener l : listeners) l.clock(remaining, elapsed);
+        spawnNext();
+    }
+
+    private void end(boolean win, String why) {
+        if (over) return;
+        over = true;
+        won = win;
+        reason = why;
+        wheel.reset(now - epoch);
+        for (Listener l : listeners) l.ended(win, why);
+    }
+}
@@ -0,0 +1,297 @@
+// File: src/main/java/com/example/pentomino/GameLog.java
+package com.example.pentomino;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// append-only binary log of everything that happens in GameEngine games. a file starts with the magic
+// "PLOG" and a version byte, then holds records back to back:
+//   type byte, nanoseconds since the previous record (varint), then the fields of the type (varints)
+//   START    seed (8 bytes), cols, rows, piece order, the rules: gameSeconds, untouched min/max,
+//            touched min/max, fadeNanos. time 0, every game starts with one
+//   SPAWN    serial, piece id      TOUCH  serial          ROTATE  serial, rotation
+//   PLACE    serial, x, y          REMOVE serial          FADE    serial
+//   VANISH   serial                END    1 won / 0 lost
+//   PRESET   serial, piece id, anchor * 4 + rotation (anchor y*cols + x), right after START in a challenge
+// varints are unsigned LEB128, so a record is usually 4-8 bytes. times are the engine's now(), the
+// clock reading the change happened at. touch / rotate / place / remove are the player's moves; with
+// the seed they are all a replay needs, the other records let Replay check it didn't drift off.
+// a crash can leave the last record half written. the Writer cuts the file back to the last whole
+// record before it adds anything, so the next session's records don't get read as the rest of it
+final class GameLog {
+    static final int START = 1, SPAWN = 2, TOUCH = 3, ROTATE = 4, PLACE = 5, REMOVE = 6, FADE = 7, VANISH = 8, END = 9, PRESET = 10;
+    private static final byte[] MAGIC = {'P', 'L', 'O', 'G', 1};
+
+    private GameLog() {}
+
+    static boolean isMove(int type) {
+        return type == TOUCH || type == ROTATE || type == PLACE || type == REMOVE;
+    }
+
+    // turns engine events into records, what happens to them is up to the subclass
+    abstract static class Recorder implements GameEngine.Listener {
+        final GameEngine engine;
+
+        Recorder(GameEngine engine) {
+            this.engine = engine;
+        }
+
+        abstract void record(int type, long a, long b, long c);
+
+        @Override public void started(long seed) { record(START, seed, 0, 0); }
+        @Override public void prefilled(GameEngine.Piece p) {
+            record(PRESET, p.serial, p.shape.id(), (p.anchorY() * engine.board().width() + p.anchorX()) * 4L + p.rotation());
+        }
+        @Override public void spawned(GameEngine.Piece p) { record(SPAWN, p.serial, p.shape.id(), 0); }
+        @Override public void touched(GameEngine.Piece p) { record(TOUCH, p.serial, 0, 0); }
+        @Override public void rotated(GameEngine.Piece p) { record(ROTATE, p.serial, p.rotation(), 0); }
+        @Override public void placed(GameEngine.Piece p) { record(PLACE, p.serial, p.anchorX(), p.anchorY()); }
+        @Override public void removed(GameEngine.Piece p) { record(REMOVE, p.serial, 0, 0); }
+        @Override public void fading(GameEngine.Piece p) { record(FADE, p.serial, 0, 0); }
+        @Override public void vanished(GameEngine.Piece p) { record(VANISH, p.serial, 0, 0); }
+        @Override public void ended(boolean win, String reason) { record(END, win ? 1 : 0, 0, 0); }
+    }
+
+    // encodes records on the caller's thread (the FX thread in the game), a background thread collects
+    // them in a direct buffer and writes it to the file channel when it fills up, when no record came for
+    // a moment, and on close. the caller never touches the file
+    static final class Writer extends Recorder implements AutoCloseable {
+        private static final byte[] CLOSE = new byte[0];
+
+        private final FileChannel channel;
+        private final BlockingQueue<byte[]> queue = new LinkedBlockingQueue<>();
+        private final Thread thread;
+        private final byte[] scratch = new byte[64];
+        private long last;
+        private volatile IOException failure;
+
+        // appends to file, which has to be a game log if it isn't empty (IllegalArgumentException otherwise)
+        Writer(Path file, GameEngine engine) throws IOException {
+            super(engine);
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                long keep = complete(channel, file);
+                channel.truncate(keep);
+                channel.position(keep);
+                if (keep == 0) channel.write(ByteBuffer.wrap(MAGIC));
+            } catch (IOException | IllegalArgumentException e) {
+                channel.close();
+                throw e;
+            }
+            this.thread = new Thread(this::drain, "game-log");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override void record(int type, long a, long b, long c) {
+            if (failure != null) return; // the disk gave up, the game goes on without a log
+            long now = engine.now();
+            int n = 0;
+            scratch[n++] = (byte) type;
+            n = varint(scratch, n, type == START ? 0 : now - last);
+            last = now;
+            switch (type) {
+                case START -> {
+                    for (int i = 56; i >= 0; i -= 8) scratch[n++] = (byte) (a >>> i);
+                    GameEngine.Rules r = engine.rules();
+                    long[] fields = {engine.board().width(), engine.board().height(), engine.pieces().get(0).size(),
+                            r.gameSeconds(), r.untouchedMin(), r.untouchedMax(), r.touchedMin(), r.touchedMax(), r.fadeNanos()};
+                    for (long f : fields) n = varint(scratch, n, f);
+                }
+                case SPAWN, ROTATE -> n = varint(scratch, varint(scratch, n, a), b);
+                case PLACE, PRESET -> n = varint(scratch, varint(scratch, varint(scratch, n, a), b), c);
+                default -> n = varint(scratch, n, a);
+            }
+            queue.add(Arrays.copyOf(scratch, n));
+        }
+
+        private void drain() {
+            ByteBuffer buf = ByteBuffer.allocateDirect(1 << 16);
+            try {
+                while (true) {
+                    byte[] rec = queue.poll(200, TimeUnit.MILLISECONDS);
+                    if (rec == null || rec == CLOSE || buf.remaining() < rec.length) flush(buf);
+                    if (rec == CLOSE) return;
+                    if (rec != null) buf.put(rec);
+                }
+            } catch (IOException e) {
+                failure = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void flush(ByteBuffer buf) throws IOException {
+            if (buf.position() == 0) return;
+            buf.flip();
+            while (buf.hasRemaining()) channel.write(buf);
+            buf.clear();
+        }
+
+        // writes out everything recorded so far and closes the file
+        @Override public void close() throws IOException {
+            queue.add(CLOSE);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            channel.close();
+            if (failure != null) throw failure;
+        }
+    }
+
+    // the length of the file up to the end of its last whole record, 0 if not even the magic made it.
+    // read onto the heap rather than mapped, a mapped file can't be truncated everywhere
+    private static long complete(FileChannel ch, Path file) throws IOException {
+        long size = ch.size();
+        if (size > Integer.MAX_VALUE) throw new IllegalArgumentException(file + " is over 2 GB");
+        ByteBuffer all = ByteBuffer.allocate((int) size);
+        while (all.hasRemaining())
+            if (ch.read(all, all.position()) < 0) break;
+        all.flip();
+        if (size < MAGIC.length && all.equals(ByteBuffer.wrap(MAGIC, 0, (int) size))) return 0;
+        Reader in = new Reader(all, file.toString());
+        int end = in.position();
+        try {
+            while (in.next()) end = in.position();
+        } catch (IllegalArgumentException e) {
+            // a bad record type, nothing after it can be trusted either
+        }
+        return end;
+    }
+
+    // moves file to file.1 (replacing an older one) if it has grown past maxBytes, so a log that is
+    // on by default never takes more than about twice that
+    static void rotate(Path file, long maxBytes) throws IOException {
+        if (Files.isRegularFile(file) && Files.size(file) > maxBytes)
+            Files.move(file, file.resolveSibling(file.getFileName() + ".1"), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static int varint(byte[] out, int n, long v) {
+        while ((v & ~0x7FL) != 0) {
+            out[n++] = (byte) (v & 0x7F | 0x80);
+            v >>>= 7;
+        }
+        out[n++] = (byte) v;
+        return n;
+    }
+
+    // walks a log file record by record through a read-only map. after next() returns true, type and
+    // time (nanoseconds since the START of its game) and the fields are set; for START they are the seed
+    // in a and the game's setup in cols .. rules
+    static final class Reader {
+        private final ByteBuffer in;
+        private int markType, markPosition;
+        private long markTime, markA, markB, markC;
+        int type;
+        long time, a, b, c;
+        int cols, rows, order;
+        GameEngine.Rules rules;
+
+        Reader(Path file) throws IOException {
+            this(map(file), file.toString());
+        }
+
+        Reader(ByteBuffer in, String name) {
+            this.in = in;
+            for (byte m : MAGIC)
+                if (!in.hasRemaining() || in.get() != m) throw new IllegalArgumentException(name + " is not a game log");
+        }
+
+        private static ByteBuffer map(Path file) throws IOException {
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+                return ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            }
+        }
+
+        // bytes read so far: after next() returned true, the end of that record
+        int position() {
+            return in.position();
+        }
+
+        // false at the end of the file, a record cut off by a crash counts as the end
+        boolean next() {
+            if (!in.hasRemaining()) return false;
+            int start = in.position();
+            try {
+                type = in.get();
+                long dt = varint();
+                time = type == START ? 0 : time + dt;
+                a = b = c = 0;
+                switch (type) {
+                    case START -> {
+                        a = in.getLong();
+                        cols = (int) varint();
+                        rows = (int) varint();
+                        order = (int) varint();
+                        rules = new GameEngine.Rules((int) varint(), (int) varint(), (int) varint(), (int) varint(), (int) varint(), varint());
+                    }
+                    case SPAWN, ROTATE -> { a = varint(); b = varint(); }
+                    case PLACE, PRESET -> { a = varint(); b = varint(); c = varint(); }
+                    case TOUCH, REMOVE, FADE, VANISH, END -> a = varint();
+                    default -> throw new IllegalArgumentException("bad record type " + type + " at byte " + start);
+                }
+                return true;
+            } catch (BufferUnderflowException e) {
+                in.position(in.limit());
+                return false;
+            }
+        }
+
+        // remembers the current record, reset() goes back to it so the records after it can be looked at first
+        void mark() {
+            markPosition = in.position();
+            markType = type;
+            markTime = time;
+            markA = a;
+            markB = b;
+            markC = c;
+        }
+
+        void reset() {
+            in.position(markPosition);
+            type = markType;
+            time = markTime;
+            a = markA;
+            b = markB;
+            c = markC;
+        }
+
+        private long varint() {
+            long v = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte x = in.get();
+                v |= (long) (x & 0x7F) << shift;
+                if (x >= 0) return v;
+            }
+        }
+    }
+
+    // for messages
+    static String name(int type) {
+        return switch (type) {
+            case START -> "START";
+            case SPAWN -> "SPAWN";
+            case TOUCH -> "TOUCH";
+            case ROTATE -> "ROTATE";
+            case PLACE -> "PLACE";
+            case REMOVE -> "REMOVE";
+            case FADE -> "FADE";
+            case VANISH -> "VANISH";
+            case END -> "END";
+            case PRESET -> "PRESET";
+            default -> "?" + type;
+        };
+    }
+}
@@ -0,0 +1,228 @@
+// File: src/main/java/com/example/pentomino/GameServer.java
+package com.example.pentomino;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// headless server that hosts many games in one JVM, no JavaFX involved. run it with
+//   java -cp target/classes com.example.pentomino.GameServer [--port 7777] [--tick MS] [--seconds N]
+// it listens on the loopback interface only. every connection is a session playing one game at a time
+// on its own virtual thread (plus one that reads the socket), all on the shared immutable piece data
+// of PentominoLibrary. the protocol is plain text lines, so a thin client can be anything with a socket:
+//   client: NEW [seed] | TOUCH serial | ROTATE serial 1|-1 | PLACE serial rotation x y | REMOVE serial | QUIT
+//   server: HELLO cols rows pieces | START seed | SPAWN serial piece | TOUCHED serial | ROTATED serial rotation
+//           PLACED serial piece rotation x y | REJECTED serial x y | REMOVED serial | FADING serial
+//           VANISHED serial | CLOCK remaining elapsed | END WIN|LOSE [reason] | ERROR message
+// pieces are ids into PentominoLibrary.all(). moves are batched per tick: the first move of a batch
+// waits for the end of its tick, then everything that came in meanwhile is applied in order and the
+// replies go out in one flush. with no moves coming in, a session only wakes for its engine's timers
+public class GameServer implements AutoCloseable {
+
+    public static void main(String[] args) throws IOException {
+        int port = 7777, tickMs = 20, seconds = GameEngine.Rules.DEFAULT.gameSeconds();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--tick" -> tickMs = Integer.parseInt(args[++i]);
+                case "--seconds" -> seconds = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+        GameServer server = new GameServer(port, tickMs * 1_000_000L, rules(seconds));
+        System.out.printf("pentomino server on %s, %d ms ticks%n", server.socket.getLocalSocketAddress(), tickMs);
+        server.serve();
+    }
+
+    static GameEngine.Rules rules(int seconds) {
+        GameEngine.Rules d = GameEngine.Rules.DEFAULT;
+        return new GameEngine.Rules(seconds, d.untouchedMin(), d.untouchedMax(), d.touchedMin(), d.touchedMax(), d.fadeNanos());
+    }
+
+    private final ServerSocket socket;
+    private final long tickNanos;
+    private final GameEngine.Rules rules;
+    private final AtomicInteger sessions = new AtomicInteger(), accepted = new AtomicInteger();
+
+    // port 0 picks a free one, see port()
+    GameServer(int port, long tickNanos, GameEngine.Rules rules) throws IOException {
+        this.socket = new ServerSocket(port, 512, InetAddress.getLoopbackAddress());
+        this.tickNanos = tickNanos;
+        this.rules = rules;
+    }
+
+    int port()     { return socket.getLocalPort(); }
+    int sessions() { return sessions.get(); } // connected right now
+
+    // accepts until closed
+    void serve() throws IOException {
+        while (!socket.isClosed()) {
+            Socket s;
+            try {
+                s = socket.accept();
+            } catch (SocketException e) {
+                if (socket.isClosed()) return;
+                throw e;
+            }
+            s.setTcpNoDelay(true);
+            Session session = new Session(s);
+            sessions.incrementAndGet();
+            Thread.ofVirtual().name("session-" + accepted.incrementAndGet()).start(session::play);
+        }
+    }
+
+    @Override public void close() throws IOException {
+        socket.close();
+    }
+
+    // one parsed client line, stamped when it arrived
+    private record Command(String[] words, long receivedAt) {}
+
+    private static final Command EOF = new Command(new String[0], 0);
+
+    private final class Session implements GameEngine.Listener {
+        private final Socket s;
+        private final BlockingQueue<Command> inbox = new LinkedBlockingQueue<>();
+        private final GameEngine engine = new GameEngine(Board.COLS, Board.ROWS, PentominoLibrary.all(), System::nanoTime, rules);
+        private final Map<Integer, GameEngine.Piece> bySerial = new HashMap<>();
+        private final List<Command> batch = new ArrayList<>();
+        private final Random seeds = new Random();
+        private final StringBuilder pending = new StringBuilder(); // replies of the current batch
+        private OutputStream out;
+        private boolean playing;
+
+        Session(Socket s) {
+            this.s = s;
+            engine.addListener(this);
+        }
+
+        void play() {
+            try (s) {
+                out = s.getOutputStream();
+                Thread.ofVirtual().name(Thread.currentThread().getName() + "-in").start(this::read);
+                send("HELLO " + Board.COLS + " " + Board.ROWS + " " + PentominoLibrary.all().size());
+                flush();
+                while (true) {
+                    long next = playing ? engine.nextEventAt() : Long.MAX_VALUE;
+                    long wait = next == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(0, next - System.nanoTime());
+                    Command first = inbox.poll(wait, TimeUnit.NANOSECONDS);
+                    if (first != null) {
+                        // the batch closes at the end of the tick the first move arrived in
+                        long tickEnd = (Math.floorDiv(first.receivedAt(), tickNanos) + 1) * tickNanos;
+                        for (long left; (left = tickEnd - System.nanoTime()) > 0; ) TimeUnit.NANOSECONDS.sleep(left);
+                        batch.add(first);
+                        inbox.drainTo(batch);
+                        boolean quit = false;
+                        for (Command c : batch) quit |= !apply(c);
+                        batch.clear();
+                        if (quit) break;
+                    }
+                    if (playing) engine.update();
+                    flush();
+                }
+                flush();
+            } catch (IOException | InterruptedException e) {
+                // the client went away, the game goes with it
+            } finally {
+                sessions.decrementAndGet();
+            }
+        }
+
+        private void read() {
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII))) {
+                for (String line; (line = in.readLine()) != null; ) {
+                    line = line.strip();
+                    if (!line.isEmpty()) inbox.add(new Command(line.split("\\s+"), System.nanoTime()));
+                }
+            } catch (IOException e) {
+                // closed under us
+            }
+            inbox.add(EOF);
+        }
+
+        // false once the session is over
+        private boolean apply(Command c) {
+            if (c == EOF) return false;
+            String[] w = c.words();
+            try {
+                switch (w[0].toUpperCase()) {
+                    case "NEW" -> {
+                        bySerial.clear();
+                        playing = true;
+                        engine.start(w.length > 1 ? Long.parseLong(w[1]) : seeds.nextLong());
+                    }
+                    case "TOUCH" -> engine.touch(piece(w[1]));
+                    case "ROTATE" -> engine.rotate(piece(w[1]), Integer.parseInt(w[2]));
+                    case "PLACE" -> {
+                        GameEngine.Piece p = piece(w[1]);
+                        int r = Integer.parseInt(w[2]) & 3, x = Integer.parseInt(w[3]), y = Integer.parseInt(w[4]);
+                        for (int i = 0; i < 3 && p.rotation() != r; i++) engine.rotate(p, 1); // no-op once it can't move
+                        if (!engine.place(p, x, y)) send("REJECTED " + p.serial + " " + x + " " + y);
+                    }
+                    case "REMOVE" -> engine.remove(piece(w[1]));
+                    case "QUIT" -> { return false; }
+                    default -> send("ERROR unknown command " + w[0]);
+                }
+            } catch (RuntimeException e) { // bad numbers, missing words, pieces that don't exist
+                send("ERROR " + String.join(" ", w) + ": " + e.getMessage());
+            }
+            return true;
+        }
+
+        private GameEngine.Piece piece(String serial) {
+            GameEngine.Piece p = bySerial.get(Integer.parseInt(serial));
+            if (p == null) throw new IllegalArgumentException("no piece " + serial);
+            return p;
+        }
+
+        private void send(String line) {
+            pending.append(line).append('\n');
+        }
+
+        // one write per batch
+        private void flush() throws IOException {
+            if (pending.isEmpty()) return;
+            out.write(pending.toString().getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            pending.setLength(0);
+        }
+
+        // engine events, all of them happen on this session's thread
+        @Override public void started(long seed) { send("START " + seed); }
+        @Override public void spawned(GameEngine.Piece p) {
+            bySerial.put(p.serial, p);
+            send("SPAWN " + p.serial + " " + p.shape.id());
+        }
+        @Override public void touched(GameEngine.Piece p) { send("TOUCHED " + p.serial); }
+        @Override public void rotated(GameEngine.Piece p) { send("ROTATED " + p.serial + " " + p.rotation()); }
+        @Override public void placed(GameEngine.Piece p) {
+            send("PLACED " + p.serial + " " + p.shape.id() + " " + p.rotation() + " " + p.anchorX() + " " + p.anchorY());
+        }
+        @Override public void removed(GameEngine.Piece p) {
+            bySerial.remove(p.serial);
+            send("REMOVED " + p.serial);
+        }
+        @Override public void fading(GameEngine.Piece p) { send("FADING " + p.serial); }
+        @Override public void vanished(GameEngine.Piece p) {
+            bySerial.remove(p.serial);
+            send("VANISHED " + p.serial);
+        }
+        @Override public void clock(int remaining, int elapsed) { send("CLOCK " + remaining + " " + elapsed); }
+        @Override public void ended(boolean win, String reason) { send("END " + (win ? "WIN" : "LOSE") + (reason.isEmpty() ? "" : " " + reason)); }
+    }
+}
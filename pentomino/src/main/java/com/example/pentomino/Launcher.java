@@ -3,35 +3,62 @@ package com.example.pentomino;
 
 import javafx.animation.*;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.beans.property.*;
-import javafx.geometry.Bounds;
 import javafx.geometry.Insets;
 import javafx.geometry.Point2D;
 import javafx.scene.*;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Line;
 import javafx.scene.shape.Rectangle;
+import javafx.scene.transform.Scale;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors; // allows later code to be used in a shortcut
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Launcher extends Application {
 
-    private static final int COLS = 10, ROWS = 6, CELL = 40;
-    private static final int POOL_HEIGHT = CELL * 6;
+    // board size, piece order and cell size are read once at startup, e.g.
+    //   -Dpentomino.cols=12 -Dpentomino.rows=10 -Dpentomino.order=6 -Dpentomino.cell=32
+    // the default is the classic 10x6 board with the 12 pentominoes
+    static final int CELL = Integer.getInteger("pentomino.cell", 40); // pixels per cell
+    private static final int COLS = Integer.getInteger("pentomino.cols", Board.COLS);
+    private static final int ROWS = Integer.getInteger("pentomino.rows", Board.ROWS);
+    private static final List<Pentomino> PIECES = PentominoLibrary.ofOrder(Integer.getInteger("pentomino.order", 5));
+    private static final int POOL_HEIGHT = CELL * Math.max(6, PentominoLibrary.maxExtent(PIECES) + 1);
     private static final int BOARD_WIDTH = COLS * CELL, BOARD_HEIGHT = ROWS * CELL;
-    private static final int INITIAL_SECONDS = 240;
+    // -Dpentomino.canvas=true draws the grid and the locked pieces into one Canvas (see BoardCanvas),
+    // only pieces that can still move stay nodes
+    private static final boolean CANVAS_BOARD = Boolean.getBoolean("pentomino.canvas");
+    // boards with more than Board.LARGE cells (or any with -Dpentomino.large=true) are shown through a
+    // scrolling, zooming window that only has nodes for the part in view (see BoardViewport), and placed
+    // pieces are no nodes at all. the window is at most 960x560
+    private static final boolean LARGE_BOARD = COLS * ROWS > Board.LARGE || Boolean.getBoolean("pentomino.large");
+    private static final int VIEW_WIDTH = LARGE_BOARD ? Math.min(BOARD_WIDTH, 960) : BOARD_WIDTH;
+    private static final int VIEW_HEIGHT = LARGE_BOARD ? Math.min(BOARD_HEIGHT, 560) : BOARD_HEIGHT;
+    // -Dpentomino.rotateMillis=120 turns a rotating piece smoothly into its new orientation instead of
+    // snapping to it, 0 (the default) for no animation
+    private static final int ROTATE_MILLIS = Integer.getInteger("pentomino.rotateMillis", 0);
     // since we're using these numbers constantly, we've decided it would be easier if they were variables.
     // it would also be more digestable
     private Pane poolPane, boardPane;
+    private BoardCanvas boardCanvas; // only in canvas mode
+    private BoardViewport<GameEngine.Piece> viewport; // only in large-board mode
 
 
     private StackPane rootStack;
@@ -40,21 +67,83 @@ public class Launcher extends Application {
 
     private Label timerLabel;
     private Label elapsedLabel; // counter up
-    private final Board board = new Board(COLS, ROWS);
-    private final Random rng = new Random();
-    private final List<Pentomino> pentominoSet = PentominoLibrary.all(); //adds all 12 types of pentominoes to a set
-
-    private Timeline gameTimer; //lifetime of the program
-    private final IntegerProperty remaining = new SimpleIntegerProperty(INITIAL_SECONDS);
+    private Label solvableLabel;
+    private final List<Pentomino> pentominoSet = PIECES; // every piece of the configured order, 12 pentominoes by default
+
+    // the rules live in the engine (see GameEngine), the UI only turns its events into nodes and
+    // the player's mouse / keys into engine moves. every game gets a fresh seed
+    private final GameEngine engine = new GameEngine(COLS, ROWS, pentominoSet, System::nanoTime);
+    private final Random seeds = new Random();
+    private final Map<GameEngine.Piece, DraggablePiece> nodes = new HashMap<>();
+    // every game is appended to a binary log that Replay can play back, -Dpentomino.log=FILE
+    // (games.plog in the working directory by default, "off" for none). a log over
+    // -Dpentomino.logMaxMB (16 by default) is moved to FILE.1 when the game starts, replacing the older one
+    private GameLog.Writer gameLog;
+
+    // "can the board still be completed?" is answered on a background thread and published through
+    // the solvability property, so placing a piece never waits on the search. the oracle works on
+    // boards of up to 64 cells, bigger ones just show "too open to tell"
+    private final SolvabilityOracle oracle = COLS * ROWS <= Long.SIZE ? new SolvabilityOracle(COLS, ROWS, pentominoSet, 4096, 200_000) : null;
+    private final ObjectProperty<SolvabilityOracle.Verdict> solvability = new SimpleObjectProperty<>(SolvabilityOracle.Verdict.SOLVABLE);
+    private final ExecutorService oracleWorker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "solvability-oracle");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicInteger boardVersion = new AtomicInteger(); // bumped on every board change
+
+    // "fair spawn" only hands out pieces that can still go somewhere (see FairSpawner), its checks run
+    // on their own thread. the checkbox (default -Dpentomino.fair=true) applies from the next game on
+    private final FairSpawner fairSpawner = oracle == null ? null : new FairSpawner(engine, oracle);
+    private CheckBox fairBox;
+
+    // pre-filled boards with one way to finish them (see Challenges), from -Dpentomino.challenges=FILE or
+    // challenges-<rows>x<cols>.pack in the working directory. while the checkbox is on, every new game is
+    // a random challenge of the pack and only its missing pieces spawn
+    private final Challenges challenges = openChallenges(engine.board());
+    private final GameEngine.Spawner challengeSpawner = Challenges.spawner(engine);
+    private CheckBox challengeBox;
+
+    // precomputed tilings for the hint button (see SolutionDb), from -Dpentomino.solutions=FILE or
+    // solutions-<rows>x<cols>.db in the working directory. null if there is none for this board
+    private final SolutionDb solutions = openSolutions(engine.board());
+    private Button hintBtn;
+    private long hintUntil; // frame time the hint goes away again, 0 while none is shown
+
+    private final IntegerProperty remaining = new SimpleIntegerProperty(GameEngine.Rules.DEFAULT.gameSeconds());
     private final IntegerProperty elapsed = new SimpleIntegerProperty(0); // both are used for showing time
 
-    private DraggablePiece currentPoolPiece = null; // this is for pieces in the pool, to be used
-    private final Set<DraggablePiece> boardPieces = new HashSet<>(); //pieces in the board
-
     // "focused" is the state when the piece has been clicked, abling it to move and rotate
     private final ObjectProperty<DraggablePiece> focused = new SimpleObjectProperty<>();
 
-    private boolean gameOver = false;
+    // drags are applied once per frame: mouse events only record the latest pointer position and
+    // the frame timer moves the piece and the snap ghost from it, however many events came in since the last frame
+    private DraggablePiece dragging;
+    private double boardOriginX, boardOriginY; // board pane origin in scene coordinates, taken when a drag starts
+    private final SnapGhost ghost = new SnapGhost(CELL);
+
+    // the only animation object of the game. it runs while a game is on: fires the engine's due timers
+    // (countdown, vanish, end of fade), sets the opacity of a fading piece, then applies the pending drag
+    private final AnimationTimer frame = new AnimationTimer() {
+        @Override public void handle(long now) {
+            long t0 = System.nanoTime();
+            engine.update();
+            if (fading != null) {
+                double left = (double) (fading.piece.fadeEndsAt() - now) / engine.rules().fadeNanos();
+                fading.setOpacity(Math.max(0, Math.min(1, left)));
+            }
+            if (dragging != null) dragging.applyDrag();
+            if (hintUntil != 0 && now >= hintUntil) clearHint();
+            hud.frameWork(System.nanoTime() - t0);
+        }
+    };
+    private DraggablePiece fading; // the pool piece while it fades out, the engine drops it when the fade is done
+    private StackPane instructions; // the how-to-play card, see showInstructions
+    // -Dpentomino.startupProbe=true reports when the first frame is up, plays for a moment and quits,
+    // for StartupBench and the kiosk build's training run
+    private static final boolean STARTUP_PROBE = Boolean.getBoolean("pentomino.startupProbe");
+    static long mainMillis; // wall clock when main was entered
+    private PerfHud hud; // F3, see PerfHud. spawns, drops, rotations, removals and game ends are also JFR events (PerfEvents)
 
     @Override public void start(Stage stage) {
         stage.setTitle("Pentomino Puzzle Game");
@@ -71,18 +160,48 @@ public class Launcher extends Application {
         rootStack = new StackPane(chrome, glassLayer);
         // stackpane allows pentomnioes to be seen above the grid layer
 
-        Scene scene = new Scene(rootStack, Math.max(BOARD_WIDTH, 600), POOL_HEIGHT + BOARD_HEIGHT + 120);
+        Scene scene = new Scene(rootStack, Math.max(VIEW_WIDTH, 600), POOL_HEIGHT + VIEW_HEIGHT + 120);
+        hud = new PerfHud(scene);
+        glassLayer.getChildren().add(hud);
         scene.setOnKeyPressed(e -> {
-            if (gameOver) return;
+            if (e.getCode() == KeyCode.F3) {
+                hud.toggle();
+                return;
+            }
+            if (instructionsShown()) {
+                closeInstructions();
+                return;
+            }
+            if (engine.isOver()) return;
             var s = focused.get();
             if (s == null) return;
             if (e.getCode() == KeyCode.RIGHT) s.rotateCW();
             if (e.getCode() == KeyCode.LEFT)  s.rotateCCW();
         }); // rotates pentominoes ^
 
+        engine.addListener(new EngineView());
         stage.setScene(scene);
         stage.show();
         startNewGame();
+        // everything the first frame doesn't need waits until it's on screen
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override public void run() {
+                scene.removePostLayoutPulseListener(this);
+                Platform.runLater(Launcher.this::afterFirstFrame);
+            }
+        });
+    }
+
+    // the game log's file and writer thread, and a first search on the oracle thread so the solver's
+    // tables and code are warm before the first piece lands. the window is up by now
+    private void afterFirstFrame() {
+        if (STARTUP_PROBE) StartupBench.firstFrame(mainMillis);
+        openGameLog();
+        if (oracle != null) oracleWorker.execute(() -> oracle.check(0));
+        if (STARTUP_PROBE) {
+            closeInstructions();
+            StartupBench.quitLater();
+        }
     }
 
     private Node buildControls() {
@@ -99,13 +218,29 @@ public class Launcher extends Application {
         elapsedLabel.setStyle("-fx-font-size:16px;-fx-font-weight:bold;");
         elapsedLabel.textProperty().bind(elapsed.asString("Elapsed time of block: %ds"));
 
+        solvableLabel = new Label();
+        solvableLabel.textProperty().bind(solvability.asString("Board %s"));
+
         // code for the restart button, the "startnewgame" method can be found below
         Button restartBtn = new Button("Restart");
         restartBtn.setOnAction(e -> startNewGame());
 
+        // shows where the pool piece goes in a tiling that still fits the board
+        hintBtn = new Button("Hint");
+        hintBtn.setOnAction(e -> showHint());
+        hintBtn.setDisable(true); // until there's a pool piece the file can answer for
+
+        fairBox = new CheckBox("Fair spawn");
+        fairBox.setSelected(fairSpawner != null && Boolean.getBoolean("pentomino.fair"));
+        fairBox.setDisable(fairSpawner == null);
+
+        challengeBox = new CheckBox("Challenge");
+        challengeBox.setSelected(challenges != null);
+        challengeBox.setDisable(challenges == null);
+
         Region spacer = new Region(); HBox.setHgrow(spacer, Priority.ALWAYS);
 
-        box.getChildren().addAll(title, spacer, elapsedLabel, timerLabel, restartBtn);
+        box.getChildren().addAll(title, spacer, solvableLabel, elapsedLabel, timerLabel, challengeBox, fairBox, hintBtn, restartBtn);
         return box;
         // "box" is the top part of the program (with all the controls), the spacer region is the small parts on the side
         // buildControl method returns this box as a Node for the scene
@@ -116,13 +251,13 @@ public class Launcher extends Application {
 
 
         poolPane = new Pane();
-        poolPane.setPrefSize(BOARD_WIDTH, POOL_HEIGHT);
-        poolPane.setMinSize(BOARD_WIDTH, POOL_HEIGHT);
+        poolPane.setPrefSize(VIEW_WIDTH, POOL_HEIGHT);
+        poolPane.setMinSize(VIEW_WIDTH, POOL_HEIGHT);
         poolPane.setStyle("-fx-background-color:#f6f7fb;-fx-border-color:#cfd3e1;-fx-border-width:1;");
 
         boardPane = new Pane();
-        boardPane.setPrefSize(BOARD_WIDTH, BOARD_HEIGHT);
-        boardPane.setMinSize(BOARD_WIDTH, BOARD_HEIGHT);
+        boardPane.setPrefSize(VIEW_WIDTH, VIEW_HEIGHT);
+        boardPane.setMinSize(VIEW_WIDTH, VIEW_HEIGHT);
         boardPane.setStyle("-fx-background-color:white;-fx-border-color:#cfd3e1;-fx-border-width:1;");
 
         drawGrid(boardPane);
@@ -132,97 +267,363 @@ public class Launcher extends Application {
     }
 
     private void drawGrid(Pane pane) {
+        if (LARGE_BOARD) {
+            viewport = new BoardViewport<>(engine.board(), CELL, Launcher::colorOf);
+            viewport.setPrefSize(VIEW_WIDTH, VIEW_HEIGHT);
+            viewport.resize(VIEW_WIDTH, VIEW_HEIGHT);
+            viewport.setOnMousePressed(this::onCanvasPressed);
+            viewport.setOnMouseClicked(this::onCanvasClicked);
+            pane.getChildren().setAll(viewport);
+        } else if (CANVAS_BOARD) {
+            boardCanvas = new BoardCanvas(COLS, ROWS, CELL);
+            boardCanvas.setOnMousePressed(this::onCanvasPressed);
+            boardCanvas.setOnMouseClicked(this::onCanvasClicked);
+            pane.getChildren().setAll(boardCanvas);
+        } else {
+            drawGridNodes(pane, COLS, ROWS);
+        }
+        pane.setViewOrder(1); // positive values allow the pane to appear behind pentominoes
+    }
+
+    // static so pentomino-bench can build the same scene without a Stage
+    static void drawGridNodes(Pane pane, int cols, int rows) {
         pane.getChildren().clear();
-        pane.getChildren().add(new Rectangle(BOARD_WIDTH, BOARD_HEIGHT){{
+        pane.getChildren().add(new Rectangle(cols*CELL, rows*CELL){{
             setFill(Color.WHITE);
         }});
         // colors the board
-        for (int c=0;c<=COLS;c++) {
-            Line line = new Line(c*CELL,0,c*CELL,ROWS*CELL);
+        for (int c=0;c<=cols;c++) {
+            Line line = new Line(c*CELL,0,c*CELL,rows*CELL);
             line.setStroke(Color.LIGHTGRAY);
             pane.getChildren().add(line);
         }
-        for (int r=0;r<=ROWS;r++) {
-            Line line = new Line(0,r*CELL,COLS*CELL,r*CELL);
+        for (int r=0;r<=rows;r++) {
+            Line line = new Line(0,r*CELL,cols*CELL,r*CELL);
             line.setStroke(Color.LIGHTGRAY);
             pane.getChildren().add(line);
         }
         //colors the grid to have a slightly different color than the main board
-        pane.setViewOrder(1); // positive values allow the pane to appear behind pentominoes
     }
 
-    private void startNewGame() {
-        if (gameTimer != null) gameTimer.stop(); // exception handling, avoids NullPointerException
+    // in canvas and large-board mode locked pieces aren't nodes, so the board finds the piece under the mouse.
+    // same gestures as on the nodes: right-click or double-click removes a placed piece
+    private void onCanvasPressed(MouseEvent e) {
+        if (engine.isOver() || e.getButton() != MouseButton.SECONDARY) return;
+        removePieceAt(e);
+    }
+    private void onCanvasClicked(MouseEvent e) {
+        if (engine.isOver() || e.getButton() != MouseButton.PRIMARY || e.getClickCount() != 2) return;
+        removePieceAt(e);
+    }
+    private void removePieceAt(MouseEvent e) {
+        int x = viewport != null ? viewport.cellAtX(e.getX()) : boardCanvas.cellAtX(e.getX());
+        int y = viewport != null ? viewport.cellAtY(e.getY()) : boardCanvas.cellAtY(e.getY());
+        if (x < 0 || y < 0 || x >= COLS || y >= ROWS) return;
+        GameEngine.Piece p = engine.board().keyAt(x, y);
+        if (p != null) engine.remove(p);
+        e.consume();
+    }
 
-        board.clear();
-        remaining.set(INITIAL_SECONDS);
-        elapsed.set(0);
-        gameOver = false;
+    private void startNewGame() {
+        frame.stop();
+        stopDrag();
+        clearHint();
+        fading = null;
 
         poolPane.getChildren().clear();
         boardPane.getChildren().removeIf(n -> n instanceof DraggablePiece); // removes pieces
-        boardPieces.clear();
+        glassLayer.getChildren().removeIf(n -> n instanceof DraggablePiece);
+        nodes.clear();
         clearFocus();
-        drawGrid(boardPane);
-        currentPoolPiece = null;
+        if (boardCanvas != null) boardCanvas.clearCells(); // the grid nodes never change, they stay
+        if (viewport != null) viewport.clearCells();
+        timerLabel.textProperty().bind(remaining.asString("Time Left: %ds"));
 
-        Alert alert1 = new Alert(Alert.AlertType.INFORMATION, "Double click to lock into a block, use left and right arrow keys to rotate pieces");
-        Alert alert2 = new Alert(Alert.AlertType.INFORMATION, "Unclicked blocks disappear after 5-10 seconds, while clicked blocks stick around for 20-30 seconds. Enjoy!");
-        alert1.showAndWait();
-        alert2.showAndWait();
-        setupGameTimer();
-        spawnNext();
+        // the clock starts once the instructions are closed
+        showInstructions();
+    }
 
+    private void beginGame() {
+        if (challengeBox.isSelected()) {
+            Challenges.Challenge c = challenges.get(seeds.nextInt(challenges.size()));
+            engine.setSpawner(challengeSpawner);
+            engine.start(seeds.nextLong(), c.presets());
+        } else {
+            engine.setSpawner(fairBox.isSelected() ? fairSpawner : null);
+            engine.start(seeds.nextLong());
+        }
+        onBoardChanged();
+        frame.start();
+    }
+
+    // the how-to-play card over the playfield. unlike the two modal dialogs it replaces it doesn't hold
+    // anything up, the window renders with the card on top from its first frame. a click on the card or
+    // any key closes it and starts the game. built the first time it's needed
+    private void showInstructions() {
+        if (instructions == null) {
+            Label text = new Label("""
+                    Double click to lock into a block, use left and right arrow keys to rotate pieces.
+
+                    Unclicked blocks disappear after 5-10 seconds, while clicked blocks stick around for 20-30 seconds. Enjoy!
+
+                    Click or press any key to start""");
+            text.setWrapText(true);
+            text.setMaxWidth(420);
+            text.setStyle("-fx-font-size:15px;-fx-text-fill:white;");
+            instructions = new StackPane(text);
+            instructions.setStyle("-fx-background-color:rgba(20,24,40,0.8);");
+            instructions.setOnMouseClicked(e -> closeInstructions());
+        }
+        if (instructions.getParent() == null) rootStack.getChildren().add(instructions);
     }
 
-    private void setupGameTimer() {
-        gameTimer = new Timeline(new KeyFrame(Duration.seconds(1), e -> {
-            // up-counter
-            elapsed.set(elapsed.get() + 1);
-            // down-counter
-            remaining.set(remaining.get() - 1);
-            if (remaining.get() <= 0) endGame(false, "Time's up!");
-        }));
-        gameTimer.setCycleCount(Animation.INDEFINITE);
-        gameTimer.playFromStart();
+    private boolean instructionsShown() {
+        return instructions != null && instructions.getParent() != null;
     }
 
-    private void spawnNext() {
-        if (gameOver || currentPoolPiece != null) return;
+    private void closeInstructions() {
+        if (!instructionsShown()) return;
+        rootStack.getChildren().remove(instructions);
+        beginGame();
+    }
+
+    // turns engine events into scene changes
+    private class EngineView implements GameEngine.Listener {
+        @Override public void spawned(GameEngine.Piece p) {
+            var event = new PerfEvents.Spawn();
+            event.begin();
+            // this spawns the pentomino the engine picked, with its random color and spot in the pool
+            DraggablePiece node = new DraggablePiece(p, colorOf(p));
+            Orientation o = p.orientation();
+            node.setLayoutX(p.poolX*Math.max(0, VIEW_WIDTH - o.width*CELL));
+            node.setLayoutY(p.poolY*Math.max(0, POOL_HEIGHT - o.height*CELL));
+            nodes.put(p, node);
+            poolPane.getChildren().add(node);
+            node.toFront();
+            updateHintButton();
+            if (event.shouldCommit()) {
+                event.serial = p.serial;
+                event.piece = p.shape.name();
+                event.commit();
+            }
+        }
+
+        @Override public void placed(GameEngine.Piece p) {
+            nodes.get(p).lock();
+            onBoardChanged();
+        }
 
-        Pentomino p = pentominoSet.get(rng.nextInt(pentominoSet.size()));
-        Color color = Color.hsb(rng.nextDouble()*360, 0.75, 0.95);
-        // this spawns a random pentomino from pentomino set, with a random color
+        // a challenge's preset, paler than the player's pieces. startNewGame takes care of the board change
+        @Override public void prefilled(GameEngine.Piece p) {
+            if (viewport != null) {
+                viewport.changed(p.orientation(), p.anchorX(), p.anchorY());
+                return;
+            }
+            DraggablePiece node = new DraggablePiece(p, colorOf(p));
+            nodes.put(p, node);
+            node.lock();
+        }
 
-        DraggablePiece node = new DraggablePiece(p, color, false);
-        // the third perimeter is to check whether the pentomino is in the grid or on the board.
-        node.setLayoutX(rng.nextDouble()*(BOARD_WIDTH - 4*CELL));
-        node.setLayoutY(rng.nextDouble()*(POOL_HEIGHT - 3*CELL));
-        // this sets the location, randomized due to "next double"
+        @Override public void removed(GameEngine.Piece p) {
+            DraggablePiece node = nodes.remove(p); // none in large-board mode
+            if (boardCanvas != null) boardCanvas.erase(p.orientation(), p.anchorX(), p.anchorY());
+            if (viewport != null) viewport.changed(p.orientation(), p.anchorX(), p.anchorY());
+            if (node != null) node.removeFromScene("removed");
+            onBoardChanged();
+        }
 
-        currentPoolPiece = node;
-        poolPane.getChildren().add(node);
-        node.toFront();
+        @Override public void rotated(GameEngine.Piece p) {
+            var event = new PerfEvents.Rotation();
+            event.begin();
+            DraggablePiece node = nodes.get(p);
+            node.turn();
+            if (dragging == node) node.drag.moved = true; // ghost has to follow the new shape
+            if (event.shouldCommit()) {
+                event.serial = p.serial;
+                event.piece = p.shape.name();
+                event.rotation = p.rotation();
+                event.commit();
+            }
+        }
+
+        // fade only if clicked, the frame timer takes the opacity down until the engine drops the piece
+        @Override public void fading(GameEngine.Piece p) {
+            fading = nodes.get(p);
+        }
+
+        @Override public void vanished(GameEngine.Piece p) {
+            DraggablePiece node = nodes.remove(p);
+            if (fading == node) fading = null;
+            node.removeFromScene("vanished");
+        }
+
+        @Override public void clock(int remainingSeconds, int elapsedSeconds) {
+            remaining.set(remainingSeconds);
+            elapsed.set(elapsedSeconds);
+        }
+
+        @Override public void ended(boolean win, String reason) {
+            endGame(win, reason);
+        }
     }
 
     private void endGame(boolean win, String reason) {
-        if (gameOver) return;
-        gameOver = true;
-        if (gameTimer != null) gameTimer.stop();
+        var event = new PerfEvents.GameEnd();
+        event.begin();
+        frame.stop();
+        stopDrag();
 
         Alert alert = new Alert(win ? Alert.AlertType.INFORMATION : Alert.AlertType.ERROR,
                 win ? "You win!" : "You lose. " + reason);
         // the ? represents a simpler "if else", the first part being the "if" and the one after the : being the else
         alert.show();
 
+        timerLabel.textProperty().unbind();
         timerLabel.setText(win ? "You win! Grid complete." : "You lose. " + reason);
-        if (currentPoolPiece != null) currentPoolPiece.setDisable(true);
-        boardPieces.forEach(n -> n.setDisable(true));
+        nodes.values().forEach(n -> n.setDisable(true));
         // game over, setDisable disables dragging pieces and more
+        updateHintButton();
+        if (event.shouldCommit()) {
+            event.won = win;
+            event.reason = reason;
+            event.spawned = engine.spawned();
+            event.placed = engine.placed();
+            event.vanished = engine.vanished();
+            event.remaining = engine.remaining();
+            event.commit();
+        }
     }
 
     private void onBoardChanged() {
-        if (board.isComplete()) endGame(true, "");
+        if (boardCanvas != null) boardCanvas.flush();
+        if (viewport != null) viewport.flush();
+        if (!engine.isOver()) checkSolvability();
+        updateHintButton();
+    }
+
+    // cached answers are shown right away, everything else goes to the oracle thread.
+    // a result only gets published if the board hasn't changed again in the meantime
+    private void checkSolvability() {
+        if (oracle == null) {
+            solvability.set(SolvabilityOracle.Verdict.UNKNOWN);
+            return;
+        }
+        long occ = SolvabilityOracle.maskOf(engine.board());
+        int version = boardVersion.incrementAndGet();
+        var known = oracle.cached(occ);
+        if (known != null) {
+            solvability.set(known);
+            return;
+        }
+        solvability.set(SolvabilityOracle.Verdict.CHECKING);
+        oracleWorker.execute(() -> {
+            if (boardVersion.get() != version) return; // already out of date, skip the search
+            var verdict = oracle.check(occ);
+            Platform.runLater(() -> {
+                if (boardVersion.get() == version) solvability.set(verdict);
+            });
+        });
+    }
+
+    private void stopDrag() {
+        dragging = null;
+        ghost.hide();
+    }
+
+    private void openGameLog() {
+        String name = System.getProperty("pentomino.log", "games.plog");
+        if (name.equals("off")) return;
+        try {
+            GameLog.rotate(Path.of(name), Long.getLong("pentomino.logMaxMB", 16) << 20);
+            gameLog = new GameLog.Writer(Path.of(name), engine);
+            engine.addListener(gameLog);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("can't log games to " + name + ": " + e.getMessage());
+        }
+    }
+
+    @Override public void stop() throws IOException {
+        if (fairSpawner != null) fairSpawner.close();
+        if (gameLog != null) gameLog.close(); // flushes what the writer thread still holds
+    }
+
+    // the size alone isn't enough: a pack made for a board with holes (8x8-hole) lays its pieces out
+    // around them, here those cells would stay empty and no challenge could be finished
+    private static Challenges openChallenges(Board<?> board) {
+        if (PIECES != PentominoLibrary.all()) return null; // packs only hold pentomino challenges
+        Path file = Path.of(System.getProperty("pentomino.challenges", "challenges-" + ROWS + "x" + COLS + ".pack"));
+        if (!Files.isReadable(file)) return null;
+        try {
+            Challenges pack = Challenges.open(file);
+            if (!pack.covers(board)) throw new IllegalArgumentException(otherBoard(pack.height(), pack.width()));
+            if (pack.size() == 0) throw new IllegalArgumentException("there are no challenges in it");
+            return pack;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("can't use " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static SolutionDb openSolutions(Board<?> board) {
+        if (PIECES != PentominoLibrary.all()) return null; // the files only hold pentomino tilings
+        Path file = Path.of(System.getProperty("pentomino.solutions", "solutions-" + ROWS + "x" + COLS + ".db"));
+        if (!Files.isReadable(file)) return null;
+        try {
+            SolutionDb db = SolutionDb.open(file);
+            if (!db.covers(board)) throw new IllegalArgumentException(otherBoard(db.height(), db.width()));
+            return db;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("can't use " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String otherBoard(int rows, int cols) {
+        return rows == ROWS && cols == COLS ? "it's for a " + rows + "x" + cols + " board with holes"
+                : "it's for a " + rows + "x" + cols + " board, this one is " + ROWS + "x" + COLS;
+    }
+
+    // the hint is the snap ghost at the suggested spot, in the rotation to turn the piece to, for
+    // two seconds. it's a plain lookup in the mapped file, quick enough for the FX thread
+    private void showHint() {
+        GameEngine.Piece p = engine.poolPiece();
+        if (engine.isOver() || dragging != null) return; // the ghost is busy
+        PlacementPolicy.Move m = p == null ? null : solutions.hint(engine.board(), p.shape);
+        hintUntil = System.nanoTime() + 2 * GameEngine.SECOND;
+        if (m == null) {
+            hintBtn.setText("No hint");
+            return;
+        }
+        showGhostLayer();
+        ghost.show(p.shape.orientation(m.rotation()), m.x(), m.y(), true);
+    }
+
+    // the ghost goes over the board, in large-board mode into the viewport so it scrolls and zooms along
+    private void showGhostLayer() {
+        if (viewport != null) {
+            if (ghost.getParent() != viewport.overlay()) viewport.overlay().getChildren().add(ghost);
+        } else if (ghost.getParent() != boardPane) {
+            boardPane.getChildren().add(ghost);
+        }
+        ghost.toFront();
+    }
+
+    // the file only knows tilings with every shape once: no hint for a second piece of a shape that's on
+    // the board, nor for any piece once a shape is there twice. taking the other one off brings it back
+    private void updateHintButton() {
+        GameEngine.Piece p = engine.poolPiece();
+        hintBtn.setDisable(solutions == null || p == null || engine.isOver() || !solutions.answers(engine.board(), p.shape));
+    }
+
+    private void clearHint() {
+        hintUntil = 0;
+        hintBtn.setText("Hint");
+        if (dragging == null) ghost.hide();
+    }
+
+    // the random hue of a piece, challenge presets paler than the player's pieces
+    static Color colorOf(GameEngine.Piece p) {
+        return p.fixed() ? Color.hsb(p.hue, 0.3, 0.85) : Color.hsb(p.hue, 0.75, 0.95);
     }
 
     // method for focusing on a clicked block
@@ -239,30 +640,53 @@ public class Launcher extends Application {
         focused.set(null);
     }
 
+    // the cell nodes of a piece, made once when the piece is, static so pentomino-bench can run it without
+    // a Stage. an existing set of rectangles is kept and only moved, new ones come only if the cell count
+    // changes
+    static void buildCells(Group group, List<Rectangle> rects, Orientation o, Color color) {
+        while (rects.size() > o.size()) group.getChildren().remove(rects.remove(rects.size() - 1));
+        while (rects.size() < o.size()) {
+            Rectangle r = new Rectangle(CELL-2, CELL-2);
+            r.setStroke(Color.GRAY);
+            r.setArcWidth(8); r.setArcHeight(8);
+            rects.add(r);
+            group.getChildren().add(r);
+        }
+        for (Rectangle r : rects) r.setFill(color);
+        moveCells(rects, o);
+    }
+
+    // what a rotation does to the nodes: every rectangle goes to its cell of the new orientation, layout
+    // only. no node is added or removed and no style changes, so nothing gets re-applied from css
+    static void moveCells(List<Rectangle> rects, Orientation o) {
+        for (int i = 0; i < rects.size(); i++) {
+            Rectangle r = rects.get(i);
+            r.setLayoutX(o.xs[i]*CELL + 1);
+            r.setLayoutY(o.ys[i]*CELL + 1);
+        }
+    }
+
     private class DraggablePiece extends Group {
-        private Pentomino base;
-        private int rotation;
-        private final List<Rectangle> rects = new ArrayList<>();
+        private final GameEngine.Piece piece;
+        private final List<Rectangle> rects = new ArrayList<>(); // the piece's cells for its whole life
         private final Color color;
-        private boolean lockedOnBoard = false;
-
-        // vanish control
-        private PauseTransition vanishTimer;
-        private boolean everClicked = false; // switches timing & enables fade
+        private final Delta drag = new Delta();
+        private int shownRotation;
+        private RotateTransition turning; // made on the first animated rotation, then reused
 
-        DraggablePiece(Pentomino p, Color color, boolean locked) {
-            this.base = p;
-            this.rotation = 0;
+        DraggablePiece(GameEngine.Piece piece, Color color) {
+            this.piece = piece;
             this.color = color;
-            this.lockedOnBoard = locked;
+            this.shownRotation = piece.rotation();
             setFocusTraversable(true);
-            rebuild();
+            buildCells(this, rects, piece.orientation(), color);
             enableDrag();
             enableSelection();
             enableContextRemove();
+        }
 
-            // start random 5 to 10 seconds vanish for unclicked pieces
-            startVanishCountdown(false);
+        private boolean locked() {
+            return piece.state() == GameEngine.State.LOCKED;
         }
 
         private void setFocusedVisual(boolean on) {
@@ -270,66 +694,70 @@ public class Launcher extends Application {
             setScaleY(on ? 1.03 : 1.0);
         }
 
-        private void rebuild() {
-            getChildren().clear();
-            rects.clear();
-            for (Cell c : base.rotated(rotation)) {
-                Rectangle r = new Rectangle(CELL-2, CELL-2);
-                r.setFill(color);
-                r.setStroke(Color.GRAY);
-                r.setArcWidth(8); r.setArcHeight(8);
-                r.setLayoutX(c.x()*CELL + 1);
-                r.setLayoutY(c.y()*CELL + 1);
-                rects.add(r);
+        // the cells jump to the new orientation right away (the ghost and the snapping go by it). with an
+        // animation the whole piece starts turned back to where the old shape was and turns the last quarter
+        // into place; a press in the middle of a turn carries on from the angle it's at
+        private void turn() {
+            int steps = (piece.rotation() - shownRotation) & 3;
+            shownRotation = piece.rotation();
+            moveCells(rects, piece.orientation());
+            if (ROTATE_MILLIS <= 0 || steps == 0) return;
+            if (turning == null) {
+                turning = new RotateTransition(Duration.millis(ROTATE_MILLIS), this);
+                turning.setInterpolator(Interpolator.EASE_OUT);
+                turning.setToAngle(0);
             }
-            getChildren().addAll(rects);
+            turning.stop();
+            turning.setFromAngle(getRotate() - (steps == 3 ? -90 : 90 * steps)); // 3 steps is one back
+            turning.playFromStart();
+        }
+
+        private void stopTurning() {
+            if (turning != null) turning.stop();
+            setRotate(0);
         }
-        // rebuild method allows the piece to keep its visuals after rotation or placing
 
         private void enableSelection() {
             setOnMouseClicked(e -> {
-                if (gameOver) return;
+                if (engine.isOver()) return;
 
                 if (e.getButton() == MouseButton.PRIMARY) {
                     // Double-click on a placed piece deletes it
-                    if (e.getClickCount() == 2 && lockedOnBoard) {
-                        deletePlacedPiece();
+                    if (e.getClickCount() == 2 && locked()) {
+                        engine.remove(piece);
                         e.consume();
                         return;
                     }
                     // Single-click focuses; if not placed, switch to clicked-window (20..30s)
                     setFocus(this);
                     requestFocus();
-                    if (!lockedOnBoard) {
-                        if (!everClicked) everClicked = true;
-                        startVanishCountdown(true); // 20..30s with tiny fade on vanish
-                    }
+                    if (!locked()) engine.touch(piece); // 20..30s with tiny fade on vanish
                 }
             });
         }
         // allows mouse to select pieces
 
         private void enableContextRemove() {
-            setOnMousePressed(e -> {
-                if (gameOver) return;
+            // added as a handler so it doesn't replace the drag's onMousePressed
+            addEventHandler(MouseEvent.MOUSE_PRESSED, e -> {
+                if (engine.isOver()) return;
                 // Right-click deletes placed piece
-                if (e.getButton() == MouseButton.SECONDARY && lockedOnBoard) {
-                    deletePlacedPiece();
+                if (e.getButton() == MouseButton.SECONDARY && locked()) {
+                    engine.remove(piece);
                     e.consume();
                 }
             });
         }
 
         private void enableDrag() {
-            final Delta d = new Delta();
+            final Delta d = drag;
 
             setOnMousePressed(e -> {
-                if (gameOver) return;
-                if (lockedOnBoard) return; // immobile once placed
+                if (engine.isOver()) return;
+                if (locked()) return; // immobile once placed
 
                 setFocus(this);
-                if (!everClicked) everClicked = true; // drag counts as clicked
-                startVanishCountdown(true);            // 20 to 30 seconds vanish
+                engine.touch(piece); // drag counts as clicked, 20 to 30 seconds vanish
 
                 // Reparent to overlay at same screen position (always on top)
                 Point2D scenePos = localToScene(0, 0);
@@ -344,230 +772,135 @@ public class Launcher extends Application {
                 d.x = e.getSceneX() - getLayoutX();
                 d.y = e.getSceneY() - getLayoutY();
                 // for the piece to track the mouse's position while dragged
+                d.sceneX = e.getSceneX();
+                d.sceneY = e.getSceneY();
+                d.moved = true;
+
+                // the board doesn't move during a drag, so snapping is plain arithmetic from here on
+                Point2D origin = boardPane.localToScene(0, 0);
+                boardOriginX = origin.getX();
+                boardOriginY = origin.getY();
+                showGhostLayer();
+                if (viewport != null) getTransforms().setAll(new Scale(viewport.zoom(), viewport.zoom())); // cell for cell over the board
+                dragging = this;
                 e.consume();
             });
 
             setOnMouseDragged(e -> {
-                if (gameOver) return;
-                if (lockedOnBoard) return;
+                if (engine.isOver()) return;
+                if (locked()) return;
                 if (focused.get() != this) return;
-                setLayoutX(e.getSceneX() - d.x);
-                setLayoutY(e.getSceneY() - d.y);
+                d.sceneX = e.getSceneX();
+                d.sceneY = e.getSceneY();
+                d.moved = true;
                 e.consume();
             });
 
             setOnMouseReleased(e -> {
-                if (gameOver) return;
-                if (lockedOnBoard) return;
+                if (engine.isOver()) return;
+                if (locked()) return;
+                if (dragging == this) {
+                    applyDrag(); // the last position may not have had its frame yet
+                    stopDrag();
+                }
                 if (focused.get() != this) return;
 
-                Bounds boardScene = boardPane.localToScene(boardPane.getLayoutBounds());
-                Bounds thisScene  = localToScene(getBoundsInLocal());
-
-                if (boardScene.intersects(thisScene)) tryPlaceOnBoardFromGlass();
-                else {}
-
+                var event = new PerfEvents.Placement();
+                event.begin();
+                int x = snapX(), y = snapY();
+                boolean placed = engine.place(piece, x, y); // off the board it simply doesn't fit
+                if (event.shouldCommit()) {
+                    event.serial = piece.serial;
+                    event.piece = piece.shape.name();
+                    event.rotation = piece.rotation();
+                    event.x = x;
+                    event.y = y;
+                    event.placed = placed;
+                    event.commit();
+                }
                 e.consume();
             });
         }
 
-        // rotates pieces and rebuilds after that
-        void rotateCW()  { rotate(+1); }
-        void rotateCCW() { rotate(-1); }
-        private void rotate(int dir) {
-            if (lockedOnBoard) return; // immobile once placed
-            rotation = (rotation + (dir>0?1:3)) % 4;
-            rebuild();
-        }
-        // this method locks the piece onto the place
-        private void tryPlaceOnBoardFromGlass() {
-            Bounds pieceScene = localToScene(getBoundsInLocal());
-            Point2D boardOrigin = boardPane.localToScene(0,0);
-            double relX = pieceScene.getMinX() - boardOrigin.getX();
-            double relY = pieceScene.getMinY() - boardOrigin.getY();
-            int anchorX = (int)Math.round(relX / CELL);
-            int anchorY = (int)Math.round(relY / CELL);
-
-            if (board.fits(base, rotation, anchorX, anchorY)) {
-                glassLayer.getChildren().remove(this);
-                boardPane.getChildren().add(this);
-                setLayoutX(anchorX * CELL);
-                setLayoutY(anchorY * CELL);
-                toFront();
-
-                board.place(base, rotation, anchorX, anchorY, this);
-                lockedOnBoard = true;
-                boardPieces.add(this);
-
-                cancelVanish();          // placing stops vanish, resetting resets elapsed value
-                elapsed.set(0);
-
-                if (currentPoolPiece == this) currentPoolPiece = null;
-                spawnNext();
-                onBoardChanged();
-            }
+        // runs once per frame while this piece is dragged
+        private void applyDrag() {
+            if (!drag.moved) return;
+            drag.moved = false;
+            setLayoutX(drag.sceneX - drag.x);
+            setLayoutY(drag.sceneY - drag.y);
+
+            Orientation o = piece.orientation();
+            int ax = snapX(), ay = snapY();
+            boolean overBoard = ax > -o.width && ax < COLS && ay > -o.height && ay < ROWS;
+            if (overBoard) ghost.show(o, ax, ay, engine.board().fits(piece.shape, piece.rotation(), ax, ay));
+            else ghost.hide();
+        }
 
+        // the cell the piece's top-left corner is closest to, the piece is on the glass layer so
+        // its layout is in scene coordinates. the viewport is read every time, it can scroll mid-drag
+        private int snapX() {
+            double x = getLayoutX() - boardOriginX;
+            return (int) Math.round(viewport != null ? viewport.toCellX(x) : x / CELL);
         }
-        // double clicking a piece inside the board removes it completely
-        private void deletePlacedPiece() {
-            if (!lockedOnBoard) return;
-            board.remove(this);
-            lockedOnBoard = false;
-            boardPieces.remove(this);
-            if (focused.get() == this) clearFocus();
-            Parent p = getParent();
-            if (p instanceof Pane parent) parent.getChildren().remove(this);
-            glassLayer.getChildren().remove(this);
-            onBoardChanged();
+        private int snapY() {
+            double y = getLayoutY() - boardOriginY;
+            return (int) Math.round(viewport != null ? viewport.toCellY(y) : y / CELL);
         }
 
-        // --- vanish helpers ---
-        private void startVanishCountdown(boolean clicked) {
-            if (lockedOnBoard) {
-                cancelVanish();
-                return;
-            }
+        // rotates pieces, the engine calls back and the piece turns its cells after that
+        void rotateCW()  { engine.rotate(piece, +1); }
+        void rotateCCW() { engine.rotate(piece, -1); }
 
-            int seconds;
-            if (!clicked) {
-                seconds = 5 + rng.nextInt(6); // 5 to 10 random
+        // this method locks the piece onto the place the engine accepted
+        private void lock() {
+            stopTurning(); // it lands square
+            glassLayer.getChildren().remove(this);
+            if (viewport != null) {
+                // the piece becomes cells of the viewport's chunks and the node is gone for good, the
+                // board's key grid is all that's left of it
+                viewport.changed(piece.orientation(), piece.anchorX(), piece.anchorY());
+                nodes.remove(piece);
+                if (focused.get() == this) clearFocus();
+            } else if (boardCanvas != null) {
+                // the piece becomes pixels on the canvas, the node is dropped from the scene
+                boardCanvas.paint(piece.orientation(), piece.anchorX(), piece.anchorY(), color);
+                if (focused.get() == this) clearFocus();
             } else {
-                seconds = 20 + rng.nextInt(11); // 20 to 30 random
-            }
-
-            if (vanishTimer == null) {
-                vanishTimer = new PauseTransition();
-                vanishTimer.setOnFinished(e -> {
-                    if (lockedOnBoard) return; // placed since timer started
-                    // fade only if clicked
-                    if (everClicked) {
-                        FadeTransition ft = new FadeTransition(Duration.millis(150), this);
-                        ft.setFromValue(1.0);
-                        ft.setToValue(0.0);
-                        ft.setOnFinished(ev -> {
-                            removeFromScene();
-                            setOpacity(1.0);
-                        });
-                        ft.play();
-                    } else {
-                        removeFromScene();
-                    }
-                });
+                boardPane.getChildren().add(this);
+                setLayoutX(piece.anchorX() * CELL);
+                setLayoutY(piece.anchorY() * CELL);
+                toFront();
             }
-            vanishTimer.stop();
-            vanishTimer.setDuration(Duration.seconds(seconds));
-            vanishTimer.playFromStart();
         }
 
-        // after placing, cancel vanish
-        private void cancelVanish() {
-            if (vanishTimer != null) vanishTimer.stop();
-        }
-        // this removes unplaced pieces after the timer finishes
-        private void removeFromScene() {
+        // this removes the piece once it vanished or was taken off the board
+        private void removeFromScene(String cause) {
+            var event = new PerfEvents.Vanish();
+            event.begin();
             Parent p = getParent();
             if (p instanceof Pane parent) parent.getChildren().remove(this);
             glassLayer.getChildren().remove(this);
-            if (currentPoolPiece == this) currentPoolPiece = null;
-            elapsed.set(0);   // <<< reset elapsed on vanish
-            spawnNext();
+            if (dragging == this) stopDrag();
+            if (focused.get() == this) clearFocus();
+            if (event.shouldCommit()) {
+                event.serial = piece.serial;
+                event.piece = piece.shape.name();
+                event.cause = cause;
+                event.commit();
+            }
         }
 
         private static final class Delta {
-            double x, y;
-        }
-    }
-
-    private static class Board {
-        private final int w, h;
-        private final boolean[][] occ; // occupied
-        private final Map<DraggablePiece, List<Cell>> placement = new HashMap<>();
-        Board(int w, int h){
-            this.w=w;
-            this.h=h;
-            this.occ=new boolean[w][h];
-        }
-        void clear(){
-            for(int x=0;x<w;x++) Arrays.fill(occ[x], false);
-            placement.clear();
-        }
-        boolean fits(Pentomino p,int rot,int ax,int ay){
-            for (Cell c : p.rotated(rot)) {
-                int x=ax+c.x(), y=ay+c.y();
-                if (x<0||y<0||x>=w||y>=h) return false;
-                if (occ[x][y]) return false;
-            } return true;
-        }
-        void place(Pentomino p,int rot,int ax,int ay,DraggablePiece node){
-            List<Cell> cells = new ArrayList<>();
-            for (Cell c : p.rotated(rot)) { int x=ax+c.x(), y=ay+c.y(); occ[x][y]=true; cells.add(new Cell(x,y)); }
-            placement.put(node, cells);
-        }
-        void remove(DraggablePiece node){
-            List<Cell> cells = placement.remove(node);
-            if (cells==null) return;
-            for (Cell c:cells) occ[c.x()][c.y()]=false;
-        }
-        boolean isComplete(){
-            for(int x=0;x<w;x++) for(int y=0;y<h;y++) if(!occ[x][y]) return false;
-            return true;
+            double x, y;             // pointer offset inside the piece
+            double sceneX, sceneY;   // latest pointer position
+            boolean moved;           // sceneX/Y changed since the last frame
         }
     }
 
-    private record Cell(int x,int y){}
-
-    private static class Pentomino {
-        private final String name;
-        private final List<Cell> cells;
-
-        Pentomino(String name,List<Cell> cells) {
-            this.name=name;
-            this.cells=normalize(cells);
-        }
-
-        List<Cell> rotated(int r){
-            List<Cell> pts=cells;
-            for(int i=0;i<r;i++) pts=rotateCW(pts);
-            return normalize(pts);
-        }
-
-        private static List<Cell> rotateCW(List<Cell> pts){
-            List<Cell> out= new ArrayList<>();
-            for(Cell c:pts) out.add(new Cell(c.y(),-c.x()));
-            return out;
-        }
-        //this keeps the pentomino anchored when rotating
-        private static List<Cell> normalize(List<Cell> pts){
-            int minX = pts.stream().mapToInt(Cell::x).min().orElse(0);
-            int minY = pts.stream().mapToInt(Cell::y).min().orElse(0);
-            return pts.stream().map(c -> new Cell(c.x()-minX, c.y()-minY)).collect(Collectors.toList());
-        }
-        // this method creates the pentominoes
-        static Pentomino of(String n,int[][] xy){
-            List<Cell> pts=new ArrayList<>();
-            for(int[] p:xy) pts.add(new Cell(p[0],p[1]));
-            return new Pentomino(n,pts);
-        }
-    }
-    // this creates a list with all pentominoes to be chosen randomly
-    private static class PentominoLibrary {
-        static List<Pentomino> all() {
-            return List.of(
-                    Pentomino.of("F", new int[][]{{1,0},{0,1},{1,1},{1,2},{2,2}}),
-                    Pentomino.of("I", new int[][]{{0,0},{0,1},{0,2},{0,3},{0,4}}),
-                    Pentomino.of("L", new int[][]{{0,0},{0,1},{0,2},{0,3},{1,3}}),
-                    Pentomino.of("P", new int[][]{{0,0},{0,1},{0,2},{1,0},{1,1}}),
-                    Pentomino.of("N", new int[][]{{0,0},{0,1},{1,1},{1,2},{1,3}}),
-                    Pentomino.of("T", new int[][]{{0,0},{1,0},{2,0},{1,1},{1,2}}),
-                    Pentomino.of("U", new int[][]{{0,0},{0,1},{1,1},{2,0},{2,1}}),
-                    Pentomino.of("V", new int[][]{{0,0},{0,1},{0,2},{1,2},{2,2}}),
-                    Pentomino.of("W", new int[][]{{0,0},{1,1},{2,2},{1,0},{2,1}}),
-                    Pentomino.of("X", new int[][]{{1,0},{0,1},{1,1},{2,1},{1,2}}),
-                    Pentomino.of("Y", new int[][]{{0,0},{0,1},{0,2},{0,3},{1,3}}),
-                    Pentomino.of("Z", new int[][]{{0,0},{1,0},{1,1},{1,2},{2,2}})
-            );
-        }
+    // --server [options] runs the headless GameServer instead of the window
+    public static void main(String[] args) throws IOException {
+        mainMillis = System.currentTimeMillis();
+        if (args.length > 0 && args[0].equals("--server")) GameServer.main(Arrays.copyOfRange(args, 1, args.length));
+        else launch(args);
     }
-
-    public static void main(String[] args) { launch(args); }
 }
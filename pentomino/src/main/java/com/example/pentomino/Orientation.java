@@ -0,0 +1,82 @@
+// File: src/main/java/com/example/pentomino/Orientation.java
+package com.example.pentomino;
+
+import java.util.Arrays;
+
+// one fixed orientation of a piece (a rotation, possibly mirrored), built once by the library.
+// offsets are normalized to (0,0) and sorted row by row, so xs[0],ys[0] is the top-left-most cell.
+// the same cells come packed as one short each, y << 8 | x, which sorts in the same row-major order:
+// comparing two shapes is an Arrays.equals and nothing about an orientation is ever boxed
+final class Orientation {
+    final Pentomino piece;
+    final int id;     // index in the orientations of the piece set it belongs to
+    final int index;  // index in piece.orientations()
+    final short[] cells;
+    final int[] xs, ys;
+    final int width, height;
+    // mask of the piece on the standard Board.COLS x Board.ROWS board for every anchor, 0 if it falls off.
+    // built on first use: big enumerated piece sets have tens of thousands of orientations that are
+    // never placed on that board
+    private volatile long[] anchorMasks;
+
+    Orientation(Pentomino piece, int id, int index, short[] cells) {
+        this.piece = piece;
+        this.id = id;
+        this.index = index;
+        this.cells = cells;
+        this.xs = new int[cells.length];
+        this.ys = new int[cells.length];
+        int mw = 0, mh = 0;
+        for (int i = 0; i < cells.length; i++) {
+            xs[i] = x(cells[i]);
+            ys[i] = y(cells[i]);
+            mw = Math.max(mw, xs[i] + 1);
+            mh = Math.max(mh, ys[i] + 1);
+        }
+        this.width = mw;
+        this.height = mh;
+    }
+
+    // normalized offsets (0..127, so the shorts stay positive and sort row-major) into sorted packed cells
+    static short[] pack(int[] xs, int[] ys) {
+        short[] packed = new short[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            if (xs[i] < 0 || ys[i] < 0 || xs[i] > 0x7f || ys[i] > 0x7f)
+                throw new IllegalArgumentException("cell (" + xs[i] + "," + ys[i] + ") is out of the packed range");
+            packed[i] = (short) (ys[i] << 8 | xs[i]);
+        }
+        Arrays.sort(packed);
+        return packed;
+    }
+    static int x(short cell) { return cell & 0xff; }
+    static int y(short cell) { return cell >> 8; }
+
+    int size() { return cells.length; }
+
+    // table lookup for the standard board, no allocation
+    long mask(int ax, int ay) {
+        if (ax < 0 || ay < 0 || ax >= Board.COLS || ay >= Board.ROWS) return 0;
+        long[] masks = anchorMasks;
+        if (masks == null) anchorMasks = masks = anchorTable(); // racing threads build equal tables
+        return masks[ay * Board.COLS + ax];
+    }
+
+    private long[] anchorTable() {
+        long[] masks = new long[Board.COLS * Board.ROWS];
+        for (int ay = 0; ay + height <= Board.ROWS; ay++)
+            for (int ax = 0; ax + width <= Board.COLS; ax++)
+                masks[ay * Board.COLS + ax] = maskAt(Board.COLS, ax, ay);
+        return masks;
+    }
+
+    // mask on a board of the given width; the caller makes sure the piece is inside
+    long maskAt(int boardWidth, int ax, int ay) {
+        long m = 0;
+        for (int i = 0; i < xs.length; i++) m |= 1L << ((ay + ys[i]) * boardWidth + ax + xs[i]);
+        return m;
+    }
+
+    boolean fitsInside(int boardWidth, int boardHeight, int ax, int ay) {
+        return ax >= 0 && ay >= 0 && ax + width <= boardWidth && ay + height <= boardHeight;
+    }
+}
@@ -0,0 +1,75 @@
+// File: src/main/java/com/example/pentomino/Pentomino.java
+package com.example.pentomino;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+class Pentomino {
+    private final int id;
+    private final String name;
+    // the shape as given, normalized and packed like Orientation.cells
+    private final short[] cells;
+    // every distinct fixed orientation, rotations first then the mirrored ones
+    private final List<Orientation> orientations;
+    // rotation r (0..3) and mirrored rotation r+4 -> the matching entry of orientations
+    private final Orientation[] byRotation = new Orientation[8];
+
+    // xs / ys are the cells in any position, they get normalized here (and used as scratch)
+    Pentomino(int id, String name, int[] xs, int[] ys, int firstOrientationId) {
+        this.id = id;
+        this.name = name;
+        normalize(xs, ys);
+        this.cells = Orientation.pack(xs, ys);
+
+        List<Orientation> distinct = new ArrayList<>();
+        for (int r = 0; r < 8; r++) {
+            if (r == 4) mirror(xs);
+            normalize(xs, ys);
+            short[] packed = Orientation.pack(xs, ys);
+            Orientation same = null;
+            for (Orientation o : distinct)
+                if (Arrays.equals(o.cells, packed)) { same = o; break; }
+            if (same == null) {
+                same = new Orientation(this, firstOrientationId + distinct.size(), distinct.size(), packed);
+                distinct.add(same);
+            }
+            byRotation[r] = same;
+            rotateCW(xs, ys);
+        }
+        this.orientations = Collections.unmodifiableList(distinct);
+    }
+
+    int id() { return id; }
+    String name() { return name; }
+    int size() { return cells.length; }
+    List<Orientation> orientations() { return orientations; }
+
+    // 0..3 are clockwise rotations, 4..7 the same rotations of the mirror image
+    Orientation orientation(int r) { return byRotation[r & 7]; }
+
+    // the geometry works in place on parallel coordinate arrays, nothing is allocated per cell
+    private static void rotateCW(int[] xs, int[] ys) {
+        for (int i = 0; i < xs.length; i++) {
+            int x = xs[i];
+            xs[i] = ys[i];
+            ys[i] = -x;
+        }
+    }
+    private static void mirror(int[] xs) {
+        for (int i = 0; i < xs.length; i++) xs[i] = -xs[i];
+    }
+    //this keeps the pentomino anchored when rotating
+    static void normalize(int[] xs, int[] ys) {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+        for (int i = 0; i < xs.length; i++) { minX = Math.min(minX, xs[i]); minY = Math.min(minY, ys[i]); }
+        for (int i = 0; i < xs.length; i++) { xs[i] -= minX; ys[i] -= minY; }
+    }
+    // this method creates the pentominoes
+    static Pentomino of(int id, String n, int[][] xy, int firstOrientationId){
+        int[] xs = new int[xy.length], ys = new int[xy.length];
+        for (int i = 0; i < xy.length; i++) { xs[i] = xy[i][0]; ys[i] = xy[i][1]; }
+        return new Pentomino(id, n, xs, ys, firstOrientationId);
+    }
+}
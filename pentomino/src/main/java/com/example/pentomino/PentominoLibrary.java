@@ -0,0 +1,65 @@
+// File: src/main/java/com/example/pentomino/PentominoLibrary.java
+package com.example.pentomino;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// this creates a list with all pentominoes to be chosen randomly.
+// everything is built once when the class loads and never changes afterwards,
+// so the hot paths (fits, place, rebuild) only index into arrays
+class PentominoLibrary {
+    private static final String[] NAMES = {"F", "I", "L", "P", "N", "T", "U", "V", "W", "X", "Y", "Z"};
+    private static final int[][][] SHAPES = {
+            {{1,0},{0,1},{1,1},{1,2},{2,2}},
+            {{0,0},{0,1},{0,2},{0,3},{0,4}},
+            {{0,0},{0,1},{0,2},{0,3},{1,3}},
+            {{0,0},{0,1},{0,2},{1,0},{1,1}},
+            {{0,0},{0,1},{1,1},{1,2},{1,3}},
+            {{0,0},{1,0},{2,0},{1,1},{1,2}},
+            {{0,0},{0,1},{1,1},{2,0},{2,1}},
+            {{0,0},{0,1},{0,2},{1,2},{2,2}},
+            {{0,0},{1,1},{2,2},{1,0},{2,1}},
+            {{1,0},{0,1},{1,1},{2,1},{1,2}},
+            {{0,0},{0,1},{0,2},{0,3},{1,1}},
+            {{0,0},{1,0},{1,1},{1,2},{2,2}}
+    };
+
+    private static final List<Pentomino> PIECES;
+    private static final List<Orientation> ORIENTATIONS; // the 63 fixed pentominoes
+
+    static {
+        List<Pentomino> pieces = new ArrayList<>();
+        List<Orientation> orientations = new ArrayList<>();
+        for (int i = 0; i < SHAPES.length; i++) {
+            Pentomino p = Pentomino.of(i, NAMES[i], SHAPES[i], orientations.size());
+            pieces.add(p);
+            orientations.addAll(p.orientations());
+        }
+        PIECES = Collections.unmodifiableList(pieces);
+        ORIENTATIONS = Collections.unmodifiableList(orientations);
+    }
+
+    static List<Pentomino> all() {
+        return PIECES;
+    }
+
+    // the piece set of the given order: the named pentominoes above for 5, otherwise every free
+    // polyomino of that many cells from the enumerator
+    static List<Pentomino> ofOrder(int n) {
+        return n == 5 ? PIECES : Polyominoes.free(n);
+    }
+
+    // the most rows or columns any orientation of these pieces spans
+    static int maxExtent(List<Pentomino> pieces) {
+        int most = 0;
+        for (Pentomino p : pieces)
+            for (Orientation o : p.orientations()) most = Math.max(most, Math.max(o.width, o.height));
+        return most;
+    }
+
+    // every fixed orientation of every piece, Orientation.id is the index in this list
+    static List<Orientation> orientations() {
+        return ORIENTATIONS;
+    }
+}
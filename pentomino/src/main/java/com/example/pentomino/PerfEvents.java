@@ -0,0 +1,71 @@
+// File: src/main/java/com/example/pentomino/PerfEvents.java
+package com.example.pentomino;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Flight Recorder events for the moments players report stutter around. they cost next to nothing
+// until a recording is running, e.g.
+//   java -XX:StartFlightRecording=filename=game.jfr,settings=profile ... com.example.pentomino.Launcher
+// then open game.jfr in JDK Mission Control and look under "Pentomino". events with a duration time
+// the scene work that goes with the change (building nodes, moving them to the board)
+final class PerfEvents {
+    private PerfEvents() {}
+
+    @Name("com.example.pentomino.Spawn")
+    @Label("Piece Spawn")
+    @Category("Pentomino")
+    @Description("A new piece shows up in the pool")
+    static final class Spawn extends Event {
+        @Label("Serial") int serial;
+        @Label("Piece") String piece;
+    }
+
+    @Name("com.example.pentomino.Placement")
+    @Label("Placement")
+    @Category("Pentomino")
+    @Description("The player drops a piece, placed tells whether it fit")
+    static final class Placement extends Event {
+        @Label("Serial") int serial;
+        @Label("Piece") String piece;
+        @Label("Rotation") int rotation;
+        @Label("X") int x;
+        @Label("Y") int y;
+        @Label("Placed") boolean placed;
+    }
+
+    @Name("com.example.pentomino.Rotation")
+    @Label("Rotation")
+    @Category("Pentomino")
+    @Description("A piece is turned and its cells rebuilt")
+    static final class Rotation extends Event {
+        @Label("Serial") int serial;
+        @Label("Piece") String piece;
+        @Label("Rotation") int rotation;
+    }
+
+    @Name("com.example.pentomino.Vanish")
+    @Label("Piece Removed")
+    @Category("Pentomino")
+    @Description("A piece leaves the scene: it timed out or was taken off the board")
+    static final class Vanish extends Event {
+        @Label("Serial") int serial;
+        @Label("Piece") String piece;
+        @Label("Cause") String cause;
+    }
+
+    @Name("com.example.pentomino.GameEnd")
+    @Label("Game End")
+    @Category("Pentomino")
+    static final class GameEnd extends Event {
+        @Label("Won") boolean won;
+        @Label("Reason") String reason;
+        @Label("Spawned") int spawned;
+        @Label("Placed") int placed;
+        @Label("Vanished") int vanished;
+        @Label("Seconds Left") int remaining;
+    }
+}
@@ -0,0 +1,128 @@
+// File: src/main/java/com/example/pentomino/PerfHud.java
+package com.example.pentomino;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+// overlay with the numbers behind a stutter report, toggled with F3. while it's visible it times every
+// pulse (the gap between two AnimationTimer frames) and the game's own frame work into ring buffers;
+// twice a second it turns them into percentiles and samples the node count, the allocation rate and the
+// GC time since the last sample. hidden, its timer is stopped and it costs nothing
+final class PerfHud extends Label {
+    private static final int FRAMES = 256;           // ring size, a few seconds at 60 fps
+    private static final long REFRESH = 500_000_000L;
+
+    private final Scene scene;
+    private final long[] pulses = new long[FRAMES], work = new long[FRAMES];
+    private final long[] sorted = new long[FRAMES];
+    private int pulseCount, workCount;
+    private long lastPulse, lastRefresh;
+    private long lastAllocated, lastGcCount, lastGcMillis;
+    // looked up the first time the HUD is shown, the management classes are a lot to load on startup
+    private List<GarbageCollectorMXBean> collectors;
+    private com.sun.management.ThreadMXBean threads;
+
+    private final AnimationTimer sampler = new AnimationTimer() {
+        @Override public void handle(long now) {
+            if (lastPulse != 0) pulses[pulseCount++ % FRAMES] = now - lastPulse;
+            lastPulse = now;
+            if (now - lastRefresh >= REFRESH) refresh(now);
+        }
+    };
+
+    PerfHud(Scene scene) {
+        this.scene = scene;
+        setMouseTransparent(true);
+        setManaged(false);
+        setVisible(false);
+        setLayoutX(8);
+        setLayoutY(8);
+        setStyle("-fx-background-color:rgba(0,0,0,0.7);-fx-text-fill:#9f9;-fx-font-family:monospace;-fx-font-size:11px;-fx-padding:6;");
+    }
+
+    void toggle() {
+        if (isVisible()) {
+            sampler.stop();
+            setVisible(false);
+            return;
+        }
+        if (collectors == null) {
+            collectors = ManagementFactory.getGarbageCollectorMXBeans();
+            threads = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean t && t.isThreadAllocatedMemorySupported() ? t : null;
+        }
+        pulseCount = workCount = 0;
+        lastPulse = lastRefresh = 0;
+        lastAllocated = allocated();
+        lastGcCount = gcCount();
+        lastGcMillis = gcMillis();
+        setText("sampling...");
+        setVisible(true);
+        toFront();
+        sampler.start();
+    }
+
+    // how long the game's frame handler took, fed by the Launcher every frame
+    void frameWork(long nanos) {
+        if (isVisible()) work[workCount++ % FRAMES] = nanos;
+    }
+
+    private void refresh(long now) {
+        double seconds = lastRefresh == 0 ? REFRESH / 1e9 : (now - lastRefresh) / 1e9;
+        lastRefresh = now;
+        long alloc = allocated(), gcs = gcCount(), gcMs = gcMillis();
+        String allocText = threads == null ? "n/a" : String.format("%.1f MB/s", (alloc - lastAllocated) / seconds / 1e6);
+        setText(String.format("""
+                        pulse  p50 %5.1f  p95 %5.1f  p99 %5.1f  max %5.1f ms
+                        frame  p50 %5.2f  p99 %5.2f ms (game work)
+                        nodes  %d
+                        alloc  %s
+                        gc     %d collections in %.1fs, %d ms""",
+                pct(pulses, pulseCount, 50), pct(pulses, pulseCount, 95), pct(pulses, pulseCount, 99), pct(pulses, pulseCount, 100),
+                pct(work, workCount, 50), pct(work, workCount, 99),
+                countNodes(scene.getRoot()), allocText, gcs - lastGcCount, seconds, gcMs - lastGcMillis));
+        lastAllocated = alloc;
+        lastGcCount = gcs;
+        lastGcMillis = gcMs;
+        toFront();
+    }
+
+    // the p-th percentile of the last FRAMES values, in ms
+    private double pct(long[] ring, int count, int p) {
+        int n = Math.min(count, FRAMES);
+        if (n == 0) return 0;
+        System.arraycopy(ring, 0, sorted, 0, n);
+        Arrays.sort(sorted, 0, n);
+        int rank = (int) Math.ceil(p / 100.0 * n) - 1;
+        return sorted[Math.max(0, Math.min(n - 1, rank))] / 1e6;
+    }
+
+    private static int countNodes(Node n) {
+        int count = 1;
+        if (n instanceof Parent p) for (Node c : p.getChildrenUnmodifiable()) count += countNodes(c);
+        return count;
+    }
+
+    private long allocated() {
+        return threads == null ? 0 : threads.getTotalThreadAllocatedBytes();
+    }
+
+    private long gcCount() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : collectors) n += Math.max(0, gc.getCollectionCount());
+        return n;
+    }
+
+    private long gcMillis() {
+        long ms = 0;
+        for (GarbageCollectorMXBean gc : collectors) ms += Math.max(0, gc.getCollectionTime());
+        return ms;
+    }
+}
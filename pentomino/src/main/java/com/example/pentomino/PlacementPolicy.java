@@ -0,0 +1,116 @@
+// File: src/main/java/com/example/pentomino/PlacementPolicy.java
+package com.example.pentomino;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+// how a simulated player decides what to do with the piece that just spawned (see SelfPlay).
+// moves are plain (rotation, anchor) picks on a bitboard, rotations are 0..3 like the game's arrow keys.
+// policies are shared by all simulation threads, so they must not keep per-game state
+interface PlacementPolicy {
+
+    record Move(int rotation, int x, int y) {}
+
+    // null lets the piece vanish. rng belongs to the game being played, so runs repeat per seed
+    Move choose(Board<?> board, Pentomino piece, Random rng);
+
+    // covers the top-left-most empty cell with the first placement that doesn't cut off an unfillable
+    // region, and skips the piece if there is none
+    static PlacementPolicy greedy() {
+        return (board, piece, rng) -> {
+            long occ = occupancy(board);
+            long[] masks = coveringFirstEmpty(board, piece, occ);
+            for (int r = 0; r < 4; r++)
+                if (masks[r] != 0 && !dead(board, piece, occ | masks[r])) return move(board, piece, r, masks[r]);
+            return null;
+        };
+    }
+
+    // any placement that fits, picked uniformly
+    static PlacementPolicy random() {
+        return (board, piece, rng) -> {
+            long occ = occupancy(board);
+            int w = board.width(), h = board.height(), n = 0;
+            Move pick = null;
+            for (int r = 0; r < 4; r++) {
+                Orientation o = piece.orientation(r);
+                if (seenBefore(piece, r)) continue;
+                for (int y = 0; y + o.height <= h; y++)
+                    for (int x = 0; x + o.width <= w; x++)
+                        if ((occ & o.maskAt(w, x, y)) == 0 && rng.nextInt(++n) == 0) pick = new Move(r, x, y); // reservoir sampling
+            }
+            return pick;
+        };
+    }
+
+    // like greedy, but a placement is only taken if the oracle says the rest of the board can still be tiled.
+    // the oracle is looked up on every call: SelfPlay gives each pool thread its own, so the threads don't
+    // all queue on one cache lock
+    static PlacementPolicy solverGuided(Supplier<SolvabilityOracle> oracles) {
+        return (board, piece, rng) -> {
+            SolvabilityOracle oracle = oracles.get();
+            long occ = occupancy(board);
+            long[] masks = coveringFirstEmpty(board, piece, occ);
+            Move fallback = null;
+            for (int r = 0; r < 4; r++) {
+                if (masks[r] == 0 || dead(board, piece, occ | masks[r])) continue;
+                SolvabilityOracle.Verdict v = oracle.check(occ | masks[r]);
+                if (v == SolvabilityOracle.Verdict.SOLVABLE) return move(board, piece, r, masks[r]);
+                if (v == SolvabilityOracle.Verdict.UNKNOWN && fallback == null) fallback = move(board, piece, r, masks[r]);
+            }
+            return fallback;
+        };
+    }
+
+    static PlacementPolicy parse(String name, Supplier<SolvabilityOracle> oracles) {
+        return switch (name) {
+            case "greedy" -> greedy();
+            case "random" -> random();
+            case "solver" -> solverGuided(oracles);
+            default -> throw new IllegalArgumentException("unknown policy " + name + ", expected greedy, random or solver");
+        };
+    }
+
+    // --- helpers, boards of up to 64 cells ---
+
+    private static long occupancy(Board<?> board) {
+        return board instanceof Board.Single<?> s ? s.occupancy() : SolvabilityOracle.maskOf(board);
+    }
+
+    // rotations 0..3 can repeat an orientation (the X has only one), no need to try it twice
+    private static boolean seenBefore(Pentomino piece, int r) {
+        for (int q = 0; q < r; q++) if (piece.orientation(q) == piece.orientation(r)) return true;
+        return false;
+    }
+
+    // the mask of every free placement that covers the first empty cell, one slot per rotation, 0 where none.
+    // in an orientation the first cell is its top-left one, so the anchor that puts it on the target is fixed
+    private static long[] coveringFirstEmpty(Board<?> board, Pentomino piece, long occ) {
+        int w = board.width(), h = board.height();
+        long full = w * h == Long.SIZE ? -1L : (1L << (w * h)) - 1;
+        long[] out = new long[4];
+        long empty = full & ~occ;
+        if (empty == 0) return out;
+        int target = Long.numberOfTrailingZeros(empty), tx = target % w, ty = target / w;
+        for (int r = 0; r < 4; r++) {
+            if (seenBefore(piece, r)) continue;
+            Orientation o = piece.orientation(r);
+            int ax = tx - o.xs[0], ay = ty - o.ys[0];
+            if (!o.fitsInside(w, h, ax, ay)) continue;
+            long m = o.maskAt(w, ax, ay);
+            if ((occ & m) == 0) out[r] = m;
+        }
+        return out;
+    }
+
+    // an empty region no more pieces of this size can fill
+    private static boolean dead(Board<?> board, Pentomino piece, long occ) {
+        return Solver.hasDeadRegion(board.width(), board.height(), occ, piece.size(), piece.size());
+    }
+
+    private static Move move(Board<?> board, Pentomino piece, int r, long mask) {
+        Orientation o = piece.orientation(r);
+        int first = Long.numberOfTrailingZeros(mask);
+        return new Move(r, first % board.width() - o.xs[0], first / board.width() - o.ys[0]);
+    }
+}
@@ -0,0 +1,145 @@
+// File: src/main/java/com/example/pentomino/Polyominoes.java
+package com.example.pentomino;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// free polyominoes of any order (5 tetrominoes, 12 pentominoes, 35 hexominoes, 108 heptominoes, ...).
+// Redelmeier's algorithm grows every fixed n-omino exactly once from a root cell without ever
+// checking for duplicates; a fixed shape is kept as its free polyomino when none of its 8 rotations /
+// mirror images sorts before it, so every free shape comes out once. up to n = 10 (36446 fixed shapes)
+// this takes a fraction of a second. sets are built once per order and cached
+final class Polyominoes {
+    private static final Map<Integer, List<Pentomino>> CACHE = new ConcurrentHashMap<>();
+
+    private Polyominoes() {}
+
+    // every free polyomino with n cells, ids 0.. in a fixed order, named "<n>-<number>"
+    static List<Pentomino> free(int n) {
+        if (n < 1) throw new IllegalArgumentException("order must be at least 1, got " + n);
+        return CACHE.computeIfAbsent(n, Polyominoes::enumerate);
+    }
+
+    private static List<Pentomino> enumerate(int n) {
+        List<int[]> shapes = new ArrayList<>();
+        new Search(n, shapes).run();
+        shapes.sort(Arrays::compare);
+        List<Pentomino> out = new ArrayList<>(shapes.size());
+        int orientations = 0;
+        for (int i = 0; i < shapes.size(); i++) {
+            int[] form = shapes.get(i);
+            int[][] xy = new int[n][];
+            for (int c = 0; c < n; c++) xy[c] = new int[]{form[c] % n, form[c] / n};
+            Pentomino p = Pentomino.of(i, n + "-" + (i + 1), xy, orientations);
+            orientations += p.orientations().size();
+            out.add(p);
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    // the fixed polyominoes grow on a lattice where the root is (0,0) and only cells above it, or right
+    // of it on its row, may join: y > 0, or y == 0 and x >= 0. the grid has a border of cells marked
+    // seen, so the neighbours of a cell never need a bounds check
+    private static final class Search {
+        private final int n, width;
+        private final boolean[] seen;  // in the shape, or in some level's untried set, or off limits
+        private final int[][] untried; // one buffer per depth
+        private final int[] cells;
+        private final int[] steps;
+        private final int[] form, other, ys; // scratch for the symmetry check
+        private final List<int[]> out;
+
+        Search(int n, List<int[]> out) {
+            this.n = n;
+            this.out = out;
+            this.width = 2 * n + 1;          // x = -n..n, the outer columns are border
+            this.seen = new boolean[width * (n + 2)]; // y = -1..n, the outer rows are border
+            for (int x = 0; x < width; x++) {
+                seen[x] = true;
+                seen[(n + 1) * width + x] = true;
+            }
+            for (int y = 0; y < n + 2; y++) {
+                seen[y * width] = true;
+                seen[y * width + width - 1] = true;
+            }
+            for (int x = -n; x < 0; x++) seen[index(x, 0)] = true; // left of the root on its row
+            this.untried = new int[n][4 * n + 1];
+            this.cells = new int[n];
+            this.steps = new int[]{1, -1, width, -width};
+            this.form = new int[n];
+            this.other = new int[n];
+            this.ys = new int[n];
+        }
+
+        private int index(int x, int y) {
+            return (y + 1) * width + x + n;
+        }
+
+        void run() {
+            int root = index(0, 0);
+            seen[root] = true;
+            untried[0][0] = root;
+            grow(0, 1);
+        }
+
+        // takes the cells of untried[depth] one by one; each one joins the shape, and its new neighbours
+        // (not in the shape, not next to it, not waiting in an untried set) are offered to the next level
+        private void grow(int depth, int count) {
+            int[] mine = untried[depth];
+            while (count > 0) {
+                int c = mine[--count];
+                cells[depth] = c;
+                if (depth + 1 == n) {
+                    emit();
+                    continue;
+                }
+                int[] next = untried[depth + 1];
+                System.arraycopy(mine, 0, next, 0, count);
+                int m = count;
+                for (int s : steps) {
+                    int nb = c + s;
+                    if (!seen[nb]) {
+                        seen[nb] = true;
+                        next[m++] = nb;
+                    }
+                }
+                grow(depth + 1, m);
+                for (int i = count; i < m; i++) seen[next[i]] = false;
+            }
+        }
+
+        private void emit() {
+            transform(0, form);
+            for (int t = 1; t < 8; t++) {
+                transform(t, other);
+                if (Arrays.compare(other, form) < 0) return; // another image represents this shape
+            }
+            out.add(form.clone());
+        }
+
+        // image t of the shape (t & 3 clockwise quarter turns, mirrored first if t >= 4) as sorted
+        // row-major codes y * n + x after moving it to (0,0)
+        private void transform(int t, int[] dst) {
+            int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                int x = cells[i] % width - n, y = cells[i] / width - 1;
+                if ((t & 4) != 0) x = -x;
+                for (int r = 0; r < (t & 3); r++) {
+                    int tmp = x;
+                    x = y;
+                    y = -tmp;
+                }
+                dst[i] = x;
+                ys[i] = y;
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+            }
+            for (int i = 0; i < n; i++) dst[i] = (ys[i] - minY) * n + dst[i] - minX;
+            Arrays.sort(dst);
+        }
+    }
+}
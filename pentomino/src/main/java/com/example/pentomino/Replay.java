@@ -0,0 +1,166 @@
+// File: src/main/java/com/example/pentomino/Replay.java
+package com.example.pentomino;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+// plays the games of a GameLog file again on a fresh engine, run it with
+//   java -cp target/classes com.example.pentomino.Replay [--realtime] [--quiet] FILE
+// every game is restarted from its seed and fed the logged moves at their logged times on a virtual
+// clock; everything the engine does in return has to match the log record for record, otherwise the
+// replay stops with the first record that differs. by default it runs as fast as it can, --realtime
+// waits out the gaps between records like the original game did. the pieces are taken from the SPAWN
+// records rather than picked again, so games played with fair spawn (see FairSpawner), whose picks
+// depend on how far its background checks had got, replay just the same
+public class Replay {
+
+    public static void main(String[] args) throws IOException {
+        boolean realtime = false, quiet = false;
+        Path file = null;
+        for (String a : args) {
+            switch (a) {
+                case "--realtime" -> realtime = true;
+                case "--quiet" -> quiet = true;
+                default -> file = Path.of(a);
+            }
+        }
+        if (file == null) throw new IllegalArgumentException("usage: Replay [--realtime] [--quiet] FILE");
+
+        Replay replay = new Replay(realtime, quiet);
+        long t0 = System.nanoTime();
+        replay.run(new GameLog.Reader(file), new GameLog.Reader(file));
+        long t1 = System.nanoTime();
+        System.out.printf("%d games, %d records, %d won, all matched the log (%.0fms)%n",
+                replay.games, replay.records, replay.wins, (t1 - t0) / 1e6);
+    }
+
+    private final boolean realtime, quiet;
+    private final Map<String, GameEngine> engines = new HashMap<>(); // one per setup, restarted per game
+    private final VirtualClock clock = new VirtualClock();
+    private final ArrayDeque<long[]> produced = new ArrayDeque<>(); // type, time, a, b, c from the engine
+    private final Map<Long, GameEngine.Piece> bySerial = new HashMap<>();
+    private GameLog.Reader ahead; // runs ahead of the records being replayed to find the next SPAWN
+    private int aheadGames;       // STARTs it went past
+    private GameEngine game;
+    private long base;     // clock time the current game started at
+    private long wallBase; // System.nanoTime() then, for --realtime
+    int games, records, wins;
+
+    Replay(boolean realtime, boolean quiet) {
+        this.realtime = realtime;
+        this.quiet = quiet;
+    }
+
+    // the engine of the game replayed last, as the log left it
+    GameEngine game() {
+        return game;
+    }
+
+    // both readers on the same file
+    void run(GameLog.Reader log, GameLog.Reader spawns) {
+        ahead = spawns;
+        aheadGames = 0;
+        while (log.next()) {
+            records++;
+            if (log.type == GameLog.START) {
+                finish();
+                start(log);
+                continue;
+            }
+            if (game == null) throw new IllegalStateException("record " + records + ": " + GameLog.name(log.type) + " before any START");
+            if (produced.isEmpty()) {
+                waitFor(log.time);
+                clock.set(base + log.time);
+                game.update();
+            }
+            if (produced.isEmpty() && GameLog.isMove(log.type)) move(log);
+            long[] e = produced.poll();
+            if (e == null || e[0] != log.type || e[1] != log.time || e[2] != log.a || e[3] != log.b || e[4] != log.c)
+                throw new IllegalStateException("record " + records + ": log has " + describe(log.type, log.time, log.a, log.b, log.c)
+                        + " but the replay " + (e == null ? "has nothing" : "has " + describe((int) e[0], e[1], e[2], e[3], e[4])));
+            if (log.type == GameLog.END && log.a == 1) wins++;
+        }
+        finish();
+    }
+
+    private void start(GameLog.Reader log) {
+        String setup = log.cols + "x" + log.rows + "/" + log.order + "/" + log.rules;
+        game = engines.computeIfAbsent(setup, k -> {
+            GameEngine g = new GameEngine(log.cols, log.rows, PentominoLibrary.ofOrder(log.order), clock, log.rules);
+            g.setSpawner(this::loggedSpawn);
+            g.addListener(new GameLog.Recorder(g) {
+                @Override void record(int type, long a, long b, long c) {
+                    if (type != GameLog.START) produced.add(new long[]{type, g.now() - base, a, b, c});
+                }
+                @Override public void spawned(GameEngine.Piece p) {
+                    bySerial.put((long) p.serial, p);
+                    super.spawned(p);
+                }
+            });
+            return g;
+        });
+        produced.clear();
+        bySerial.clear();
+        base = clock.getAsLong();
+        wallBase = System.nanoTime();
+        games++;
+        game.start(log.a, presets(log, game.board().width()));
+    }
+
+    // the PRESET records right after the START, the reader is left on the START
+    private List<GameEngine.Preset> presets(GameLog.Reader log, int cols) {
+        List<GameEngine.Preset> presets = new ArrayList<>();
+        log.mark();
+        while (log.next() && log.type == GameLog.PRESET) {
+            int anchor = (int) (log.c >>> 2);
+            presets.add(new GameEngine.Preset(game.pieces().get((int) log.b), (int) (log.c & 3), anchor % cols, anchor / cols));
+        }
+        log.reset();
+        return presets;
+    }
+
+    private void move(GameLog.Reader log) {
+        GameEngine.Piece p = bySerial.get(log.a);
+        if (p == null) throw new IllegalStateException("record " + records + ": move on piece " + log.a + " that never spawned");
+        switch (log.type) {
+            case GameLog.TOUCH -> game.touch(p);
+            case GameLog.ROTATE -> game.rotate(p, ((int) log.b - p.rotation() & 3) == 1 ? 1 : -1);
+            case GameLog.PLACE -> game.place(p, (int) log.b, (int) log.c);
+            case GameLog.REMOVE -> game.remove(p);
+            default -> throw new IllegalStateException();
+        }
+    }
+
+    // the piece of the current game's next SPAWN record, the engine's own roll once they are used up
+    private Pentomino loggedSpawn(int roll) {
+        while (aheadGames <= games && ahead.next()) {
+            if (ahead.type == GameLog.START) aheadGames++;
+            else if (ahead.type == GameLog.SPAWN && aheadGames == games) return game.pieces().get((int) ahead.b);
+        }
+        return game.pieces().get(roll);
+    }
+
+    // a game cut short (restart, crash) has no END record, whatever is left just isn't checked
+    private void finish() {
+        if (game != null && !quiet)
+            System.out.printf("game %d: %s, %d spawned, %d placed, %d vanished%n", games,
+                    game.isOver() ? (game.isWon() ? "won" : "lost") : "not finished", game.spawned(), game.placed(), game.vanished());
+        produced.clear();
+    }
+
+    private void waitFor(long time) {
+        if (!realtime) return;
+        long wait;
+        while ((wait = wallBase + time - System.nanoTime()) > 0) LockSupport.parkNanos(wait);
+    }
+
+    private static String describe(int type, long time, long a, long b, long c) {
+        return String.format("%s(%d, %d, %d) at %.3fs", GameLog.name(type), a, b, c, time / 1e9);
+    }
+}
@@ -0,0 +1,232 @@
+// File: src/main/java/com/example/pentomino/SelfPlay.java
+package com.example.pentomino;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+// headless batch simulator: plays lots of games under GameEngine's rules with a placement policy, one
+// game per fork/join task over all cores. run it with
+//   java -cp target/classes com.example.pentomino.SelfPlay [--policy greedy|random|solver] [--games N]
+//        [--threads N] [--seed S] [--think SECONDS] [--seconds N] [--untouched MIN-MAX] [--touched MIN-MAX]
+//        [--board COLSxROWS] [--order N] [--fair]
+// --order picks the piece set (every free polyomino with N cells, 5 by default). the policies work on
+// bitboards, so --board takes up to 64 cells and bigger ones are refused. --fair spawns through a FairSpawner, whose checks are waited for before
+// every step since the game clock here doesn't give them any time
+// the simulated player looks at every piece as it spawns. if the policy has a move it grabs the piece
+// (which gives it the long vanish window), thinks for --think seconds of game time and drops it there.
+// otherwise the piece is left alone and vanishes
+public class SelfPlay implements AutoCloseable {
+    private static final int BUCKET = 10; // seconds per histogram bar
+
+    public static void main(String[] args) {
+        String policyName = "greedy";
+        long games = 100_000, seed = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        double think = 2;
+        GameEngine.Rules d = GameEngine.Rules.DEFAULT;
+        int seconds = d.gameSeconds();
+        int cols = Board.COLS, rows = Board.ROWS, order = 5;
+        boolean fair = false;
+        int[] untouched = {d.untouchedMin(), d.untouchedMax()}, touched = {d.touchedMin(), d.touchedMax()};
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--policy" -> policyName = args[++i];
+                case "--games" -> games = Long.parseLong(args[++i].replace("_", ""));
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--think" -> think = Double.parseDouble(args[++i]);
+                case "--seconds" -> seconds = Integer.parseInt(args[++i]);
+                case "--untouched" -> untouched = range(args[++i]);
+                case "--touched" -> touched = range(args[++i]);
+                case "--board" -> {
+                    String[] p = args[++i].split("x");
+                    cols = Integer.parseInt(p[0]);
+                    rows = Integer.parseInt(p[1]);
+                }
+                case "--order" -> order = Integer.parseInt(args[++i]);
+                case "--fair" -> fair = true;
+                default -> throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+        if (cols * rows > Long.SIZE)
+            throw new IllegalArgumentException("--board " + cols + "x" + rows + " has " + cols * rows
+                    + " cells, the simulated player works on boards of up to 64");
+        GameEngine.Rules rules = new GameEngine.Rules(seconds, untouched[0], untouched[1], touched[0], touched[1], d.fadeNanos());
+        List<Pentomino> pieces = PentominoLibrary.ofOrder(order);
+        // only the solver policy and fair spawn ask it anything. one oracle per pool thread, shared by that
+        // thread's policy calls and its engine's fair spawner: one between all threads had them taking
+        // turns on its cache lock
+        int w = cols, h = rows;
+        ThreadLocal<SolvabilityOracle> oracles = ThreadLocal.withInitial(() -> new SolvabilityOracle(w, h, pieces, 1 << 16, 20_000));
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long t0, t1;
+        Stats s;
+        try (SelfPlay sim = new SelfPlay(PlacementPolicy.parse(policyName, oracles::get), cols, rows, pieces, rules,
+                (long) (think * GameEngine.SECOND), fair ? oracles::get : null)) {
+            t0 = System.nanoTime();
+            s = sim.run(pool, seed, games);
+            t1 = System.nanoTime();
+        } finally {
+            pool.shutdown();
+        }
+
+        System.out.printf("policy %s, %d games on %d threads in %.2fs (%.0f games/s)%n",
+                policyName, s.games, threads, (t1 - t0) / 1e9, s.games / ((t1 - t0) / 1e9));
+        System.out.printf("board %dx%d, %d pieces of %d cells%s%n", cols, rows, pieces.size(), order, fair ? ", fair spawn" : "");
+        System.out.printf("rules: %ds, untouched %d-%ds, touched %d-%ds, think %.1fs%n", rules.gameSeconds(),
+                rules.untouchedMin(), rules.untouchedMax(), rules.touchedMin(), rules.touchedMax(), think);
+        System.out.printf("win rate %.2f%% (%d of %d)%n", 100.0 * s.wins / s.games, s.wins, s.games);
+        System.out.printf("pieces per game: spawned %.1f, placed %.1f, wasted (vanished) %.1f%n",
+                (double) s.spawned / s.games, (double) s.placed / s.games, (double) s.vanished / s.games);
+        System.out.println("time to complete (won games):");
+        long most = 1;
+        for (long c : s.winTime) most = Math.max(most, c);
+        for (int b = 0; b < s.winTime.length; b++) {
+            System.out.printf("  %3d-%3ds %9d %s%n", b * BUCKET, b * BUCKET + BUCKET - 1, s.winTime[b],
+                    "#".repeat((int) (50 * s.winTime[b] / most)));
+        }
+    }
+
+    private static int[] range(String s) {
+        String[] p = s.split("-");
+        return new int[]{Integer.parseInt(p[0]), Integer.parseInt(p[p.length - 1])};
+    }
+
+    // totals over a batch of games. tasks fill their own and they're added up when joined
+    static final class Stats {
+        long games, wins, spawned, placed, vanished;
+        final long[] winTime; // won games by seconds played / BUCKET
+
+        Stats(GameEngine.Rules rules) {
+            winTime = new long[(rules.gameSeconds() + BUCKET - 1) / BUCKET];
+        }
+
+        Stats add(Stats o) {
+            games += o.games;
+            wins += o.wins;
+            spawned += o.spawned;
+            placed += o.placed;
+            vanished += o.vanished;
+            for (int i = 0; i < winTime.length; i++) winTime[i] += o.winTime[i];
+            return this;
+        }
+    }
+
+    private final PlacementPolicy policy;
+    private final GameEngine.Rules rules;
+    private final long think;
+    // every pool thread keeps one engine and clock and restarts it for each game, the clock just keeps going
+    private final ThreadLocal<GameEngine> engines;
+    // the fair spawners of those engines, each with its worker thread, shut down by close()
+    private final Queue<FairSpawner> spawners = new ConcurrentLinkedQueue<>();
+
+    // fair: the oracle for fair spawn, asked for on each pool thread as it makes its engine; null for
+    // uniformly random pieces
+    SelfPlay(PlacementPolicy policy, int cols, int rows, List<Pentomino> pieces, GameEngine.Rules rules, long thinkNanos,
+             Supplier<SolvabilityOracle> fair) {
+        this.policy = policy;
+        this.rules = rules;
+        this.think = thinkNanos;
+        this.engines = ThreadLocal.withInitial(() -> {
+            GameEngine g = new GameEngine(cols, rows, pieces, new VirtualClock(), rules);
+            if (fair != null) {
+                FairSpawner f = new FairSpawner(g, fair.get());
+                spawners.add(f);
+                g.setSpawner(f);
+            }
+            return g;
+        });
+    }
+
+    // stops the fair spawners' worker threads; the pool threads' engines can't play any more after this
+    @Override public void close() {
+        FairSpawner f;
+        while ((f = spawners.poll()) != null) f.close();
+    }
+
+    // games are numbered from 0, game i is seeded from seed and i so any single game can be replayed
+    Stats run(ForkJoinPool pool, long seed, long games) {
+        return pool.invoke(new Batch(seed, 0, games));
+    }
+
+    @SuppressWarnings("serial") // fork/join tasks are never serialized
+    private final class Batch extends RecursiveTask<Stats> {
+        private final long seed, from, to;
+
+        Batch(long seed, long from, long to) {
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override protected Stats compute() {
+            if (to - from <= 1) {
+                Stats s = new Stats(rules);
+                if (to > from) play(gameSeed(seed, from), s);
+                return s;
+            }
+            long mid = (from + to) >>> 1;
+            Batch right = new Batch(seed, mid, to);
+            right.fork();
+            Stats left = new Batch(seed, from, mid).compute();
+            return left.add(right.join());
+        }
+    }
+
+    static long gameSeed(long seed, long game) {
+        long z = seed + (game + 1) * 0x9E3779B97F4A7C15L; // splitmix64
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // one game on a virtual clock, added to s
+    void play(long gameSeed, Stats s) {
+        GameEngine game = engines.get();
+        VirtualClock clock = (VirtualClock) game.clock();
+        FairSpawner fair = game.spawner() instanceof FairSpawner f ? f : null;
+        Random rng = new Random(~gameSeed); // the policy's, the engine has its own
+        game.start(gameSeed);
+
+        GameEngine.Piece seen = null, holding = null;
+        PlacementPolicy.Move move = null;
+        long dropAt = Long.MAX_VALUE;
+        while (!game.isOver()) {
+            if (fair != null) fair.settle();
+            GameEngine.Piece p = game.poolPiece();
+            if (p != null && p != seen) {
+                seen = p;
+                move = policy.choose(game.board(), p.shape, rng);
+                if (move != null) {
+                    game.touch(p);
+                    holding = p;
+                    dropAt = clock.getAsLong() + think;
+                }
+            }
+            long next = Math.min(game.nextEventAt(), dropAt);
+            if (next == Long.MAX_VALUE) break;
+            clock.set(next);
+            if (holding != null && next == dropAt) {
+                for (int r = 0; r < move.rotation(); r++) game.rotate(holding, 1);
+                game.place(holding, move.x(), move.y()); // no-op if it vanished while the player was thinking
+                holding = null;
+                dropAt = Long.MAX_VALUE;
+            }
+            game.update();
+        }
+
+        s.games++;
+        s.spawned += game.spawned();
+        s.placed += game.placed();
+        s.vanished += game.vanished();
+        if (game.isWon()) {
+            s.wins++;
+            s.winTime[(rules.gameSeconds() - game.remaining()) / BUCKET]++;
+        }
+    }
+}
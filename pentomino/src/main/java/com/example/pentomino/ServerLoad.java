@@ -0,0 +1,194 @@
+// File: src/main/java/com/example/pentomino/ServerLoad.java
+package com.example.pentomino;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// load generator for GameServer, run it with
+//   java -cp target/classes com.example.pentomino.ServerLoad [--sessions N] [--duration S] [--warmup S]
+//        [--port P] [--tick MS] [--seconds N] [--policy greedy|random]
+// without --port it starts a server in this JVM on a free port. every session is a bot on its own
+// virtual thread that keeps a copy of the board from the server's replies, answers every spawn with
+// the policy's move as one PLACE, and starts a new game when one ends. latency is from writing the PLACE
+// to reading its PLACED / REJECTED, so it includes the tick batching. at the end it prints moves per
+// second, latency percentiles (moves in the warmup seconds, while
+// everything is still being jitted, don't count), sessions per core and how busy the process kept the cores
+public class ServerLoad {
+
+    public static void main(String[] args) throws Exception {
+        int sessions = 200, duration = 10, warmup = 2, port = -1, tickMs = 20, seconds = 60;
+        String policyName = "greedy";
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--sessions" -> sessions = Integer.parseInt(args[++i]);
+                case "--duration" -> duration = Integer.parseInt(args[++i]);
+                case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--tick" -> tickMs = Integer.parseInt(args[++i]);
+                case "--seconds" -> seconds = Integer.parseInt(args[++i]);
+                case "--policy" -> policyName = args[++i];
+                default -> throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+        PlacementPolicy policy = PlacementPolicy.parse(policyName, null);
+        GameServer server = null;
+        if (port < 0) {
+            server = new GameServer(0, tickMs * 1_000_000L, GameServer.rules(seconds));
+            port = server.port();
+            GameServer s = server;
+            Thread.ofVirtual().name("accept").start(() -> {
+                try {
+                    s.serve();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            });
+        }
+
+        var os = (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        List<Bot> bots = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        long startAt = System.nanoTime() + warmup * GameEngine.SECOND, endAt = startAt + duration * GameEngine.SECOND;
+        for (int i = 0; i < sessions; i++) {
+            Bot b = new Bot(port, policy, new Random(i), startAt, endAt);
+            bots.add(b);
+            threads.add(Thread.ofVirtual().name("bot-" + i).start(b::run));
+        }
+        while (System.nanoTime() < startAt) Thread.sleep(Math.max(1, (startAt - System.nanoTime()) / 1_000_000));
+        long cpu0 = os.getProcessCpuTime(), t0 = System.nanoTime();
+        for (Thread t : threads) t.join();
+        long t1 = System.nanoTime(), cpu1 = os.getProcessCpuTime();
+        if (server != null) server.close();
+
+        long moves = 0, games = 0, wins = 0, failed = 0;
+        int n = 0;
+        for (Bot b : bots) n += b.latencyCount;
+        long[] all = new long[n];
+        n = 0;
+        for (Bot b : bots) {
+            System.arraycopy(b.latency, 0, all, n, b.latencyCount);
+            n += b.latencyCount;
+            moves += b.latencyCount;
+            games += b.games;
+            wins += b.wins;
+            if (b.error != null) failed++;
+        }
+        Arrays.sort(all);
+        int cores = Runtime.getRuntime().availableProcessors();
+        double secs = (t1 - t0) / 1e9;
+        System.out.printf("%d sessions for %.1fs on %d cores (%d ms ticks), %d failed%n", sessions, secs, cores, tickMs, failed);
+        System.out.printf("%d moves (%.0f/s), %d games finished, %d won%n", moves, moves / secs, games, wins);
+        System.out.printf("move latency p50 %.2f  p90 %.2f  p99 %.2f  max %.2f ms%n",
+                pct(all, 50), pct(all, 90), pct(all, 99), n == 0 ? 0 : all[n - 1] / 1e6);
+        System.out.printf("%.0f sessions per core, cpu busy %.0f%%%n", (double) sessions / cores,
+                100.0 * (cpu1 - cpu0) / ((t1 - t0) * (double) cores));
+        if (failed > 0)
+            for (Bot b : bots) if (b.error != null) { System.out.println("first failure: " + b.error); break; }
+    }
+
+    private static double pct(long[] sorted, int p) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank))] / 1e6;
+    }
+
+    private static final class Bot {
+        private final int port;
+        private final PlacementPolicy policy;
+        private final Random rng;
+        private final long startAt, endAt;
+        private final Board<Integer> board = Board.create(Board.COLS, Board.ROWS);
+        private long[] latency = new long[256];
+        private int latencyCount;
+        private int games, wins;
+        private int waitingFor = -1; // serial of the PLACE in flight
+        private long sentAt;
+        private String error;
+
+        Bot(int port, PlacementPolicy policy, Random rng, long startAt, long endAt) {
+            this.port = port;
+            this.policy = policy;
+            this.rng = rng;
+            this.startAt = startAt;
+            this.endAt = endAt;
+        }
+
+        void run() {
+            try (Socket s = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                s.setTcpNoDelay(true);
+                s.setSoTimeout(1000); // to notice the end of the run while nothing comes in
+                BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+                OutputStream out = s.getOutputStream();
+                send(out, "NEW " + rng.nextLong());
+                while (System.nanoTime() < endAt) {
+                    String line;
+                    try {
+                        line = in.readLine();
+                    } catch (java.net.SocketTimeoutException e) {
+                        continue;
+                    }
+                    if (line == null) throw new IOException("server closed the connection");
+                    handle(line.split(" "), out);
+                }
+                send(out, "QUIT");
+            } catch (IOException | RuntimeException e) {
+                error = e.toString();
+            }
+        }
+
+        private void handle(String[] w, OutputStream out) throws IOException {
+            switch (w[0]) {
+                case "START" -> board.clear();
+                case "SPAWN" -> {
+                    int serial = Integer.parseInt(w[1]);
+                    Pentomino piece = PentominoLibrary.all().get(Integer.parseInt(w[2]));
+                    PlacementPolicy.Move m = policy.choose(board, piece, rng);
+                    if (m == null) return; // let it vanish
+                    waitingFor = serial;
+                    sentAt = System.nanoTime();
+                    send(out, "PLACE " + serial + " " + m.rotation() + " " + m.x() + " " + m.y());
+                }
+                case "PLACED" -> {
+                    int serial = Integer.parseInt(w[1]);
+                    Pentomino piece = PentominoLibrary.all().get(Integer.parseInt(w[2]));
+                    board.place(piece, Integer.parseInt(w[3]), Integer.parseInt(w[4]), Integer.parseInt(w[5]), serial);
+                    answered(serial);
+                }
+                case "REJECTED" -> answered(Integer.parseInt(w[1]));
+                case "REMOVED" -> board.remove(Integer.parseInt(w[1]));
+                case "END" -> {
+                    if (System.nanoTime() >= startAt) {
+                        games++;
+                        if (w[1].equals("WIN")) wins++;
+                    }
+                    send(out, "NEW " + rng.nextLong());
+                }
+                case "ERROR" -> throw new IllegalStateException(String.join(" ", w));
+                default -> {} // clock ticks, touches, fades and vanishes don't change the board
+            }
+        }
+
+        private void answered(int serial) {
+            if (serial != waitingFor) return;
+            waitingFor = -1;
+            if (sentAt < startAt) return;
+            if (latencyCount == latency.length) latency = Arrays.copyOf(latency, latencyCount * 2);
+            latency[latencyCount++] = System.nanoTime() - sentAt;
+        }
+
+        private static void send(OutputStream out, String line) throws IOException {
+            out.write((line + "\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+// File: src/main/java/com/example/pentomino/SnapGhost.java
+package com.example.pentomino;
+
+import javafx.scene.Group;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+
+// translucent preview of where the dragged piece would land, green if it fits there and red if not.
+// it lives on the board pane and is moved every frame during a drag, so it keeps its rectangles and
+// only repositions / recolours them
+final class SnapGhost extends Group {
+    private static final Color LEGAL = Color.rgb(40, 200, 80, 0.35), ILLEGAL = Color.rgb(220, 50, 50, 0.35);
+
+    private final int cell;
+    private Rectangle[] rects = new Rectangle[0];
+    private Orientation shown;
+    private boolean legal;
+
+    SnapGhost(int cell) {
+        this.cell = cell;
+        setMouseTransparent(true);
+        setVisible(false);
+    }
+
+    void show(Orientation o, int ax, int ay, boolean legal) {
+        if (o != shown) reshape(o);
+        if (legal != this.legal || !isVisible()) {
+            this.legal = legal;
+            for (Rectangle r : rects) r.setFill(legal ? LEGAL : ILLEGAL);
+        }
+        setLayoutX(ax * cell);
+        setLayoutY(ay * cell);
+        setVisible(true);
+    }
+
+    void hide() {
+        setVisible(false);
+    }
+
+    private void reshape(Orientation o) {
+        shown = o;
+        if (rects.length != o.size()) {
+            rects = new Rectangle[o.size()];
+            for (int i = 0; i < rects.length; i++) {
+                rects[i] = new Rectangle(cell - 2, cell - 2, legal ? LEGAL : ILLEGAL);
+                rects[i].setArcWidth(8); rects[i].setArcHeight(8);
+            }
+            getChildren().setAll(rects);
+        }
+        for (int i = 0; i < rects.length; i++) {
+            rects[i].setLayoutX(o.xs[i] * cell + 1);
+            rects[i].setLayoutY(o.ys[i] * cell + 1);
+        }
+    }
+}
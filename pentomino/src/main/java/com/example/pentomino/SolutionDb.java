@@ -0,0 +1,299 @@
+// File: src/main/java/com/example/pentomino/SolutionDb.java
+package com.example.pentomino;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// every tiling of a board by the 12 pentominoes, precomputed into one file and read back through a
+// memory map. write a file with
+//   java -cp target/classes com.example.pentomino.SolutionDb [--out DIR] [board...]
+// (boards as in Enumerate, all of them by default; 6x10 gives solutions-6x10.db, 9356 tilings, 268 KB).
+// mirror images and rotations are all kept, since a hint has to match the board as the player sees it.
+//
+// layout, big-endian:
+//   header   int magic, int version, byte width, byte height, byte pieces, byte 0, long blocked cells,
+//            int solutions, int keys
+//   keys     long key[keys], ascending
+//   starts   int start[keys + 1], solutions of key k are start[k] .. start[k+1]
+//   records  pieces * 2 bytes per solution: for piece id i, its Orientation.id and anchor y*w+x
+// a solution's key is the occupancy of the pieces that touch the top row, so the first rows of the
+// board pick out a handful of buckets and only those records get looked at. to find the buckets without
+// walking every key, opening builds a small index on the heap: per cell, a bitset of the keys covering
+// it (4128 keys, about 30 KB for 6x10). the records are read in place with absolute gets, never copied.
+// a tiling uses every piece once, so the file can't say anything once a shape is on the board twice, or
+// for a pool piece whose shape is already placed (the game spawns with replacement, so that happens).
+// answers() tells those cases apart and the game turns its hint button off for them
+public class SolutionDb {
+    private static final int MAGIC = 0x50534442; // "PSDB"
+    private static final int VERSION = 1;
+    private static final int HEADER = 28;
+    // by Orientation.id: reachable with the game's rotations, mirror images of chiral pieces are not
+    private static final boolean[] PLAYABLE = new boolean[PentominoLibrary.orientations().size()];
+
+    static {
+        for (Pentomino p : PentominoLibrary.all())
+            for (int r = 0; r < 4; r++) PLAYABLE[p.orientation(r).id] = true;
+    }
+
+    private final ByteBuffer map;
+    private final int w, h, pieces, solutions, keys;
+    private final long blocked;
+    private final int startsAt, recordsAt;
+    // by cell: bit k set if key k covers the cell, null for cells no key covers
+    private final long[][] withCell;
+
+    private SolutionDb(ByteBuffer map) {
+        this.map = map;
+        if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) throw new IllegalArgumentException("not a solution database");
+        this.w = map.get(8);
+        this.h = map.get(9);
+        this.pieces = map.get(10);
+        this.blocked = map.getLong(12);
+        this.solutions = map.getInt(20);
+        this.keys = map.getInt(24);
+        this.startsAt = HEADER + keys * Long.BYTES;
+        this.recordsAt = startsAt + (keys + 1) * Integer.BYTES;
+        if (pieces != PentominoLibrary.all().size() || map.limit() != recordsAt + solutions * pieces * 2)
+            throw new IllegalArgumentException("solution database is truncated or for another piece set");
+        this.withCell = new long[w * h][];
+        for (int k = 0; k < keys; k++) {
+            for (long key = map.getLong(HEADER + k * Long.BYTES); key != 0; key &= key - 1) {
+                int cell = Long.numberOfTrailingZeros(key);
+                if (withCell[cell] == null) withCell[cell] = new long[(keys + 63) >>> 6];
+                withCell[cell][k >>> 6] |= 1L << k;
+            }
+        }
+    }
+
+    // maps the file read-only. the mapping stays valid after the channel is closed
+    static SolutionDb open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            return new SolutionDb(map);
+        }
+    }
+
+    int width()     { return w; }
+    int height()    { return h; }
+    int solutions() { return solutions; }
+
+    // whether the file is about a board like this one: same size, no holes
+    boolean covers(Board<?> board) {
+        return board.width() == w && board.height() == h && blocked == 0;
+    }
+
+    // how many stored tilings contain every piece on the board, exactly where it is
+    int count(Board<?> board) {
+        Query q = query(board);
+        if (q == null) return 0;
+        long[] buckets = buckets(q);
+        int n = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            for (long word = buckets[i]; word != 0; word &= word - 1) {
+                int k = i << 6 | Long.numberOfTrailingZeros(word);
+                for (int s = start(k), e = start(k + 1); s < e; s++) if (q.matches(s)) n++;
+            }
+        }
+        return n;
+    }
+
+    // whether hint can say anything about piece on this board, see the class comment
+    boolean answers(Board<?> board, Pentomino piece) {
+        Query q = query(board);
+        return q != null && piece.id() < pieces && q.want[piece.id()] == 0;
+    }
+
+    // a move for piece that keeps the board completable with the pieces not on it yet, as the game's
+    // rotation (0..3) and anchor. tilings where every missing piece can be reached by rotating come
+    // first, then ones where at least this piece can. null if no stored tiling allows a move, or if the
+    // file can't answer at all (see answers)
+    PlacementPolicy.Move hint(Board<?> board, Pentomino piece) {
+        Query q = query(board);
+        if (q == null || piece.id() >= pieces || q.want[piece.id()] != 0) return null;
+        PlacementPolicy.Move m = hint(q, piece, true);
+        return m != null ? m : hint(q, piece, false);
+    }
+
+    private PlacementPolicy.Move hint(Query q, Pentomino piece, boolean allPlayable) {
+        int slot = piece.id() * 2;
+        long[] buckets = buckets(q);
+        for (int i = 0; i < buckets.length; i++) {
+            for (long word = buckets[i]; word != 0; word &= word - 1) {
+                int k = i << 6 | Long.numberOfTrailingZeros(word);
+                for (int s = start(k), e = start(k + 1); s < e; s++) {
+                    if (!q.matches(s) || allPlayable && !q.restPlayable(s)) continue;
+                    int at = recordsAt + s * pieces * 2 + slot;
+                    Orientation o = PentominoLibrary.orientations().get(map.get(at));
+                    int anchor = map.get(at + 1);
+                    for (int r = 0; r < 4; r++)
+                        if (piece.orientation(r) == o) return new PlacementPolicy.Move(r, anchor % w, anchor / w);
+                }
+            }
+        }
+        return null;
+    }
+
+    // the keys whose buckets can hold matches: their top-row pieces include ours and miss the rest, so
+    // every cell of q.top and none of q.below. an and over the per-cell bitsets, ascending like the scan was
+    private long[] buckets(Query q) {
+        long[] out = new long[(keys + 63) >>> 6];
+        Arrays.fill(out, -1L);
+        if ((keys & 63) != 0) out[out.length - 1] = (1L << keys) - 1;
+        for (long top = q.top; top != 0; top &= top - 1) {
+            long[] with = withCell[Long.numberOfTrailingZeros(top)];
+            if (with == null) return new long[0];
+            for (int i = 0; i < out.length; i++) out[i] &= with[i];
+        }
+        for (long below = q.below; below != 0; below &= below - 1) {
+            long[] with = withCell[Long.numberOfTrailingZeros(below)];
+            if (with != null) for (int i = 0; i < out.length; i++) out[i] &= ~with[i];
+        }
+        return out;
+    }
+
+    private int start(int k) {
+        return map.getInt(startsAt + k * Integer.BYTES);
+    }
+
+    // the board turned into what the records hold: the wanted (orientation, anchor) short per piece id
+    private Query query(Board<?> board) {
+        if (!covers(board) || !(board instanceof Board.Single<?> single)) return null;
+        int on = single.placedPieces().size();
+        if (on > pieces) return null;
+        Pentomino[] placed = new Pentomino[on];
+        long[] masks = new long[on];
+        int n = single.placements(placed, masks);
+        Query q = new Query();
+        long topRow = (1L << w) - 1;
+        for (int i = 0; i < n; i++) {
+            Pentomino p = placed[i];
+            if (p.id() >= pieces || placed[i] != PentominoLibrary.all().get(p.id()) || q.want[p.id()] != 0) return null; // a tiling uses every piece once
+            short code = code(p, masks[i]);
+            if (code == 0) return null;
+            q.want[p.id()] = code;
+            if ((masks[i] & topRow) != 0) q.top |= masks[i];
+            else q.below |= masks[i];
+        }
+        return q;
+    }
+
+    // (Orientation.id + 1, anchor) packed like a record entry; 0 never occurs in a record since every
+    // piece is present in every tiling, the + 1 keeps it free for "not on the board"
+    private short code(Pentomino p, long mask) {
+        int first = Long.numberOfTrailingZeros(mask);
+        for (Orientation o : p.orientations()) {
+            int anchor = first - (o.ys[0] * w + o.xs[0]);
+            int ax = Math.floorMod(anchor, w), ay = Math.floorDiv(anchor, w);
+            if (o.fitsInside(w, h, ax, ay) && o.maskAt(w, ax, ay) == mask) return (short) ((o.id + 1) << 8 | anchor);
+        }
+        return 0;
+    }
+
+    private final class Query {
+        final short[] want = new short[pieces]; // 0 where the piece isn't on the board
+        long top, below; // cells of the placed pieces that touch the top row / the other placed pieces
+
+        boolean matches(int solution) {
+            int base = recordsAt + solution * pieces * 2;
+            for (int i = 0; i < pieces; i++) {
+                int want = this.want[i];
+                if (want == 0) continue;
+                int at = base + i * 2;
+                if (map.get(at) + 1 != want >>> 8 || map.get(at + 1) != (want & 0xff)) return false;
+            }
+            return true;
+        }
+
+        // every piece not on the board sits in a rotation the player can reach
+        boolean restPlayable(int solution) {
+            int base = recordsAt + solution * pieces * 2;
+            for (int i = 0; i < pieces; i++)
+                if (want[i] == 0 && !PLAYABLE[map.get(base + i * 2)]) return false;
+            return true;
+        }
+    }
+
+    // --- generator ---
+
+    // solves the board and writes every tiling, grouped by key
+    static int write(BoardShape shape, Path file) throws IOException {
+        int w = shape.width, h = shape.height;
+        if (w * h > Long.SIZE) throw new IllegalArgumentException("board has " + w * h + " cells, max is 64");
+        int pieces = PentominoLibrary.all().size();
+        List<long[]> found = new ArrayList<>(); // key, then the record packed into the rest
+        List<byte[]> records = new ArrayList<>();
+        Solver solver = shape.solver(false);
+        solver.solve((s, rows, count) -> {
+            byte[] rec = new byte[pieces * 2];
+            long key = 0;
+            for (int i = 0; i < count; i++) {
+                Solver.Placement p = s.placement(rows[i]);
+                int id = p.orientation().piece.id();
+                rec[id * 2] = (byte) p.orientation().id;
+                rec[id * 2 + 1] = (byte) (p.y() * w + p.x());
+                if (p.y() == 0) key |= p.orientation().maskAt(w, p.x(), p.y());
+            }
+            found.add(new long[]{key, records.size()});
+            records.add(rec);
+            return true;
+        });
+        found.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+        List<Long> keys = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+        for (int i = 0; i < found.size(); i++) {
+            if (i == 0 || found.get(i)[0] != found.get(i - 1)[0]) {
+                keys.add(found.get(i)[0]);
+                starts.add(i);
+            }
+        }
+        starts.add(found.size());
+
+        long blocked = 0;
+        boolean[] holes = shape.blocked();
+        for (int i = 0; i < holes.length; i++) if (holes[i]) blocked |= 1L << i;
+        ByteBuffer out = ByteBuffer.allocate(HEADER + keys.size() * Long.BYTES + starts.size() * Integer.BYTES + found.size() * pieces * 2);
+        out.putInt(MAGIC).putInt(VERSION).put((byte) w).put((byte) h).put((byte) pieces).put((byte) 0)
+                .putLong(blocked).putInt(found.size()).putInt(keys.size());
+        for (long k : keys) out.putLong(k);
+        for (int s : starts) out.putInt(s);
+        for (long[] f : found) out.put(records.get((int) f[1]));
+        out.flip();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) ch.write(out);
+        }
+        return found.size();
+    }
+
+    // solutions-<rows>x<cols>.db, the label the board goes by in Enumerate
+    static String fileName(BoardShape shape) {
+        return "solutions-" + shape.label + ".db";
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Path.of(".");
+        List<BoardShape> boards = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--out" -> dir = Path.of(args[++i]);
+                default -> boards.add(BoardShape.parse(args[i]));
+            }
+        }
+        if (boards.isEmpty()) boards = List.of(BoardShape.values());
+        for (BoardShape b : boards) {
+            Path file = dir.resolve(fileName(b));
+            long t0 = System.nanoTime();
+            int n = write(b, file);
+            System.out.printf("%-9s %6d solutions -> %s (%d bytes, %.0fms)%n", b.label, n, file,
+                    Files.size(file), (System.nanoTime() - t0) / 1e6);
+        }
+    }
+}
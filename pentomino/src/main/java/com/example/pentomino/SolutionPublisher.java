@@ -0,0 +1,154 @@
+// File: src/main/java/com/example/pentomino/SolutionPublisher.java
+package com.example.pentomino;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// the solutions of a solver as a Flow.Publisher, for enumerations far too big to collect. the search runs
+// on its own thread once someone subscribes and hands every solution to a SubmissionPublisher with a
+// bounded buffer; when the subscriber's buffer is full, submit blocks and with it the search, right in the
+// middle of its depth-first walk. nothing piles up however slow the consumer is, and the search costs
+// nothing while it waits. stream() is the same as a pull-style Stream.
+// a solution comes with its rows (what a checkpoint needs to resume after it, see Solver.solve(listener,
+// resume)) and its fixed-width record: per placement the Orientation.id byte and the anchor y*w+x as a
+// big-endian short, in the order the search chose them
+final class SolutionPublisher implements Flow.Publisher<SolutionPublisher.Solution> {
+
+    record Solution(long index, int[] rows, byte[] record) {}
+
+    private final Solver solver;
+    private final int[] resume;      // rows of the last solution of an earlier run, null to start fresh
+    private final long firstIndex;   // index of the first solution this run publishes
+    private final int placements;    // per solution, all the same since every free cell gets covered
+    // the publisher runs one delivery task per subscriber at a time, idle threads go away by themselves
+    private final ExecutorService delivery = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "solution-delivery");
+        t.setDaemon(true);
+        return t;
+    });
+    private final SubmissionPublisher<Solution> out;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile double progress;
+    private volatile long nodes;
+    private volatile long published; // only the search thread writes it
+
+    SolutionPublisher(Solver solver, int freeCells, int[] resume, long firstIndex, int buffer) {
+        if (solver.pieces().stream().anyMatch(p -> p.size() != solver.pieces().get(0).size()))
+            throw new IllegalArgumentException("fixed-width records need pieces of one size");
+        this.solver = solver;
+        this.resume = resume;
+        this.firstIndex = firstIndex;
+        this.placements = freeCells / solver.pieces().get(0).size();
+        this.out = new SubmissionPublisher<>(delivery, buffer);
+    }
+
+    int recordBytes() { return placements * 3; }
+    double progress() { return progress; } // rough share of the search tree done, see Solver.progress
+    long nodes()      { return nodes; }
+    long published()  { return published; } // solutions this run has handed to the publisher so far
+
+    // one subscriber per publisher: the search starts with the first one and isn't run twice
+    @Override public void subscribe(Flow.Subscriber<? super Solution> subscriber) {
+        if (!started.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override public void request(long n) {}
+                @Override public void cancel() {}
+            });
+            subscriber.onError(new IllegalStateException("the search already has a subscriber"));
+            return;
+        }
+        out.subscribe(subscriber);
+        Thread.ofPlatform().daemon().name("solution-search").start(this::search);
+    }
+
+    private void search() {
+        long[] next = {firstIndex};
+        try {
+            solver.solve((s, rows, k) -> {
+                // a cancelled subscriber is dropped by the publisher, then nobody wants the rest
+                if (out.isClosed() || !out.hasSubscribers()) return false;
+                progress = s.progress(k);
+                nodes = s.searched();
+                out.submit(new Solution(next[0]++, Arrays.copyOf(rows, k), encode(s, rows, k)));
+                published++;
+                return true;
+            }, resume);
+            nodes = solver.nodes();
+            progress = 1;
+            out.close();
+        } catch (RuntimeException | Error e) {
+            out.closeExceptionally(e);
+        }
+    }
+
+    private byte[] encode(Solver s, int[] rows, int k) {
+        byte[] rec = new byte[placements * 3];
+        for (int i = 0; i < k; i++) {
+            Solver.Placement p = s.placement(rows[i]);
+            int anchor = p.y() * s.width() + p.x();
+            rec[i * 3] = (byte) p.orientation().id;
+            rec[i * 3 + 1] = (byte) (anchor >>> 8);
+            rec[i * 3 + 2] = (byte) anchor;
+        }
+        return rec;
+    }
+
+    // pull-style: the stream asks for one solution per solution it took, so at most buffer solutions
+    // wait in between. closing the stream cancels the search
+    Stream<Solution> stream(int buffer) {
+        BlockingQueue<Object> queue = new ArrayBlockingQueue<>(buffer + 1); // + the end marker
+        Object done = new Object();
+        AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+        subscribe(new Flow.Subscriber<Solution>() {
+            @Override public void onSubscribe(Flow.Subscription s) {
+                subscription.set(s);
+                s.request(buffer);
+            }
+            @Override public void onNext(Solution item) { queue.add(item); }
+            @Override public void onError(Throwable t) { queue.add(t); }
+            @Override public void onComplete() { queue.add(done); }
+        });
+        Spliterator<Solution> split = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private boolean over;
+
+            @Override public boolean tryAdvance(Consumer<? super Solution> action) {
+                if (over) return false;
+                Object o;
+                try {
+                    o = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new NoSuchElementException("interrupted");
+                }
+                if (o == done) {
+                    over = true;
+                    return false;
+                }
+                if (o instanceof Throwable t) {
+                    over = true;
+                    throw new IllegalStateException("search failed", t);
+                }
+                subscription.get().request(1);
+                action.accept((Solution) o);
+                return true;
+            }
+        };
+        return StreamSupport.stream(split, false).onClose(() -> {
+            Flow.Subscription s = subscription.get();
+            if (s != null) s.cancel();
+        });
+    }
+}
@@ -0,0 +1,114 @@
+// File: src/main/java/com/example/pentomino/SolvabilityOracle.java
+package com.example.pentomino;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// answers "can the rest of this board still be filled?" for the live game.
+// pieces spawn at random with replacement, so the question is whether the empty cells can be tiled
+// by pentominoes, any shape as often as needed. cheap checks go first (empty regions that are not a
+// multiple of 5), then a search with a node budget. answers are cached by occupancy mask, taking the
+// smallest mask over the board's symmetries so mirrored / rotated positions share an entry
+final class SolvabilityOracle {
+
+    enum Verdict {
+        CHECKING("checking..."),
+        SOLVABLE("can still be completed"),
+        DEAD("can't be completed"),
+        UNKNOWN("too open to tell");
+
+        private final String text;
+        Verdict(String text) { this.text = text; }
+        @Override public String toString() { return text; }
+    }
+
+    private final int w, h;
+    private final List<Pentomino> pieces;
+    private final int unit, smallest;
+    private final int[][] symmetries;
+    private final long nodeBudget;
+    private final Map<Long, Verdict> cache;
+
+    SolvabilityOracle(int w, int h, List<Pentomino> pieces, int cacheSize, long nodeBudget) {
+        if (w * h > Long.SIZE) throw new IllegalArgumentException("board has " + w * h + " cells, max is 64");
+        this.w = w;
+        this.h = h;
+        this.pieces = List.copyOf(pieces);
+        int g = 0, min = Integer.MAX_VALUE;
+        for (Pentomino p : this.pieces) {
+            g = gcd(g, p.size());
+            min = Math.min(min, p.size());
+        }
+        this.unit = Math.max(1, g);
+        this.smallest = min;
+        this.symmetries = Solver.symmetriesOf(w, h, new boolean[w * h]);
+        this.nodeBudget = nodeBudget;
+        // access-ordered LinkedHashMap is an LRU: the eldest entry is the least recently used one
+        this.cache = new LinkedHashMap<>(cacheSize * 4 / 3 + 1, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<Long, Verdict> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    static long maskOf(Board<?> board) {
+        long occ = 0;
+        for (int y = 0; y < board.height(); y++)
+            for (int x = 0; x < board.width(); x++)
+                if (board.isOccupied(x, y)) occ |= 1L << (y * board.width() + x);
+        return occ;
+    }
+
+    // just the cheap part of check(): an empty region no set of pieces can fill. false doesn't mean solvable
+    boolean hasDeadRegion(long occ) {
+        return Solver.hasDeadRegion(w, h, occ, unit, smallest);
+    }
+
+    // null when the position (or one of its symmetric images) hasn't been checked yet
+    Verdict cached(long occ) {
+        long key = canonical(occ);
+        synchronized (cache) {
+            return cache.get(key);
+        }
+    }
+
+    // may take a while, call it off the FX thread
+    Verdict check(long occ) {
+        long key = canonical(occ);
+        Verdict v;
+        synchronized (cache) {
+            v = cache.get(key);
+        }
+        if (v != null) return v;
+
+        if (hasDeadRegion(occ)) {
+            v = Verdict.DEAD;
+        } else {
+            boolean[] blocked = new boolean[w * h];
+            for (int i = 0; i < blocked.length; i++) blocked[i] = (occ >>> i & 1) != 0;
+            Solver solver = Solver.tiling(w, h, blocked, pieces);
+            long found = solver.solve((s, rows, n) -> false, nodeBudget);
+            v = found > 0 ? Verdict.SOLVABLE : solver.exhausted() ? Verdict.UNKNOWN : Verdict.DEAD;
+        }
+        synchronized (cache) {
+            cache.put(key, v);
+        }
+        return v;
+    }
+
+    // the cache key: the smallest image of occ under the board's symmetries
+    long canonical(long occ) {
+        long best = occ;
+        for (int[] g : symmetries) {
+            long img = 0;
+            for (long m = occ; m != 0; m &= m - 1) img |= 1L << g[Long.numberOfTrailingZeros(m)];
+            if (Long.compareUnsigned(img, best) < 0) best = img;
+        }
+        return best;
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
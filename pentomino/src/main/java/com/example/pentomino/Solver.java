@@ -0,0 +1,591 @@
+// File: src/main/java/com/example/pentomino/Solver.java
+package com.example.pentomino;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// headless exact-cover solver (Knuth's Algorithm X).
+// the matrix has one column per piece plus one per free cell and one row per way to put a piece
+// on the board. it is kept in flat primitive arrays: every column is a bitset of its rows, and every
+// search level keeps its live rows as a bitset plus a live-row count per column for the
+// smallest-column-first rule. covering a row is a handful of AND/ANDNOT over the row bitsets,
+// backtracking is just going back to the previous level, so nothing is allocated while searching
+final class Solver {
+
+    // called for every solution found, return false to stop the search.
+    // in a parallel solve it is called from the pool's threads, so it has to be thread safe
+    interface Listener {
+        boolean onSolution(Solver solver, int[] rows, int count);
+    }
+
+    record Placement(Orientation orientation, int x, int y) {}
+
+    private final int w, h;
+    private final boolean[] blocked;      // by board index y*w+x
+    private final List<Pentomino> pieces;
+    private final boolean distinct;       // one solution per class of board symmetries
+    private final boolean reuse;          // pieces can be used any number of times (no piece columns)
+    private final boolean turnsOnly;      // only the orientations the game's rotations reach, no mirror images
+
+    // rows
+    private final int rowCount;
+    private final int[] rowPiece;         // index into pieces
+    private final Orientation[] rowOrientation;
+    private final int[] rowAnchor;        // y*w+x
+    private final int[] rowStart;         // the columns of row r are rowCols[rowStart[r] .. rowStart[r+1])
+    private final int[] rowCols;
+    private final int[] rowPrimary;       // how many of them are primary
+
+    // columns: pieces first, then the free cells. the piece columns are secondary
+    // (at most once instead of exactly once) when not every piece has to go in
+    private final int columns;
+    private final int pieceColumns;
+    private final int firstPrimary;
+    private final int words;              // longs per row bitset
+    private final int columnWords;        // longs per column bitset
+    private final long[] columnRows;      // rows of every column, columns * words
+    private final int maxDepth;
+
+    // dead-region pruning, only when the board fits in a long
+    private final boolean prune;
+    private final long boardMask, notFirstColumn, notLastColumn, startOcc;
+    private final long[] rowMask;
+    private final int unit, smallest;     // region sizes must be multiples of unit and at least smallest
+
+    // symmetry breaking
+    private final int[][] symmetries;     // non-identity maps of board index -> board index
+    private final int breakPiece;         // piece restricted to one placement per orbit, -1 if none
+    private final int[][][] rowStabilizer;// symmetries fixing a kept breakPiece row
+
+    private long nodes, solutions;
+    private boolean exhausted;
+    private Search current; // the running single-threaded search, for progress() / searched()
+
+    Solver(int w, int h, boolean[] blocked, List<Pentomino> pieces, boolean distinct) {
+        this(w, h, blocked, pieces, distinct, false, false);
+    }
+
+    private Solver(int w, int h, boolean[] blocked, List<Pentomino> pieces, boolean distinct, boolean reuse, boolean turnsOnly) {
+        this.w = w;
+        this.h = h;
+        this.blocked = blocked.clone();
+        this.pieces = List.copyOf(pieces);
+        this.distinct = distinct;
+        this.reuse = reuse;
+        this.turnsOnly = turnsOnly;
+
+        int[] cellColumn = new int[w * h];
+        int free = 0;
+        for (int i = 0; i < cellColumn.length; i++) cellColumn[i] = blocked[i] ? -1 : free++;
+        int pieceCells = 0, g = 0, min = Integer.MAX_VALUE;
+        for (Pentomino p : this.pieces) {
+            pieceCells += p.size();
+            g = gcd(g, p.size());
+            min = Math.min(min, p.size());
+        }
+        // if there is more piece area than free cells some pieces stay in the box
+        boolean allPiecesUsed = !reuse && pieceCells == free;
+        this.symmetries = symmetriesOf(w, h, this.blocked);
+        this.breakPiece = distinct && allPiecesUsed ? mostSymmetricPiece(this.pieces) : -1;
+
+        // every placement of every piece that lands on free cells only
+        List<int[]> rows = new ArrayList<>();  // piece, orientation index in the piece, anchor
+        for (int pi = 0; pi < this.pieces.size(); pi++) {
+            for (Orientation o : this.pieces.get(pi).orientations()) {
+                if (turnsOnly && rotationOf(o) < 0) continue;
+                for (int ay = 0; ay + o.height <= h; ay++) {
+                    for (int ax = 0; ax + o.width <= w; ax++) {
+                        if (!freeUnder(o, ax, ay)) continue;
+                        if (pi == breakPiece && !orbitMinimal(cellsOf(o, ax, ay))) continue;
+                        rows.add(new int[]{pi, o.index, ay * w + ax});
+                    }
+                }
+            }
+        }
+
+        this.pieceColumns = reuse ? 0 : this.pieces.size();
+        this.columns = pieceColumns + free;
+        this.firstPrimary = allPiecesUsed ? 0 : pieceColumns;
+        this.rowCount = rows.size();
+        this.words = Math.max(1, (rowCount + 63) >>> 6);
+        this.columnWords = (columns + 63) >>> 6;
+        int most = free / Math.max(1, min);
+        this.maxDepth = (reuse ? most : Math.min(this.pieces.size(), most)) + 1;
+
+        this.rowPiece = new int[rowCount];
+        this.rowOrientation = new Orientation[rowCount];
+        this.rowAnchor = new int[rowCount];
+        this.rowStart = new int[rowCount + 1];
+        this.rowPrimary = new int[rowCount];
+        this.rowStabilizer = new int[rowCount][][];
+        this.columnRows = new long[columns * words];
+        this.prune = w * h <= Long.SIZE;
+        this.rowMask = new long[prune ? rowCount : 0];
+        int[] cols = new int[rowCount * (1 + maxCells(this.pieces))];
+        int n = 0;
+        for (int r = 0; r < rowCount; r++) {
+            int[] row = rows.get(r);
+            rowPiece[r] = row[0];
+            Orientation o = this.pieces.get(row[0]).orientations().get(row[1]);
+            rowOrientation[r] = o;
+            rowAnchor[r] = row[2];
+            int ax = row[2] % w, ay = row[2] / w;
+            if (row[0] == breakPiece) rowStabilizer[r] = stabilizer(cellsOf(o, ax, ay));
+            if (prune) rowMask[r] = o.maskAt(w, ax, ay);
+
+            rowStart[r] = n;
+            if (!reuse) cols[n++] = row[0];
+            for (int i = 0; i < o.xs.length; i++)
+                cols[n++] = pieceColumns + cellColumn[(ay + o.ys[i]) * w + ax + o.xs[i]];
+            for (int i = rowStart[r]; i < n; i++) {
+                columnRows[cols[i] * words + (r >>> 6)] |= 1L << r;
+                if (cols[i] >= firstPrimary) rowPrimary[r]++;
+            }
+        }
+        rowStart[rowCount] = n;
+        this.rowCols = Arrays.copyOf(cols, n);
+
+        long board = 0, first = 0, last = 0, occ = 0;
+        if (prune) {
+            board = w * h == Long.SIZE ? -1L : (1L << (w * h)) - 1;
+            for (int y = 0; y < h; y++) {
+                first |= 1L << (y * w);
+                last |= 1L << (y * w + w - 1);
+            }
+            for (int i = 0; i < w * h; i++) if (blocked[i]) occ |= 1L << i;
+        }
+        this.boardMask = board;
+        this.notFirstColumn = board & ~first;
+        this.notLastColumn = board & ~last;
+        this.startOcc = occ;
+        this.unit = Math.max(1, g);
+        this.smallest = this.pieces.isEmpty() ? 1 : min;
+    }
+
+    // solver for whatever is still empty on the board, using the library pieces not placed yet
+    static Solver forBoard(Board<?> board, boolean distinct) {
+        return forBoard(board, PentominoLibrary.all(), distinct);
+    }
+
+    // same with any piece set
+    static Solver forBoard(Board<?> board, List<Pentomino> pieces, boolean distinct) {
+        boolean[] blocked = new boolean[board.width() * board.height()];
+        for (int y = 0; y < board.height(); y++)
+            for (int x = 0; x < board.width(); x++)
+                blocked[y * board.width() + x] = board.isOccupied(x, y);
+        List<Pentomino> left = new ArrayList<>(pieces);
+        for (Pentomino p : board.placedPieces()) left.remove(p);
+        return new Solver(board.width(), board.height(), blocked, left, distinct);
+    }
+
+    // tiles the free cells with copies of the given pieces, each one as often as needed.
+    // this is the game's question: pieces spawn at random with replacement
+    static Solver tiling(int w, int h, boolean[] blocked, List<Pentomino> pieces) {
+        return new Solver(w, h, blocked, pieces, false, true, false);
+    }
+
+    // every piece once, turned only the ways the game turns them (no mirror images): the ways a player
+    // can still fill the free cells with these pieces. see Challenges
+    static Solver completion(int w, int h, boolean[] blocked, List<Pentomino> pieces) {
+        return new Solver(w, h, blocked, pieces, false, false, true);
+    }
+
+    // the game rotation (0..3) that gives the orientation, -1 for a mirror image
+    static int rotationOf(Orientation o) {
+        for (int r = 0; r < 4; r++) if (o.piece.orientation(r) == o) return r;
+        return -1;
+    }
+
+    long nodes()     { return nodes; }
+    boolean exhausted() { return exhausted; } // the last solve ran out of its node budget
+    long solutions() { return solutions; }
+    int rows()       { return rowCount; }
+    int width()      { return w; }
+    int height()     { return h; }
+    List<Pentomino> pieces() { return pieces; }
+
+    Placement placement(int row) {
+        return new Placement(rowOrientation[row], rowAnchor[row] % w, rowAnchor[row] / w);
+    }
+
+    List<Placement> placements(int[] rows, int count) {
+        List<Placement> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) out.add(placement(rows[i]));
+        return out;
+    }
+
+    // runs the whole search, returns the number of solutions reported
+    long solve(Listener listener) {
+        return solve(listener, Long.MAX_VALUE);
+    }
+
+    // gives up after maxNodes search nodes, exhausted() tells whether that happened
+    long solve(Listener listener, long maxNodes) {
+        return solve(listener, maxNodes, null);
+    }
+
+    // picks the search up right after the solution whose rows are resume (as the listener got them from
+    // an earlier search by an identical solver): the search goes down the same path without looking at
+    // the branches left of it, so what's left comes out as if the first search had never stopped.
+    // the rows of a level are always tried in ascending order, which is what makes this work
+    long solve(Listener listener, int[] resume) {
+        return solve(listener, Long.MAX_VALUE, resume);
+    }
+
+    private long solve(Listener listener, long maxNodes, int[] resume) {
+        Search s = new Search(listener, 0);
+        s.budget = maxNodes;
+        if (resume != null) {
+            s.resume = resume.clone();
+            s.following = resume.length;
+        }
+        current = s;
+        try {
+            if (!prune || !dead(startOcc)) s.search(0, columns - firstPrimary, startOcc);
+        } finally {
+            current = null;
+        }
+        nodes = s.nodes;
+        solutions = s.solutions;
+        exhausted = s.nodes > maxNodes;
+        return solutions;
+    }
+
+    // rough share of the search tree behind a running search, from how far along its choices each level
+    // is (levels is the count the listener got). only from the listener, on the solving thread
+    double progress(int levels) {
+        Search s = current;
+        if (s == null) return 0;
+        double done = 0, share = 1;
+        for (int d = 0; d < levels && s.choices[d] > 0; d++) {
+            share /= s.choices[d];
+            done += share * (s.tried[d] - 1);
+        }
+        return done;
+    }
+
+    // search nodes so far of a running search, same rules as progress()
+    long searched() {
+        Search s = current;
+        return s == null ? nodes : s.nodes;
+    }
+
+    // same search, but every choice in the first splitDepth levels becomes its own fork/join task.
+    // tasks get a private copy of their frame and count nodes and solutions on their own,
+    // the totals are only added up when the tasks are joined
+    long solveParallel(ForkJoinPool pool, int splitDepth, Listener listener) {
+        Search root = new Search(listener, splitDepth);
+        // a board that starts out with a dead region isn't searched, same as in solve()
+        long[] total = !prune || !dead(startOcc) ? pool.invoke(new SubTree(root, 0, columns - firstPrimary, startOcc)) : new long[2];
+        solutions = total[0];
+        nodes = total[1];
+        return solutions;
+    }
+
+    long countParallel(ForkJoinPool pool, int splitDepth) {
+        return solveParallel(pool, splitDepth, null);
+    }
+
+    @SuppressWarnings("serial") // fork/join tasks are never serialized
+    private final class SubTree extends RecursiveTask<long[]> {
+        private final Search search;
+        private final int depth, remaining;
+        private final long occ;
+
+        SubTree(Search search, int depth, int remaining, long occ) {
+            this.search = search;
+            this.depth = depth;
+            this.remaining = remaining;
+            this.occ = occ;
+        }
+
+        @Override protected long[] compute() {
+            search.search(depth, remaining, occ);
+            long[] total = {search.solutions, search.nodes};
+            if (!search.forks.isEmpty()) {
+                invokeAll(search.forks);
+                for (SubTree t : search.forks) {
+                    long[] sub = t.join();
+                    total[0] += sub[0];
+                    total[1] += sub[1];
+                }
+            }
+            return total;
+        }
+    }
+
+    long count() {
+        return solve(null);
+    }
+
+    boolean hasSolution() {
+        return solve((s, rows, n) -> false) > 0;
+    }
+
+    // the mutable side of a search: one frame of live rows / column counts / covered columns per level
+    private final class Search {
+        private final Listener listener;
+        private final long[] alive = new long[(maxDepth + 1) * words];
+        private final int[] count = new int[(maxDepth + 1) * columns];
+        private final long[] covered = new long[(maxDepth + 1) * columnWords];
+        private final int[] chosen = new int[maxDepth];
+        private final AtomicBoolean stopped;
+        private final int splitBelow;          // levels above this hand their children to new tasks
+        private final List<SubTree> forks = new ArrayList<>();
+        private long nodes, solutions;
+        private long budget = Long.MAX_VALUE;
+        private final int[] tried = new int[maxDepth], choices = new int[maxDepth]; // per level, for progress()
+        private int[] resume;  // see solve(listener, resume)
+        private int following; // the levels above this are still on the resume path
+
+        Search(Listener listener, int splitBelow) {
+            this.listener = listener;
+            this.splitBelow = splitBelow;
+            this.stopped = new AtomicBoolean();
+            for (int r = 0; r < rowCount; r++) alive[r >>> 6] |= 1L << r;
+            for (int i = 0; i < rowStart[rowCount]; i++) count[rowCols[i]]++;
+        }
+
+        // a fresh search continuing from level d of the parent
+        Search(Search parent, int d) {
+            this.listener = parent.listener;
+            this.splitBelow = parent.splitBelow;
+            this.stopped = parent.stopped;
+            System.arraycopy(parent.alive, d * words, alive, d * words, words);
+            System.arraycopy(parent.count, d * columns, count, d * columns, columns);
+            System.arraycopy(parent.covered, d * columnWords, covered, d * columnWords, columnWords);
+            System.arraycopy(parent.chosen, 0, chosen, 0, d);
+        }
+
+        // returns false once the listener asked to stop
+        private boolean search(int d, int remaining, long occ) {
+            if (++nodes > budget) stopped.set(true);
+            if (stopped.get()) return false;
+            if (remaining == 0) {
+                if (resume != null && d == resume.length && following == d) return true; // reported before
+                return accept(d);
+            }
+
+            // smallest primary column first
+            int cb = d * columns, kb = d * columnWords;
+            int best = -1, fewest = Integer.MAX_VALUE;
+            for (int c = firstPrimary; c < columns; c++) {
+                if ((covered[kb + (c >>> 6)] >>> c & 1) != 0) continue;
+                int n = count[cb + c];
+                if (n < fewest) {
+                    if (n == 0) return true;
+                    fewest = n;
+                    best = c;
+                }
+            }
+
+            int ab = d * words, nb = ab + words, ncb = cb + columns, nkb = kb + columnWords;
+            choices[d] = fewest;
+            tried[d] = 0;
+            for (int wd = 0; wd < words; wd++) {
+                long bits = alive[ab + wd] & columnRows[best * words + wd];
+                while (bits != 0) {
+                    int r = (wd << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    tried[d]++;
+                    if (d < following) {
+                        if (r < resume[d]) continue;
+                        if (r > resume[d]) following = d; // off the path, from here on everything is new
+                    }
+                    long next = 0;
+                    if (prune) {
+                        next = occ | rowMask[r];
+                        if (dead(next)) continue;
+                    }
+                    chosen[d] = r;
+                    cover(r, ab, nb, cb, ncb, kb, nkb);
+                    if (d < splitBelow) {
+                        forks.add(new SubTree(new Search(this, d + 1), d + 1, remaining - rowPrimary[r], next));
+                        continue;
+                    }
+                    if (!search(d + 1, remaining - rowPrimary[r], next)) return false;
+                }
+            }
+            return true;
+        }
+
+        // builds level d+1 from level d with row r taken
+        private void cover(int r, int ab, int nb, int cb, int ncb, int kb, int nkb) {
+            final int[] rowStart = Solver.this.rowStart, rowCols = Solver.this.rowCols, count = this.count;
+            final long[] columnRows = Solver.this.columnRows, alive = this.alive;
+            final int words = Solver.this.words;
+            int from = rowStart[r], to = rowStart[r + 1];
+            System.arraycopy(covered, kb, covered, nkb, columnWords);
+            for (int i = from; i < to; i++) covered[nkb + (rowCols[i] >>> 6)] |= 1L << rowCols[i];
+            System.arraycopy(count, cb, count, ncb, columns);
+            for (int x = 0; x < words; x++) {
+                long gone = 0;
+                for (int i = from; i < to; i++) gone |= columnRows[rowCols[i] * words + x];
+                long live = alive[ab + x];
+                gone &= live;
+                alive[nb + x] = live & ~gone;
+                while (gone != 0) {
+                    int q = (x << 6) + Long.numberOfTrailingZeros(gone);
+                    gone &= gone - 1;
+                    for (int i = rowStart[q], e = rowStart[q + 1]; i < e; i++) count[ncb + rowCols[i]]--;
+                }
+            }
+        }
+
+        private boolean accept(int k) {
+            if (distinct && !canonical(chosen, k)) return true;
+            solutions++;
+            if (listener == null || listener.onSolution(Solver.this, chosen, k)) return true;
+            stopped.set(true);
+            return false;
+        }
+    }
+
+    // an empty region that no set of pieces can fill ends the branch early
+    private boolean dead(long occ) {
+        return deadRegion(occ, boardMask, notFirstColumn, notLastColumn, w, unit, smallest);
+    }
+
+    // same check for callers without a solver, for boards of up to 64 cells
+    static boolean hasDeadRegion(int w, int h, long occ, int unit, int smallest) {
+        long board = w * h == Long.SIZE ? -1L : (1L << (w * h)) - 1, first = 0, last = 0;
+        for (int y = 0; y < h; y++) {
+            first |= 1L << (y * w);
+            last |= 1L << (y * w + w - 1);
+        }
+        return deadRegion(occ, board, board & ~first, board & ~last, w, unit, smallest);
+    }
+
+    private static boolean deadRegion(long occ, long boardMask, long notFirstColumn, long notLastColumn, int w, int unit, int smallest) {
+        long empty = boardMask & ~occ;
+        while (empty != 0) {
+            long region = empty & -empty, prev;
+            do {
+                prev = region;
+                region |= ((region << 1) & notFirstColumn) | ((region >>> 1) & notLastColumn) | (region << w) | (region >>> w);
+                region &= empty;
+            } while (region != prev);
+            int n = Long.bitCount(region);
+            if (n < smallest || n % unit != 0) return true;
+            empty &= ~region;
+        }
+        return false;
+    }
+
+    // --- symmetry ---
+
+    // with the break piece pinned to the smallest placement of its orbit, a solution can only
+    // show up more than once when that placement is itself symmetric; then keep the smallest image
+    private boolean canonical(int[] chosen, int k) {
+        int[][] check = symmetries;
+        if (breakPiece >= 0) {
+            check = null;
+            for (int i = 0; i < k; i++) if (rowPiece[chosen[i]] == breakPiece) check = rowStabilizer[chosen[i]];
+            if (check == null) return true;
+        }
+        if (check.length == 0) return true;
+        // check is closed under inverses, so comparing against owner[g[i]] covers every image
+        int[] owner = owners(chosen, k);
+        for (int[] g : check) {
+            int cmp = 0;
+            for (int i = 0; i < owner.length && cmp == 0; i++) cmp = Integer.compare(owner[i], owner[g[i]]);
+            if (cmp > 0) return false;
+        }
+        return true;
+    }
+
+    private int[] owners(int[] chosen, int k) {
+        int[] owner = new int[w * h];
+        Arrays.fill(owner, -1);
+        for (int i = 0; i < k; i++) {
+            int r = chosen[i];
+            Orientation o = rowOrientation[r];
+            int ax = rowAnchor[r] % w, ay = rowAnchor[r] / w;
+            for (int c = 0; c < o.xs.length; c++) owner[(ay + o.ys[c]) * w + ax + o.xs[c]] = rowPiece[r];
+        }
+        return owner;
+    }
+
+    private boolean freeUnder(Orientation o, int ax, int ay) {
+        for (int i = 0; i < o.xs.length; i++) if (blocked[(ay + o.ys[i]) * w + ax + o.xs[i]]) return false;
+        return true;
+    }
+
+    private int[] cellsOf(Orientation o, int ax, int ay) {
+        int[] cells = new int[o.xs.length];
+        for (int i = 0; i < cells.length; i++) cells[i] = (ay + o.ys[i]) * w + ax + o.xs[i];
+        Arrays.sort(cells);
+        return cells;
+    }
+
+    private static int[] image(int[] g, int[] cells) {
+        int[] out = new int[cells.length];
+        for (int i = 0; i < cells.length; i++) out[i] = g[cells[i]];
+        Arrays.sort(out);
+        return out;
+    }
+
+    private boolean orbitMinimal(int[] cells) {
+        for (int[] g : symmetries) if (Arrays.compare(image(g, cells), cells) < 0) return false;
+        return true;
+    }
+
+    private int[][] stabilizer(int[] cells) {
+        List<int[]> fix = new ArrayList<>();
+        for (int[] g : symmetries) if (Arrays.equals(image(g, cells), cells)) fix.add(g);
+        return fix.toArray(new int[0][]);
+    }
+
+    // the piece with the fewest orientations has the smallest orbits (X for pentominoes)
+    private static int mostSymmetricPiece(List<Pentomino> pieces) {
+        int best = -1;
+        for (int i = 0; i < pieces.size(); i++) {
+            if (pieces.indexOf(pieces.get(i)) != i) return -1; // duplicates, can't pin one of them
+            if (best < 0 || pieces.get(i).orientations().size() < pieces.get(best).orientations().size()) best = i;
+        }
+        return best;
+    }
+
+    private static int maxCells(List<Pentomino> pieces) {
+        int m = 0;
+        for (Pentomino p : pieces) m = Math.max(m, p.size());
+        return m;
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    // the rectangle's mirrors and rotations that map the free cells onto themselves
+    static int[][] symmetriesOf(int w, int h, boolean[] blocked) {
+        List<int[]> out = new ArrayList<>();
+        int transforms = w == h ? 8 : 4;
+        for (int t = 1; t < transforms; t++) {
+            int[] g = new int[w * h];
+            boolean ok = true;
+            for (int y = 0; y < h && ok; y++) {
+                for (int x = 0; x < w; x++) {
+                    int nx, ny;
+                    switch (t) {
+                        case 1 -> { nx = w - 1 - x; ny = y; }
+                        case 2 -> { nx = x; ny = h - 1 - y; }
+                        case 3 -> { nx = w - 1 - x; ny = h - 1 - y; }
+                        case 4 -> { nx = y; ny = x; }
+                        case 5 -> { nx = h - 1 - y; ny = x; }
+                        case 6 -> { nx = y; ny = w - 1 - x; }
+                        default -> { nx = h - 1 - y; ny = w - 1 - x; }
+                    }
+                    int from = y * w + x, to = ny * w + nx;
+                    if (blocked[from] != blocked[to]) { ok = false; break; }
+                    g[from] = to;
+                }
+            }
+            if (ok) out.add(g);
+        }
+        return out.toArray(new int[0][]);
+    }
+}
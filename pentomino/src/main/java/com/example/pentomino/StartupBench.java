@@ -0,0 +1,100 @@
+// File: src/main/java/com/example/pentomino/StartupBench.java
+package com.example.pentomino;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.util.Duration;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// cold start benchmark, what a kiosk sees between launching the game and the first frame. run it with
+//   java -cp target/classes:<javafx jars> com.example.pentomino.StartupBench [--runs N] [--launcher FILE] [JVM options]
+// every run is a fresh JVM with -Dpentomino.startupProbe=true: the same java with the same class or module
+// path as this one, or with --launcher a start script like the kiosk image's bin/kiosk (the options go in
+// through JAVA_OPTS then). the probe in Launcher prints a "first-frame" line once the window has laid out its
+// first frame; a run is the wall time from starting the process to reading that line. the rest of the JVM
+// options are passed on, e.g. -Xshare:off to see what the class data archive is worth
+public class StartupBench {
+    static final String FIRST_FRAME = "first-frame";
+    private static final double TARGET_MS = 300;
+
+    public static void main(String[] args) throws Exception {
+        int runs = 10;
+        String launcher = null;
+        List<String> jvm = new ArrayList<>(List.of("-Dpentomino.startupProbe=true", "-Dpentomino.log=off"));
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--runs" -> runs = Integer.parseInt(args[++i]);
+                case "--launcher" -> launcher = args[++i];
+                default -> {
+                    if (!args[i].startsWith("-")) throw new IllegalArgumentException("unknown option " + args[i]);
+                    jvm.add(args[i]);
+                }
+            }
+        }
+        List<String> command = new ArrayList<>();
+        if (launcher != null) {
+            command.add(launcher);
+        } else {
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(jvm);
+            String modules = System.getProperty("jdk.module.path");
+            if (modules != null) {
+                command.addAll(List.of("--module-path", modules, "-m", "com.example.pentomino/com.example.pentomino.Launcher"));
+            } else {
+                command.addAll(List.of("-cp", System.getProperty("java.class.path"), "com.example.pentomino.Launcher"));
+            }
+        }
+
+        run(command, jvm, launcher != null); // the first one pulls everything into the page cache, it doesn't count
+        double[] ms = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            ms[i] = run(command, jvm, launcher != null);
+            System.out.printf("run %d: %.0f ms%n", i + 1, ms[i]);
+        }
+        Arrays.sort(ms);
+        double median = ms[runs / 2], p90 = ms[Math.min(runs - 1, (int) Math.ceil(0.9 * runs) - 1)];
+        System.out.printf("start to first frame over %d runs: min %.0f  median %.0f  p90 %.0f ms (target %.0f ms, %s)%n",
+                runs, ms[0], median, p90, TARGET_MS, median <= TARGET_MS ? "met" : "missed");
+    }
+
+    // ms from starting the process to its first-frame line. the process is stopped right after
+    private static double run(List<String> command, List<String> jvm, boolean throughLauncher) throws IOException, InterruptedException {
+        ProcessBuilder pb = new ProcessBuilder(command).redirectErrorStream(true);
+        if (throughLauncher) pb.environment().put("JAVA_OPTS", String.join(" ", jvm));
+        long t0 = System.nanoTime();
+        Process p = pb.start();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(p.getInputStream()))) {
+            for (String line; (line = in.readLine()) != null; ) {
+                if (line.startsWith(FIRST_FRAME)) return (System.nanoTime() - t0) / 1e6;
+            }
+            throw new IOException("the game exited (" + p.waitFor() + ") without showing a frame");
+        } finally {
+            p.destroy();
+            p.waitFor();
+        }
+    }
+
+    // --- the probe's side, on the FX thread of the game ---
+
+    // how long the game took to its first frame, from the start of the JVM and from main
+    static void firstFrame(long mainMillis) {
+        long now = System.currentTimeMillis(), jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.println(FIRST_FRAME + " " + (now - jvmStart) + " ms after jvm start, " + (now - mainMillis) + " ms after main");
+    }
+
+    // gives a started game a moment (spawns, clock, the oracle) so a training run sees those classes too,
+    // then quits the way closing the window does
+    static void quitLater() {
+        PauseTransition pause = new PauseTransition(Duration.seconds(2));
+        pause.setOnFinished(e -> Platform.exit());
+        pause.play();
+    }
+}
@@ -0,0 +1,150 @@
+// File: src/main/java/com/example/pentomino/TimingWheel.java
+package com.example.pentomino;
+
+// hashed timing wheel: time is cut into ticks and tick k goes into slot k % slots, so scheduling and
+// cancelling are O(1) list links whatever the delay. timers are intrusive (the links live in the Timer
+// itself) and the owner keeps reusing the same Timer objects, so nothing is allocated per deadline.
+// a timer never fires early and at most one tick late. timers due on the same tick fire in the order
+// they were scheduled. single-threaded: schedule, cancel and advanceTo all come from the owner's thread
+final class TimingWheel {
+
+    static final class Timer {
+        private final Runnable action;
+        private Timer prev, next;
+        private long deadline; // tick
+        private int slot;
+        private boolean scheduled;
+
+        Timer(Runnable action) {
+            this.action = action;
+        }
+
+        boolean isScheduled() { return scheduled; }
+    }
+
+    private final long tickNanos;
+    private final int mask;
+    private final Timer[] heads, tails;
+    // bit per non-empty slot plus a bit per non-zero word of that, so advanceTo / nextDeadline find the
+    // next timer in a couple of instructions instead of stepping over empty ticks
+    private final long[] occupied;
+    private long summary;
+    private long current;          // last tick processed
+
+    TimingWheel(long tickNanos, int slots, long nowNanos) {
+        if (Integer.bitCount(slots) != 1 || slots < Long.SIZE || slots > Long.SIZE * Long.SIZE)
+            throw new IllegalArgumentException("slots must be a power of two in 64..4096, got " + slots);
+        this.tickNanos = tickNanos;
+        this.mask = slots - 1;
+        this.heads = new Timer[slots];
+        this.tails = new Timer[slots];
+        this.occupied = new long[slots / Long.SIZE];
+        this.current = Math.floorDiv(nowNanos, tickNanos);
+    }
+
+    // drops every timer and restarts the wheel at now
+    void reset(long nowNanos) {
+        for (int w = 0; w < occupied.length; w++) {
+            for (long bits = occupied[w]; bits != 0; bits &= bits - 1) {
+                int s = (w << 6) + Long.numberOfTrailingZeros(bits);
+                for (Timer t = heads[s]; t != null; ) {
+                    Timer n = t.next;
+                    t.prev = t.next = null;
+                    t.scheduled = false;
+                    t = n;
+                }
+                heads[s] = tails[s] = null;
+            }
+            occupied[w] = 0;
+        }
+        summary = 0;
+        current = Math.floorDiv(nowNanos, tickNanos);
+    }
+
+    // (re)schedules t at the given time, a time that has passed fires on the next advance
+    void schedule(Timer t, long atNanos) {
+        cancel(t);
+        long tick = Math.max(Math.ceilDiv(atNanos, tickNanos), current + 1);
+        int s = (int) (tick & mask);
+        t.deadline = tick;
+        t.slot = s;
+        t.scheduled = true;
+        t.prev = tails[s];
+        t.next = null;
+        if (tails[s] == null) {
+            heads[s] = t;
+            occupied[s >>> 6] |= 1L << s;
+            summary |= 1L << (s >>> 6);
+        } else {
+            tails[s].next = t;
+        }
+        tails[s] = t;
+    }
+
+    void cancel(Timer t) {
+        if (!t.scheduled) return;
+        int s = t.slot;
+        if (t.prev == null) heads[s] = t.next; else t.prev.next = t.next;
+        if (t.next == null) tails[s] = t.prev; else t.next.prev = t.prev;
+        if (heads[s] == null && (occupied[s >>> 6] &= ~(1L << s)) == 0) summary &= ~(1L << (s >>> 6));
+        t.prev = t.next = null;
+        t.scheduled = false;
+    }
+
+    // fires everything due by now, tick by tick. actions may schedule and cancel timers, the wheel included
+    void advanceTo(long nowNanos) {
+        long target = Math.floorDiv(nowNanos, tickNanos);
+        while (current < target) {
+            long gap = nextOccupied((int) ((current + 1) & mask));
+            if (gap < 0 || current + 1 + gap > target) {
+                current = target;
+                return;
+            }
+            current += 1 + gap;
+            fireDue((int) (current & mask), current);
+        }
+    }
+
+    // when the earliest timer is due, Long.MAX_VALUE if nothing is scheduled
+    long nextDeadline() {
+        long best = Long.MAX_VALUE;
+        int start = (int) ((current + 1) & mask);
+        long searched = 0;
+        // walk the occupied slots in wheel order, the first one holding a timer from this revolution wins
+        while (searched <= mask) {
+            long gap = nextOccupied((int) ((start + searched) & mask));
+            if (gap < 0 || searched + gap > mask) break;
+            long tick = current + 1 + searched + gap;
+            int s = (int) (tick & mask);
+            for (Timer t = heads[s]; t != null; t = t.next) {
+                if (t.deadline == tick) return tick * tickNanos;
+                best = Math.min(best, t.deadline);
+            }
+            searched += gap + 1;
+        }
+        // only timers more than a revolution away, best already saw every one of them
+        return best == Long.MAX_VALUE ? best : best * tickNanos;
+    }
+
+    private void fireDue(int s, long tick) {
+        while (true) {
+            Timer due = heads[s];
+            while (due != null && due.deadline > tick) due = due.next;
+            if (due == null) return;
+            cancel(due);
+            due.action.run();
+        }
+    }
+
+    // distance from slot `from` to the next non-empty slot going round the wheel, -1 if all are empty
+    private long nextOccupied(int from) {
+        int w = from >>> 6;
+        long bits = occupied[w] & (-1L << from);
+        if (bits != 0) return Long.numberOfTrailingZeros(bits) - (from & 63);
+        long later = w + 1 < Long.SIZE ? summary & (-1L << (w + 1)) : 0;
+        long words = later != 0 ? later : summary; // nothing further on, wrap around to the start
+        if (words == 0) return -1;
+        int next = Long.numberOfTrailingZeros(words);
+        return ((next << 6) + Long.numberOfTrailingZeros(occupied[next]) - from) & mask;
+    }
+}
@@ -0,0 +1,20 @@
+// File: src/main/java/com/example/pentomino/VirtualClock.java
+package com.example.pentomino;
+
+import java.util.function.LongSupplier;
+
+// a clock that only moves when it's told to, for running GameEngine without waiting in real time
+final class VirtualClock implements LongSupplier {
+    private long now;
+
+    @Override public long getAsLong() { return now; }
+
+    void set(long nanos) {
+        if (nanos < now) throw new IllegalArgumentException("clock can't go back from " + now + " to " + nanos);
+        now = nanos;
+    }
+
+    void advance(long nanos) {
+        set(now + nanos);
+    }
+}
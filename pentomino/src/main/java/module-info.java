@@ -1,6 +1,8 @@
 module com.example.pentomino {
     requires javafx.controls;
     requires javafx.fxml;
+    requires jdk.jfr;
+    requires jdk.management;
 
 
     opens com.example.pentomino to javafx.fxml;
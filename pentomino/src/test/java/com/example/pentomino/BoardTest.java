@@ -0,0 +1,189 @@
+// File: src/test/java/com/example/pentomino/BoardTest.java
+package com.example.pentomino;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the three bitboards are different representations of the same thing, so the same random moves have to
+// give the same answers on all of them
+class BoardTest {
+    private static final List<Pentomino> PIECES = PentominoLibrary.all();
+
+    @Test
+    void createPicksTheRepresentationBySize() {
+        assertInstanceOf(Board.Single.class, Board.create(10, 6));
+        assertInstanceOf(Board.Single.class, Board.create(8, 8));   // 64 cells, the last that fit a long
+        assertInstanceOf(Board.Multi.class, Board.create(13, 5));   // 65
+        assertInstanceOf(Board.Multi.class, Board.create(32, 32));  // Board.LARGE
+        assertInstanceOf(Board.Chunked.class, Board.create(41, 25)); // 1025
+        assertInstanceOf(Board.Chunked.class, Board.create(100, 100));
+    }
+
+    @Test
+    void variantsAgreeOnSmallBoards() {
+        // 10x6 goes through the orientation's anchor table, 8x8 and 7x9 through maskAt
+        for (int[] wh : new int[][]{{10, 6}, {8, 8}, {7, 9}, {12, 5}})
+            sameMoves(wh[0], wh[1], List.of(new Board.Single<>(wh[0], wh[1]), new Board.Multi<>(wh[0], wh[1]),
+                    new Board.Chunked<>(wh[0], wh[1])), 1);
+    }
+
+    @Test
+    void variantsAgreeAroundTheSizeBoundaries() {
+        // 65 cells, exactly LARGE, one past it and chunks that don't fill the edge
+        for (int[] wh : new int[][]{{13, 5}, {32, 32}, {41, 25}, {19, 11}})
+            sameMoves(wh[0], wh[1], List.of(Board.create(wh[0], wh[1]), new Board.Multi<>(wh[0], wh[1]),
+                    new Board.Chunked<>(wh[0], wh[1])), 2);
+    }
+
+    // random place / remove / fits with a few hundred keys, checked against each other and against a plain
+    // map of which key covers which cell
+    private static void sameMoves(int w, int h, List<Board<Integer>> boards, long seed) {
+        Random rnd = new Random(seed);
+        Map<Integer, int[]> cellsOf = new HashMap<>();
+        Map<Integer, Pentomino> pieceOf = new HashMap<>();
+        int keys = Math.max(4, w * h / 4);
+        for (int step = 0; step < 40_000; step++) {
+            Pentomino p = PIECES.get(rnd.nextInt(PIECES.size()));
+            int r = rnd.nextInt(8), x = rnd.nextInt(w + 2) - 1, y = rnd.nextInt(h + 2) - 1; // some fall off
+            Integer key = rnd.nextInt(keys);
+            switch (rnd.nextInt(3)) {
+                case 0 -> {
+                    boolean fits = boards.get(0).fits(p, r, x, y);
+                    for (Board<Integer> b : boards) assertEquals(fits, b.fits(p, r, x, y), () -> b.getClass() + " fits");
+                }
+                case 1 -> {
+                    for (Board<Integer> b : boards) b.remove(key);
+                    cellsOf.remove(key);
+                    pieceOf.remove(key);
+                    if (!boards.get(0).fits(p, r, x, y)) break;
+                    // a fresh box every time, the boards go by equals and not identity
+                    for (Board<Integer> b : boards) b.place(p, r, x, y, Integer.valueOf(key + 0));
+                    Orientation o = p.orientation(r);
+                    int[] cells = new int[o.size()];
+                    for (int i = 0; i < cells.length; i++) cells[i] = (y + o.ys[i]) * w + x + o.xs[i];
+                    cellsOf.put(key, cells);
+                    pieceOf.put(key, p);
+                }
+                default -> {
+                    for (Board<Integer> b : boards) b.remove(key);
+                    cellsOf.remove(key);
+                    pieceOf.remove(key);
+                }
+            }
+            if (step % 500 == 0) sameState(w, h, boards, cellsOf, pieceOf);
+            if (step == 20_000) {
+                for (Board<Integer> b : boards) b.clear();
+                cellsOf.clear();
+                pieceOf.clear();
+                sameState(w, h, boards, cellsOf, pieceOf);
+            }
+        }
+        sameState(w, h, boards, cellsOf, pieceOf);
+    }
+
+    private static void sameState(int w, int h, List<Board<Integer>> boards, Map<Integer, int[]> cellsOf, Map<Integer, Pentomino> pieceOf) {
+        Integer[] owner = new Integer[w * h];
+        cellsOf.forEach((k, cells) -> { for (int c : cells) owner[c] = k; });
+        List<Pentomino> expected = sorted(new ArrayList<>(pieceOf.values()));
+        for (Board<Integer> b : boards) {
+            for (int c = 0; c < w * h; c++) {
+                assertEquals(owner[c], b.keyAt(c % w, c / w), b.getClass().getSimpleName() + " key at " + c);
+                assertEquals(owner[c] != null, b.isOccupied(c % w, c / w), b.getClass().getSimpleName() + " cell " + c);
+            }
+            assertEquals(expected, sorted(b.placedPieces()));
+            assertEquals(pieceOf.size() * 5 == w * h, b.isComplete());
+        }
+    }
+
+    private static List<Pentomino> sorted(List<Pentomino> pieces) {
+        List<Pentomino> out = new ArrayList<>(pieces);
+        out.sort(Comparator.comparingInt(Pentomino::id));
+        return out;
+    }
+
+    @Test
+    void singleHandsOutTheMasksOfItsPieces() {
+        Board.Single<String> b = new Board.Single<>(10, 6);
+        b.place(PIECES.get(0), 0, 0, 0, "a");
+        b.place(PIECES.get(1), 1, 3, 1, "b");
+        Pentomino[] pieces = new Pentomino[2];
+        long[] masks = new long[2];
+        assertEquals(2, b.placements(pieces, masks));
+        assertEquals(b.occupancy(), masks[0] | masks[1]);
+        assertEquals(0, masks[0] & masks[1]);
+    }
+
+    @Test
+    void fillingTheBoardCompletesIt() {
+        Board<Integer> b = Board.create(5, 1);
+        Pentomino i = PIECES.stream().filter(p -> p.orientation(0).width == 5 || p.orientation(0).height == 5).findFirst().orElseThrow();
+        int r = i.orientation(0).width == 5 ? 0 : 1;
+        assertTrue(b.fits(i, r, 0, 0));
+        b.place(i, r, 0, 0, 7);
+        assertTrue(b.isComplete());
+        b.remove(7);
+        assertFalse(b.isOccupied(2, 0));
+    }
+
+    // keys with one hash code all land in one probe run; taking them out from the middle, the start and the
+    // end has to leave every other key findable
+    @Test
+    void slotsKeepProbeRunsWhole() {
+        record Key(int id, int hash) {
+            @Override public int hashCode() { return hash; }
+            @Override public boolean equals(Object o) { return o instanceof Key k && k.id == id; }
+        }
+        Board.Slots<Key> slots = new Board.Slots<>();
+        Orientation o = PIECES.get(0).orientation(0);
+        List<Key> in = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Key k = new Key(i, i % 3 == 0 ? 42 : i < 6 ? 42 + i : 7); // two crowded hashes and a few around them
+            slots.add(k, PIECES.get(0), o, i, 0);
+            in.add(k);
+        }
+        for (int victim : new int[]{6, 0, 11, 3, 7}) {
+            Key k = in.get(victim);
+            int s = slots.find(k);
+            assertTrue(s >= 0);
+            slots.release(s);
+            in.set(victim, null);
+            assertEquals(-1, slots.find(k));
+            for (Key left : in)
+                if (left != null) assertEquals(left.id(), slots.x(slots.find(left)), "lost " + left + " after removing " + k);
+        }
+        assertEquals(7, slots.size());
+    }
+
+    // grows past the first arrays and index, releases and reuses slots, against a map
+    @Test
+    void slotsMatchAMapUnderChurn() {
+        Board.Slots<Integer> slots = new Board.Slots<>();
+        Map<Integer, Integer> ref = new HashMap<>();
+        Random rnd = new Random(3);
+        Orientation o = PIECES.get(0).orientation(0);
+        for (int step = 0; step < 100_000; step++) {
+            int key = rnd.nextInt(200);
+            int s = slots.find(key);
+            assertEquals(ref.containsKey(key), s >= 0);
+            if (s >= 0) {
+                assertEquals(ref.remove(key), slots.x(s));
+                slots.release(s);
+            } else {
+                slots.add(key, PIECES.get(0), o, step, 0);
+                ref.put(key, step);
+            }
+            assertEquals(ref.size(), slots.size());
+        }
+        slots.clear();
+        assertEquals(0, slots.size());
+        assertEquals(-1, slots.find(ref.keySet().iterator().next()));
+    }
+}
@@ -0,0 +1,96 @@
+// File: src/test/java/com/example/pentomino/ChallengesTest.java
+package com.example.pentomino;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the challenge spawner on a board with 7 of the 12 pieces preset
+class ChallengesTest {
+    private static final List<Pentomino> PIECES = PentominoLibrary.all();
+
+    // pieces 0..6 packed in from the top left, they don't have to leave a solvable board
+    private static List<GameEngine.Preset> sevenPresets() {
+        Board<Integer> board = Board.create(10, 6);
+        List<GameEngine.Preset> presets = new ArrayList<>();
+        for (int id = 0; id < 7; id++) {
+            Pentomino p = PIECES.get(id);
+            search:
+            for (int y = 0; y < 6; y++)
+                for (int x = 0; x < 10; x++)
+                    if (board.fits(p, 0, x, y)) {
+                        board.place(p, 0, x, y, id);
+                        presets.add(new GameEngine.Preset(p, 0, x, y));
+                        break search;
+                    }
+        }
+        assertEquals(7, presets.size());
+        return presets;
+    }
+
+    // the 5 missing pieces come up equally often: a roll of 0..11 mod 5 would give two of them 3/12
+    @Test
+    void missingPiecesSpawnUniformly() {
+        List<GameEngine.Preset> presets = sevenPresets();
+        GameEngine engine = new GameEngine(10, 6, PIECES, new VirtualClock());
+        engine.setSpawner(Challenges.spawner(engine));
+        int[] count = new int[PIECES.size()];
+        int games = 6000;
+        for (int seed = 0; seed < games; seed++) {
+            engine.start(seed, presets);
+            count[engine.poolPiece().shape.id()]++;
+        }
+        for (int id = 0; id < 7; id++) assertEquals(0, count[id], "preset piece " + id + " spawned");
+        for (int id = 7; id < 12; id++)
+            assertTrue(Math.abs(count[id] - games / 5) < 100, "piece " + id + " spawned " + count[id] + " times");
+    }
+
+    // same seed, same pieces, also on another engine; and the engine's rng is left alone, so the hues
+    // are the ones a game without the spawner gets
+    @Test
+    void sameSeedSamePieces() {
+        List<GameEngine.Preset> presets = sevenPresets();
+        GameEngine a = new GameEngine(10, 6, PIECES, new VirtualClock());
+        GameEngine b = new GameEngine(10, 6, PIECES, new VirtualClock());
+        GameEngine plain = new GameEngine(10, 6, PIECES, new VirtualClock());
+        a.setSpawner(Challenges.spawner(a));
+        b.setSpawner(Challenges.spawner(b));
+        for (long seed = 100; seed < 200; seed++) {
+            a.start(seed, presets);
+            b.start(seed, presets);
+            plain.start(seed, presets);
+            assertSame(a.poolPiece().shape, b.poolPiece().shape);
+            assertEquals(plain.poolPiece().hue, a.poolPiece().hue);
+        }
+    }
+
+    // the completion of a generated challenge is unique, and the seed decides which one it is
+    @Test
+    void generatedChallengesHaveOneCompletion() {
+        Challenges.Challenge c = Challenges.generate(BoardShape.RECT_6X10, 6, 21);
+        assertEquals(6, c.presets().size());
+        assertEquals(c, Challenges.generate(BoardShape.RECT_6X10, 6, 21));
+        boolean[] blocked = new boolean[60];
+        List<Pentomino> left = new ArrayList<>(PIECES);
+        for (GameEngine.Preset p : c.presets()) {
+            Orientation o = p.shape().orientation(p.rotation());
+            for (int i = 0; i < o.size(); i++) blocked[(p.y() + o.ys[i]) * 10 + p.x() + o.xs[i]] = true;
+            left.remove(p.shape());
+        }
+        assertEquals(1, Solver.completion(10, 6, blocked, left).count());
+    }
+
+    // an empty board never has just one way to finish it and is refused up front; with one piece a
+    // unique completion is so rare the generator runs out of tilings to try instead of searching forever
+    @Test
+    void hopelessPrefillsFailInsteadOfHanging() {
+        assertThrows(IllegalArgumentException.class, () -> Challenges.generate(BoardShape.RECT_6X10, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> Challenges.generate(BoardShape.RECT_6X10, 12, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> Challenges.main(new String[]{"--count", "5", "--prefill", "0", "--out", "unused.pack"}));
+        assertThrows(IllegalStateException.class, () -> Challenges.generate(BoardShape.RECT_6X10, 1, 1, 2));
+    }
+}
@@ -0,0 +1,58 @@
+// File: src/test/java/com/example/pentomino/ExportTest.java
+package com.example.pentomino;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the 2339 distinct 6x10 tilings exported in runs cut short by --limit, then to the end
+class ExportTest {
+    @TempDir
+    Path dir;
+
+    // a run stopped by --limit closes its last chunk short and the next run starts a new one; the
+    // headers' indexes still add up to every solution once
+    @Test
+    void limitedRunsLeaveShortChunks() throws Exception {
+        String[] args = {"--out", dir.toString(), "--chunk", "500", "--limit", "700"};
+        Export.main(args);
+        Export.main(args);
+        assertArrayEquals(new long[]{0, 500, 500, 200, 700, 500, 1200, 200}, chunks(4));
+        Export.main(new String[]{"--out", dir.toString(), "--chunk", "500"});
+        long[] all = chunks(6);
+        assertArrayEquals(new long[]{1400, 500, 1900, 439}, new long[]{all[8], all[9], all[10], all[11]});
+        assertFalse(Files.exists(dir.resolve("chunk-000006.psol.gz")));
+        long next = 0;
+        for (int i = 0; i < all.length; i += 2) {
+            assertEquals(next, all[i], "chunk " + i / 2);
+            next += all[i + 1];
+        }
+        assertEquals(2339, next);
+    }
+
+    // first index and solution count of chunks 0..n-1, in pairs
+    private long[] chunks(int n) throws IOException {
+        long[] out = new long[2 * n];
+        for (int i = 0; i < n; i++) {
+            Path file = dir.resolve(String.format("chunk-%06d.psol.gz", i));
+            try (DataInputStream in = new DataInputStream(new GZIPInputStream(Files.newInputStream(file)))) {
+                assertEquals(0x50534f4c, in.readInt());
+                assertEquals(1, in.readInt());
+                assertEquals(10, in.readByte());
+                assertEquals(6, in.readByte());
+                int placements = in.readByte();
+                in.readByte();
+                out[2 * i] = in.readLong();
+                out[2 * i + 1] = in.readAllBytes().length / (placements * 3);
+            }
+        }
+        return out;
+    }
+}
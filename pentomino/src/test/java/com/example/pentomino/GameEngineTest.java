@@ -0,0 +1,275 @@
+// File: src/test/java/com/example/pentomino/GameEngineTest.java
+package com.example.pentomino;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.pentomino.GameEngine.SECOND;
+import static org.junit.jupiter.api.Assertions.*;
+
+// the rules on a virtual clock, no Stage anywhere: the clock only moves when the test moves it
+class GameEngineTest {
+    private static final List<Pentomino> PIECES = PentominoLibrary.all();
+    private static final Pentomino I = byName("I"), X = byName("X");
+
+    private final VirtualClock clock = new VirtualClock();
+    private final List<String> events = new ArrayList<>();
+    private GameEngine engine;
+
+    private static Pentomino byName(String name) {
+        return PIECES.stream().filter(p -> p.name().equals(name)).findFirst().orElseThrow();
+    }
+
+    @BeforeEach
+    void setUp() {
+        clock.set(5 * SECOND); // the epoch isn't 0, times are relative to the start
+        engine = engine(10, 6);
+    }
+
+    private GameEngine engine(int cols, int rows) {
+        GameEngine e = new GameEngine(cols, rows, PIECES, clock);
+        e.addListener(new GameEngine.Listener() {
+            @Override public void spawned(GameEngine.Piece p)  { events.add("spawned " + p.serial); }
+            @Override public void placed(GameEngine.Piece p)   { events.add("placed " + p.serial); }
+            @Override public void removed(GameEngine.Piece p)  { events.add("removed " + p.serial); }
+            @Override public void rotated(GameEngine.Piece p)  { events.add("rotated " + p.serial + " " + p.rotation()); }
+            @Override public void fading(GameEngine.Piece p)   { events.add("fading " + p.serial); }
+            @Override public void vanished(GameEngine.Piece p) { events.add("vanished " + p.serial); }
+            @Override public void ended(boolean win, String reason) { events.add("ended " + win); }
+        });
+        return e;
+    }
+
+    // runs the clock from event to event up to the given time, like SelfPlay does
+    private void runUntil(long at) {
+        runUntil(engine, clock, at);
+    }
+
+    private static void runUntil(GameEngine engine, VirtualClock clock, long at) {
+        for (long next = engine.nextEventAt(); next <= at; next = engine.nextEventAt()) {
+            clock.set(next);
+            engine.update();
+        }
+        clock.set(Math.max(clock.getAsLong(), at));
+        engine.update();
+    }
+
+    // the pool piece turned to lie flat, 5x1
+    private void flat(GameEngine.Piece p) {
+        if (p.orientation().width != 5) engine.rotate(p, +1);
+        assertEquals(5, p.orientation().width);
+    }
+
+    @Test
+    void startSpawnsOnePoolPiece() {
+        engine.start(1);
+        GameEngine.Piece p = engine.poolPiece();
+        assertNotNull(p);
+        assertEquals(GameEngine.State.POOL, p.state());
+        assertEquals(1, engine.spawned());
+        assertEquals(240, engine.remaining());
+        assertEquals(List.of("spawned 0"), events);
+    }
+
+    // the same seed and calls at the same times give the same game, on a clock of its own
+    @Test
+    void sameSeedSameGame() {
+        VirtualClock otherClock = new VirtualClock();
+        otherClock.set(clock.getAsLong());
+        GameEngine other = new GameEngine(10, 6, PIECES, otherClock);
+        engine.start(42);
+        other.start(42);
+        for (int i = 0; i < 20; i++) {
+            assertSame(engine.poolPiece().shape, other.poolPiece().shape);
+            assertEquals(engine.poolPiece().hue, other.poolPiece().hue);
+            long at = clock.getAsLong() + 11 * SECOND; // past any untouched vanish
+            runUntil(at);
+            runUntil(other, otherClock, at);
+        }
+        assertEquals(engine.vanished(), other.vanished());
+        assertEquals(engine.remaining(), other.remaining());
+    }
+
+    @Test
+    void placeLocksThePieceAndSpawnsTheNext() {
+        engine.setSpawner(roll -> X);
+        engine.start(1);
+        GameEngine.Piece p = engine.poolPiece();
+        assertFalse(engine.place(p, 9, 0), "hangs off the board");
+        assertTrue(engine.place(p, 0, 0));
+        assertEquals(GameEngine.State.LOCKED, p.state());
+        assertEquals(1, engine.placed());
+        assertSame(p, engine.board().keyAt(1, 1)); // the middle of the X
+        assertEquals(0, p.anchorX());
+
+        GameEngine.Piece next = engine.poolPiece();
+        assertNotSame(p, next);
+        assertFalse(engine.place(next, 0, 0), "overlaps the first one");
+        assertFalse(engine.place(p, 5, 2), "already locked");
+        assertEquals(List.of("spawned 0", "placed 0", "spawned 1"), events);
+    }
+
+    @Test
+    void rotateTurnsOnlyPoolPieces() {
+        engine.setSpawner(roll -> I);
+        engine.start(1);
+        GameEngine.Piece p = engine.poolPiece();
+        engine.rotate(p, +1);
+        assertEquals(1, p.rotation());
+        engine.rotate(p, -1);
+        engine.rotate(p, -1);
+        assertEquals(3, p.rotation());
+        assertSame(I.orientation(3), p.orientation());
+        assertTrue(engine.place(p, 0, 0));
+        Orientation o = p.orientation();
+        assertTrue(engine.board().isOccupied(o.xs[4], o.ys[4]), "the far end of the turned I");
+        engine.rotate(p, +1);
+        assertEquals(3, p.rotation());
+        assertTrue(events.containsAll(List.of("rotated 0 1", "rotated 0 0", "rotated 0 3")));
+        assertEquals(3, events.stream().filter(e -> e.startsWith("rotated")).count());
+    }
+
+    @Test
+    void removeFreesTheCellsButNotForPresets() {
+        engine.setSpawner(roll -> I);
+        engine.start(1, List.of(new GameEngine.Preset(X, 0, 7, 0)));
+        GameEngine.Piece preset = engine.board().keyAt(8, 1);
+        assertTrue(preset.fixed());
+        GameEngine.Piece p = engine.poolPiece();
+        assertTrue(engine.place(p, 0, 0));
+        engine.remove(p);
+        assertEquals(GameEngine.State.GONE, p.state());
+        assertFalse(engine.board().isOccupied(0, 0));
+        assertEquals(1, engine.placed(), "taking a piece off doesn't count down");
+
+        engine.remove(preset);
+        assertEquals(GameEngine.State.LOCKED, preset.state());
+        assertTrue(engine.board().isOccupied(8, 1));
+        engine.remove(engine.poolPiece()); // not on the board, nothing happens
+        assertEquals(GameEngine.State.POOL, engine.poolPiece().state());
+    }
+
+    @Test
+    void firstEventIsTheCountdownTick() {
+        long start = clock.getAsLong();
+        engine.start(1);
+        assertEquals(start + SECOND, engine.nextEventAt());
+        clock.set(start + SECOND - 1);
+        engine.update();
+        assertEquals(240, engine.remaining(), "nothing fires early");
+        clock.set(start + SECOND);
+        engine.update();
+        assertEquals(239, engine.remaining());
+        assertEquals(start + 2 * SECOND, engine.nextEventAt());
+    }
+
+    // an untouched pool piece is gone 5..10 s after it spawned, on a whole second, and the next one comes right away
+    @Test
+    void untouchedPieceVanishesOnItsDeadline() {
+        long start = clock.getAsLong();
+        engine.start(7);
+        GameEngine.Piece p = engine.poolPiece();
+        long vanishedAt = -1;
+        while (p.state() == GameEngine.State.POOL) {
+            long next = engine.nextEventAt();
+            clock.set(next - 1);
+            engine.update();
+            assertEquals(GameEngine.State.POOL, p.state(), "vanished early");
+            clock.set(next);
+            engine.update();
+            vanishedAt = next;
+        }
+        assertEquals(GameEngine.State.GONE, p.state());
+        long after = vanishedAt - start;
+        assertEquals(0, after % SECOND);
+        assertTrue(after >= 5 * SECOND && after <= 10 * SECOND, "vanished after " + after);
+        assertEquals(1, engine.vanished());
+        assertEquals(2, engine.spawned());
+        assertEquals(GameEngine.State.POOL, engine.poolPiece().state());
+    }
+
+    // a touched piece gets 20..30 s from the touch, then fades for fadeNanos before it's gone
+    @Test
+    void touchedPieceFadesThenVanishes() {
+        long start = clock.getAsLong();
+        engine.start(3);
+        clock.advance(2 * SECOND + 123);
+        GameEngine.Piece p = engine.poolPiece();
+        engine.touch(p);
+        long touchedAt = clock.getAsLong();
+        assertTrue(p.touched());
+        runUntil(touchedAt + 20 * SECOND - 1);
+        assertEquals(GameEngine.State.POOL, p.state());
+        while (p.state() == GameEngine.State.POOL) runUntil(engine.nextEventAt());
+        assertEquals(GameEngine.State.FADING, p.state());
+        long fadeEnd = p.fadeEndsAt(), due = fadeEnd - engine.rules().fadeNanos();
+        long dueAfter = due - touchedAt;
+        assertTrue(dueAfter >= 20 * SECOND && dueAfter <= 30 * SECOND && dueAfter % SECOND == 0, "due after " + dueAfter);
+        // the touch wasn't on a whole millisecond, the wheel fires on the next one: never early, at most a tick late
+        assertTrue(clock.getAsLong() >= due && clock.getAsLong() < due + 1_000_000, "fired " + (clock.getAsLong() - due) + "ns after it was due");
+        runUntil(fadeEnd - 1);
+        assertEquals(GameEngine.State.FADING, p.state());
+        while (p.state() == GameEngine.State.FADING) runUntil(engine.nextEventAt());
+        assertEquals(GameEngine.State.GONE, p.state());
+        assertTrue(clock.getAsLong() >= fadeEnd && clock.getAsLong() < fadeEnd + 1_000_000);
+        assertTrue(events.indexOf("fading 0") < events.indexOf("vanished 0"));
+        assertTrue(clock.getAsLong() - start < 40 * SECOND);
+    }
+
+    @Test
+    void timeRunsOut() {
+        long start = clock.getAsLong();
+        engine.start(1);
+        runUntil(start + 240 * SECOND - 1);
+        assertFalse(engine.isOver());
+        assertEquals(1, engine.remaining());
+        runUntil(start + 240 * SECOND);
+        assertTrue(engine.isOver());
+        assertFalse(engine.isWon());
+        assertEquals("Time's up!", engine.endReason());
+        assertEquals(Long.MAX_VALUE, engine.nextEventAt());
+        assertTrue(events.contains("ended false"));
+
+        // nothing moves any more
+        GameEngine.Piece p = engine.poolPiece();
+        int spawned = engine.spawned();
+        if (p != null) {
+            assertFalse(engine.place(p, 0, 0));
+            engine.rotate(p, 1);
+            assertEquals(0, p.rotation());
+        }
+        runUntil(clock.getAsLong() + 60 * SECOND);
+        assertEquals(spawned, engine.spawned());
+    }
+
+    @Test
+    void fillingTheBoardWins() {
+        engine = engine(5, 2);
+        engine.setSpawner(roll -> I);
+        engine.start(1);
+        flat(engine.poolPiece());
+        assertTrue(engine.place(engine.poolPiece(), 0, 0));
+        assertFalse(engine.isOver());
+        flat(engine.poolPiece());
+        assertTrue(engine.place(engine.poolPiece(), 0, 1));
+        assertTrue(engine.isOver());
+        assertTrue(engine.isWon());
+        assertEquals(Long.MAX_VALUE, engine.nextEventAt());
+        assertTrue(events.contains("ended true"));
+    }
+
+    @Test
+    void placingResetsTheElapsedCounter() {
+        long start = clock.getAsLong();
+        engine.setSpawner(roll -> I);
+        engine.start(1);
+        runUntil(start + 3 * SECOND);
+        assertEquals(3, engine.elapsed());
+        assertTrue(engine.place(engine.poolPiece(), 0, 0));
+        assertEquals(0, engine.elapsed());
+        assertEquals(237, engine.remaining());
+    }
+}
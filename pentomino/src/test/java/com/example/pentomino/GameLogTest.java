@@ -0,0 +1,253 @@
+// File: src/test/java/com/example/pentomino/GameLogTest.java
+package com.example.pentomino;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.example.pentomino.GameEngine.SECOND;
+import static org.junit.jupiter.api.Assertions.*;
+
+// games written with GameLog.Writer, read back record by record and played again by Replay
+class GameLogTest {
+    private static final List<Pentomino> PIECES = PentominoLibrary.all();
+
+    @TempDir
+    Path dir;
+
+    private final VirtualClock clock = new VirtualClock();
+
+    // records written by hand at chosen clock readings: time deltas and fields around the one / two byte
+    // varint boundary, a clock that steps back (a wall clock can, VirtualClock won't) so the delta goes
+    // negative, and fields that need all ten bytes
+    @Test
+    void varintsRoundTrip() throws IOException {
+        Path file = dir.resolve("varints.log");
+        long[] now = {5 * SECOND};
+        GameEngine engine = new GameEngine(10, 6, PIECES, () -> now[0]);
+        long[][] records = { // type, clock delta, a, b, c
+                {GameLog.SPAWN, 0, 0, 0, 0},
+                {GameLog.SPAWN, 127, 127, 128, 0},
+                {GameLog.PLACE, 128, 128, 16_383, 16_384},
+                {GameLog.TOUCH, -1, 1, 0, 0},
+                {GameLog.ROTATE, -200, 3, 1L << 35, 0},
+                {GameLog.PRESET, 1L << 40, Long.MAX_VALUE, -1, Long.MIN_VALUE},
+                {GameLog.END, 0, 1, 0, 0},
+        };
+        int bytes = 5; // the magic
+        try (GameLog.Writer log = new GameLog.Writer(file, engine)) {
+            engine.update();
+            log.record(GameLog.START, 42, 0, 0);
+            GameEngine.Rules rules = engine.rules();
+            bytes += 1 + 1 + 8; // type, time 0, seed
+            for (long f : new long[]{10, 6, 5, rules.gameSeconds(), rules.untouchedMin(), rules.untouchedMax(),
+                    rules.touchedMin(), rules.touchedMax(), rules.fadeNanos()}) bytes += size(f);
+            for (long[] r : records) {
+                now[0] += r[1];
+                engine.update();
+                log.record((int) r[0], r[2], r[3], r[4]);
+                bytes += 1 + size(r[1]) + size(r[2]);
+                if (r[0] == GameLog.SPAWN || r[0] == GameLog.ROTATE || r[0] == GameLog.PLACE || r[0] == GameLog.PRESET) bytes += size(r[3]);
+                if (r[0] == GameLog.PLACE || r[0] == GameLog.PRESET) bytes += size(r[4]);
+            }
+        }
+        assertEquals(bytes, Files.size(file));
+
+        GameLog.Reader in = new GameLog.Reader(file);
+        assertTrue(in.next());
+        assertEquals(GameLog.START, in.type);
+        assertEquals(42, in.a);
+        assertEquals(10, in.cols);
+        assertEquals(6, in.rows);
+        assertEquals(5, in.order);
+        assertEquals(engine.rules(), in.rules);
+        long time = 0;
+        for (long[] r : records) {
+            assertTrue(in.next());
+            time += r[1];
+            assertEquals(r[0], in.type, GameLog.name((int) r[0]));
+            assertEquals(time, in.time, GameLog.name((int) r[0]) + " time");
+            assertEquals(r[2], in.a);
+            if (r[0] != GameLog.TOUCH && r[0] != GameLog.END) assertEquals(r[3], in.b);
+            if (r[0] == GameLog.PLACE || r[0] == GameLog.PRESET) assertEquals(r[4], in.c);
+        }
+        assertFalse(in.next());
+    }
+
+    private static int size(long v) {
+        int n = 1;
+        while ((v & ~0x7FL) != 0) { v >>>= 7; n++; }
+        return n;
+    }
+
+    // a crash can leave half a record at the end, the reader stops before it
+    @Test
+    void aCutOffRecordEndsTheLog() throws IOException {
+        Path file = dir.resolve("cut.log");
+        GameEngine engine = new GameEngine(10, 6, PIECES, clock);
+        try (GameLog.Writer log = new GameLog.Writer(file, engine)) {
+            engine.addListener(log);
+            engine.start(1);
+        }
+        byte[] all = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(all, all.length - 1));
+        GameLog.Reader in = new GameLog.Reader(file);
+        assertTrue(in.next());
+        assertEquals(GameLog.START, in.type);
+        assertFalse(in.next(), "the SPAWN lost its last byte");
+        assertFalse(in.next());
+
+        Files.write(dir.resolve("other"), new byte[]{'P', 'L', 'O', 'X', 1});
+        assertThrows(IllegalArgumentException.class, () -> new GameLog.Reader(dir.resolve("other")));
+    }
+
+    // the next session appends after a crash: the torn record goes, everything before it and the new
+    // game read and replay fine
+    @Test
+    void appendingAfterACrashDropsTheTornRecord() throws IOException {
+        Path file = dir.resolve("crash.log");
+        GameEngine engine = new GameEngine(10, 6, PIECES, clock);
+        try (GameLog.Writer log = new GameLog.Writer(file, engine)) {
+            engine.addListener(log);
+            engine.start(5);
+            play(engine, 5);
+        }
+        int whole = count(file);
+        byte[] all = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(all, all.length - 1)); // the END record loses its last byte
+
+        engine = new GameEngine(10, 6, PIECES, clock);
+        try (GameLog.Writer log = new GameLog.Writer(file, engine)) {
+            engine.addListener(log);
+            engine.start(6);
+            play(engine, 6);
+        }
+        int second = 0;
+        GameLog.Reader in = new GameLog.Reader(file);
+        while (in.next()) if (in.type == GameLog.START) second = 0; else second++;
+        assertEquals(whole - 1 + second + 1, count(file), "everything but the torn END, then the new game");
+        Replay replay = new Replay(false, true);
+        replay.run(new GameLog.Reader(file), new GameLog.Reader(file));
+        assertEquals(2, replay.games);
+        assertEquals(engine.spawned(), replay.game().spawned());
+
+        // a third session on an intact file keeps every byte
+        long before = Files.size(file);
+        new GameLog.Writer(file, new GameEngine(10, 6, PIECES, clock)).close();
+        assertEquals(before, Files.size(file));
+    }
+
+    private static int count(Path file) throws IOException {
+        int n = 0;
+        GameLog.Reader in = new GameLog.Reader(file);
+        while (in.next()) n++;
+        return n;
+    }
+
+    // a file that isn't a log is left alone, even a short one
+    @Test
+    void refusesToAppendToSomethingElse() throws IOException {
+        for (byte[] content : new byte[][]{"hello world".getBytes(), {'P', 'X'}}) {
+            Path file = dir.resolve("notes.txt");
+            Files.write(file, content);
+            assertThrows(IllegalArgumentException.class, () -> new GameLog.Writer(file, new GameEngine(10, 6, PIECES, clock)));
+            assertArrayEquals(content, Files.readAllBytes(file));
+        }
+        Path torn = dir.resolve("torn.log"); // died while writing the magic
+        Files.write(torn, new byte[]{'P', 'L'});
+        new GameLog.Writer(torn, new GameEngine(10, 6, PIECES, clock)).close();
+        assertEquals(5, Files.size(torn));
+    }
+
+    @Test
+    void rotateMovesABigLogAside() throws IOException {
+        Path file = dir.resolve("big.log"), old = dir.resolve("big.log.1");
+        Files.write(old, new byte[1]);
+        Files.write(file, new byte[100]);
+        GameLog.rotate(file, 100);
+        assertTrue(Files.exists(file), "not over the limit yet");
+        Files.write(file, new byte[101]);
+        GameLog.rotate(file, 100);
+        assertFalse(Files.exists(file));
+        assertEquals(101, Files.size(old));
+        GameLog.rotate(dir.resolve("missing.log"), 100);
+    }
+
+    // two games in one file, the second a challenge with a preset: a scripted player touches, turns,
+    // places and takes pieces off at odd times until the clock runs out. the replay has to match every
+    // record and end up with the same board and score
+    @Test
+    void scriptedGamesReplayToTheSameEnd() throws IOException {
+        Path file = dir.resolve("games.log");
+        clock.set(3 * SECOND + 17);
+        GameEngine engine = new GameEngine(10, 6, PIECES, clock);
+        try (GameLog.Writer log = new GameLog.Writer(file, engine)) {
+            engine.addListener(log);
+            engine.start(11);
+            play(engine, 1);
+            assertTrue(engine.isOver());
+            engine.start(12, List.of(new GameEngine.Preset(PIECES.get(10), 1, 4, 2)));
+            play(engine, 2);
+        }
+        assertTrue(engine.placed() > 3, "the script got some pieces down");
+
+        int records = 0;
+        GameLog.Reader in = new GameLog.Reader(file);
+        while (in.next()) records++;
+        Replay replay = new Replay(false, true);
+        replay.run(new GameLog.Reader(file), new GameLog.Reader(file));
+        assertEquals(2, replay.games);
+        assertEquals(records, replay.records);
+
+        GameEngine again = replay.game();
+        assertNotSame(engine, again);
+        assertEquals(engine.isOver(), again.isOver());
+        assertEquals(engine.isWon(), again.isWon());
+        assertEquals(engine.spawned(), again.spawned());
+        assertEquals(engine.placed(), again.placed());
+        assertEquals(engine.vanished(), again.vanished());
+        assertEquals(engine.remaining(), again.remaining());
+        for (int y = 0; y < 6; y++) {
+            for (int x = 0; x < 10; x++) {
+                GameEngine.Piece p = engine.board().keyAt(x, y), q = again.board().keyAt(x, y);
+                assertEquals(p == null, q == null, "cell " + x + "," + y);
+                if (p == null) continue;
+                assertEquals(p.serial, q.serial);
+                assertSame(p.shape, q.shape);
+                assertEquals(p.rotation(), q.rotation());
+            }
+        }
+    }
+
+    // moves at uneven times between the engine's own events, until the game is over
+    private void play(GameEngine engine, int seed) {
+        Random rnd = new Random(seed);
+        while (!engine.isOver()) {
+            long at = Math.min(engine.nextEventAt(), clock.getAsLong() + 1 + rnd.nextInt(3_000_000) * 1000L);
+            clock.set(at);
+            engine.update();
+            GameEngine.Piece p = engine.poolPiece();
+            if (engine.isOver() || p == null) continue;
+            switch (rnd.nextInt(6)) {
+                case 0 -> engine.touch(p);
+                case 1 -> engine.rotate(p, rnd.nextBoolean() ? 1 : -1);
+                case 2 -> {
+                    GameEngine.Piece on = engine.board().keyAt(rnd.nextInt(10), rnd.nextInt(6));
+                    if (on != null) engine.remove(on);
+                }
+                case 3, 4 -> {
+                    for (int y = 0; y < 6; y++)
+                        for (int x = 0; x < 10; x++)
+                            if (p.state() == GameEngine.State.POOL && engine.board().fits(p.shape, p.rotation(), x, y)) engine.place(p, x, y);
+                }
+                default -> {} // let it sit
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+// File: src/test/java/com/example/pentomino/GameServerTest.java
+package com.example.pentomino;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// a real server on a free loopback port, talked to line by line like a thin client would
+class GameServerTest {
+    private GameServer server;
+    private Thread acceptor;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new GameServer(0, 1_000_000, GameEngine.Rules.DEFAULT);
+        acceptor = Thread.ofPlatform().daemon().start(() -> {
+            try {
+                server.serve();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        server.close();
+        acceptor.join(5000);
+    }
+
+    private final class Client implements AutoCloseable {
+        final Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port());
+        final BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        final PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII);
+
+        Client() throws IOException {
+            socket.setSoTimeout(5000);
+        }
+
+        void send(String line) {
+            out.println(line);
+        }
+
+        // the next line that isn't a CLOCK tick
+        String next() throws IOException {
+            String line;
+            do line = in.readLine(); while (line != null && line.startsWith("CLOCK "));
+            return line;
+        }
+
+        String expect(String prefix) throws IOException {
+            String line = next();
+            assertNotNull(line, "connection closed, expected " + prefix);
+            assertTrue(line.startsWith(prefix), "expected " + prefix + " but got " + line);
+            return line;
+        }
+
+        @Override public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    private void awaitSessions(int n) throws InterruptedException {
+        for (int i = 0; i < 500 && server.sessions() != n; i++) Thread.sleep(10);
+        assertEquals(n, server.sessions());
+    }
+
+    @Test
+    void newGamePlaceRejectAndQuit() throws Exception {
+        try (Client c = new Client()) {
+            assertEquals("HELLO 10 6 12", c.expect("HELLO"));
+            awaitSessions(1);
+            c.send("NEW 7");
+            assertEquals("START 7", c.expect("START"));
+            String[] spawn = c.expect("SPAWN 0 ").split(" ");
+            int id = Integer.parseInt(spawn[2]);
+            GameEngine local = new GameEngine(10, 6, PentominoLibrary.all(), () -> 0L);
+            local.start(7);
+            assertEquals(local.poolPiece().shape.id(), id, "the seed picks the piece");
+
+            // rotation 0 at the corner fits any pentomino on the empty board
+            c.send("PLACE 0 0 0 0");
+            assertEquals("PLACED 0 " + id + " 0 0 0", c.expect("PLACED"));
+            c.expect("SPAWN 1 ");
+            c.send("PLACE 1 0 0 0");
+            assertEquals("REJECTED 1 0 0", c.expect("REJECTED"));
+
+            c.send("QUIT");
+            assertNull(c.next(), "the server hangs up");
+            awaitSessions(0);
+        }
+    }
+
+    // bad input gets an ERROR line, the session and its game carry on
+    @Test
+    void malformedInputIsAnErrorNotTheEnd() throws Exception {
+        try (Client c = new Client()) {
+            c.expect("HELLO");
+            c.send("TOUCH 0");
+            assertTrue(c.expect("ERROR").contains("no piece 0"));
+            c.send("NEW 3");
+            c.expect("START 3");
+            c.expect("SPAWN 0 ");
+            c.send("JUMP 0");
+            assertEquals("ERROR unknown command JUMP", c.expect("ERROR"));
+            c.send("PLACE 0 x 1 1");
+            c.expect("ERROR PLACE 0 x 1 1");
+            c.send("ROTATE");
+            c.expect("ERROR ROTATE");
+            c.send("   ");
+            c.send("TOUCH 0");
+            assertEquals("TOUCHED 0", c.expect("TOUCHED"));
+            c.send("ROTATE 0 1");
+            assertEquals("ROTATED 0 1", c.expect("ROTATED"));
+            assertEquals(1, server.sessions());
+        }
+        awaitSessions(0);
+    }
+
+    // a client that just goes away ends its session too, the others stay
+    @Test
+    void disconnectsEndTheirSessionOnly() throws Exception {
+        Client a = new Client(), b = new Client();
+        a.expect("HELLO");
+        b.expect("HELLO");
+        awaitSessions(2);
+        a.send("NEW 1");
+        a.expect("START 1");
+        a.close();
+        awaitSessions(1);
+        b.send("NEW 2");
+        b.expect("START 2");
+        b.close();
+        awaitSessions(0);
+    }
+}
@@ -0,0 +1,61 @@
+// File: src/test/java/com/example/pentomino/PentominoLibraryTest.java
+package com.example.pentomino;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the twelve shapes typed into PentominoLibrary: a wrong cell in there is a different (or repeated) piece
+class PentominoLibraryTest {
+    private static final List<Pentomino> PIECES = PentominoLibrary.all();
+
+    @Test
+    void sixtyThreeFixedPentominoes() {
+        List<Orientation> all = PentominoLibrary.orientations();
+        assertEquals(63, all.size());
+        for (int i = 0; i < all.size(); i++) {
+            Orientation o = all.get(i);
+            assertEquals(i, o.id);
+            assertEquals(5, o.size());
+            assertSame(o, o.piece.orientations().get(o.index), "orientation " + i);
+        }
+    }
+
+    // the symmetry of each shape decides how many ways it can lie
+    @Test
+    void orientationsPerPiece() {
+        Map<String, Integer> expected = Map.ofEntries(
+                Map.entry("F", 8), Map.entry("I", 2), Map.entry("L", 8), Map.entry("P", 8),
+                Map.entry("N", 8), Map.entry("T", 4), Map.entry("U", 4), Map.entry("V", 4),
+                Map.entry("W", 4), Map.entry("X", 1), Map.entry("Y", 8), Map.entry("Z", 4));
+        assertEquals(12, PIECES.size());
+        for (int id = 0; id < PIECES.size(); id++) {
+            Pentomino p = PIECES.get(id);
+            assertEquals(id, p.id());
+            assertEquals(5, p.size());
+            assertEquals(expected.get(p.name()), p.orientations().size(), p.name());
+            for (int r = 0; r < 8; r++) assertTrue(p.orientations().contains(p.orientation(r)), p.name() + " rotation " + r);
+        }
+    }
+
+    // no two pieces share a way of lying, L and Y (both four in a row plus one) included
+    @Test
+    void noTwoPiecesLieTheSameWay() {
+        List<Orientation> all = PentominoLibrary.orientations();
+        for (int i = 0; i < all.size(); i++)
+            for (int j = i + 1; j < all.size(); j++)
+                assertFalse(Arrays.equals(all.get(i).cells, all.get(j).cells),
+                        all.get(i).piece.name() + " and " + all.get(j).piece.name() + " lie the same way");
+        Pentomino l = byName("L"), y = byName("Y");
+        assertFalse(Arrays.equals(l.orientation(0).cells, y.orientation(0).cells));
+        for (Orientation o : l.orientations()) assertFalse(y.orientations().contains(o));
+    }
+
+    private static Pentomino byName(String name) {
+        return PIECES.stream().filter(p -> p.name().equals(name)).findFirst().orElseThrow();
+    }
+}
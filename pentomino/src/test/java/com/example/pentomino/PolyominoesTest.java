@@ -0,0 +1,72 @@
+// File: src/test/java/com/example/pentomino/PolyominoesTest.java
+package com.example.pentomino;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the enumerator against the known counts of free and fixed polyominoes
+class PolyominoesTest {
+    private static final int[] FREE = {1, 1, 2, 5, 12, 35, 108, 369, 1285, 4655};
+    private static final int[] FIXED = {1, 2, 6, 19, 63, 216, 760, 2725, 9910, 36446};
+
+    @Test
+    void countsMatchTheKnownSequences() {
+        for (int n = 1; n <= FREE.length; n++) {
+            List<Pentomino> shapes = Polyominoes.free(n);
+            assertEquals(FREE[n - 1], shapes.size(), "free " + n + "-ominoes");
+            int fixed = 0;
+            for (Pentomino p : shapes) fixed += p.orientations().size();
+            assertEquals(FIXED[n - 1], fixed, "fixed " + n + "-ominoes");
+        }
+    }
+
+    // every shape has n connected cells, ids and orientation ids run on without gaps, and no two shapes
+    // share an orientation (which would make them the same free polyomino)
+    @Test
+    void shapesAreDistinctAndNumbered() {
+        int n = 7;
+        List<Pentomino> shapes = Polyominoes.free(n);
+        Set<String> seen = new HashSet<>();
+        int nextOrientation = 0;
+        for (int i = 0; i < shapes.size(); i++) {
+            Pentomino p = shapes.get(i);
+            assertEquals(i, p.id());
+            assertEquals(n + "-" + (i + 1), p.name());
+            assertEquals(n, p.size());
+            for (Orientation o : p.orientations()) {
+                assertEquals(nextOrientation++, o.id);
+                assertTrue(connected(o), p.name() + " falls apart");
+                assertTrue(seen.add(Arrays.toString(o.cells)), p.name() + " repeats another shape");
+            }
+        }
+        assertSame(shapes, Polyominoes.free(n), "cached");
+    }
+
+    private static boolean connected(Orientation o) {
+        int n = o.size();
+        boolean[] reached = new boolean[n];
+        reached[0] = true;
+        for (boolean grew = true; grew; ) {
+            grew = false;
+            for (int i = 0; i < n; i++)
+                for (int j = 0; j < n; j++)
+                    if (reached[i] && !reached[j] && Math.abs(o.xs[i] - o.xs[j]) + Math.abs(o.ys[i] - o.ys[j]) == 1)
+                        reached[j] = grew = true;
+        }
+        for (boolean r : reached) if (!r) return false;
+        return true;
+    }
+
+    @Test
+    void pentominoesAreTheLibrarysTwelve() {
+        assertEquals(12, Polyominoes.free(5).size());
+        assertSame(PentominoLibrary.all(), PentominoLibrary.ofOrder(5));
+        assertThrows(IllegalArgumentException.class, () -> Polyominoes.free(0));
+    }
+}
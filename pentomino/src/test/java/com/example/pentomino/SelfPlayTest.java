@@ -0,0 +1,102 @@
+// File: src/test/java/com/example/pentomino/SelfPlayTest.java
+package com.example.pentomino;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// a few games at a time, on one and on two pool threads
+class SelfPlayTest {
+    private static final List<Pentomino> PIECES = PentominoLibrary.all();
+
+    private static SelfPlay.Stats run(SelfPlay sim, int threads, long seed, long games) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return sim.run(pool, seed, games);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // every game has its own seed, so how the games land on the threads doesn't change the totals
+    @Test
+    void totalsDontDependOnTheThreads() {
+        SolvabilityOracle oracle = new SolvabilityOracle(10, 6, PIECES, 1 << 12, 20_000);
+        SelfPlay.Stats one, two;
+        try (SelfPlay sim = new SelfPlay(PlacementPolicy.parse("greedy", () -> oracle), 10, 6, PIECES,
+                GameEngine.Rules.DEFAULT, 2 * GameEngine.SECOND, null)) {
+            one = run(sim, 1, 7, 40);
+        }
+        try (SelfPlay sim = new SelfPlay(PlacementPolicy.parse("greedy", () -> oracle), 10, 6, PIECES,
+                GameEngine.Rules.DEFAULT, 2 * GameEngine.SECOND, null)) {
+            two = run(sim, 2, 7, 40);
+        }
+        assertEquals(40, one.games);
+        assertEquals(one.wins, two.wins);
+        assertEquals(one.spawned, two.spawned);
+        assertEquals(one.placed, two.placed);
+        assertEquals(one.vanished, two.vanished);
+    }
+
+    // the solver policy and the fair spawners ask for the oracle of the thread they're on, which is what
+    // keeps the pool threads off each other's cache lock; the games come out the same as with one oracle
+    @Test
+    void solverPolicyUsesEachThreadsOwnOracle() {
+        Map<Thread, SolvabilityOracle> asked = new ConcurrentHashMap<>();
+        ThreadLocal<SolvabilityOracle> oracles = ThreadLocal.withInitial(() -> new SolvabilityOracle(10, 6, PIECES, 1 << 12, 20_000));
+        Supplier<SolvabilityOracle> mine = () -> {
+            SolvabilityOracle o = oracles.get();
+            assertSame(o, asked.computeIfAbsent(Thread.currentThread(), t -> o));
+            return o;
+        };
+        SelfPlay.Stats two, one;
+        try (SelfPlay sim = new SelfPlay(PlacementPolicy.parse("solver", mine), 10, 6, PIECES,
+                GameEngine.Rules.DEFAULT, 2 * GameEngine.SECOND, mine)) {
+            two = run(sim, 2, 5, 12);
+        }
+        assertFalse(asked.isEmpty());
+        assertEquals(asked.size(), Set.copyOf(asked.values()).size(), "threads shared an oracle");
+        SolvabilityOracle shared = new SolvabilityOracle(10, 6, PIECES, 1 << 12, 20_000);
+        try (SelfPlay sim = new SelfPlay(PlacementPolicy.parse("solver", () -> shared), 10, 6, PIECES,
+                GameEngine.Rules.DEFAULT, 2 * GameEngine.SECOND, () -> shared)) {
+            one = run(sim, 1, 5, 12);
+        }
+        assertEquals(one.wins, two.wins);
+        assertEquals(one.placed, two.placed);
+    }
+
+    // each pool thread's engine has a fair spawner with a worker thread of its own, closing the
+    // simulation ends them all
+    @Test
+    void closeStopsTheFairSpawnWorkers() throws InterruptedException {
+        SolvabilityOracle oracle = new SolvabilityOracle(10, 6, PIECES, 1 << 12, 20_000);
+        try (SelfPlay sim = new SelfPlay(PlacementPolicy.parse("greedy", () -> oracle), 10, 6, PIECES,
+                GameEngine.Rules.DEFAULT, 2 * GameEngine.SECOND, () -> oracle)) {
+            assertEquals(6, run(sim, 2, 3, 6).games);
+            assertFalse(workers().isEmpty());
+        }
+        for (Thread t : workers()) t.join(5000);
+        assertTrue(workers().isEmpty(), "fair-spawn threads still running");
+    }
+
+    // the policies work on bitboards: a bigger board is refused before anything is built
+    @Test
+    void boardsOverSixtyFourCellsAreRefused() {
+        for (String policy : new String[]{"greedy", "random", "solver"}) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> SelfPlay.main(new String[]{"--board", "12x12", "--policy", policy, "--games", "1"}));
+            assertTrue(e.getMessage().contains("144 cells"), e.getMessage());
+        }
+    }
+
+    private static List<Thread> workers() {
+        return Thread.getAllStackTraces().keySet().stream().filter(t -> t.getName().equals("fair-spawn") && t.isAlive()).toList();
+    }
+}
@@ -0,0 +1,160 @@
+// File: src/test/java/com/example/pentomino/SolutionDbTest.java
+package com.example.pentomino;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the 6x10 file written once, its lookups checked against a plain scan over the solver's own list of
+// tilings: per piece id, Orientation.id << 8 | anchor
+class SolutionDbTest {
+    private static final List<Pentomino> PIECES = PentominoLibrary.all();
+    private static final int W = 10, H = 6;
+
+    @TempDir
+    static Path dir;
+    private static SolutionDb db;
+    private static final List<int[]> tilings = new ArrayList<>();
+
+    @BeforeAll
+    static void writeTheFile() throws IOException {
+        Path file = dir.resolve(SolutionDb.fileName(BoardShape.RECT_6X10));
+        assertEquals(9356, SolutionDb.write(BoardShape.RECT_6X10, file));
+        db = SolutionDb.open(file);
+        BoardShape.RECT_6X10.solver(false).solve((solver, rows, k) -> {
+            int[] t = new int[PIECES.size()];
+            for (Solver.Placement p : solver.placements(rows, k))
+                t[p.orientation().piece.id()] = p.orientation().id << 8 | p.y() * W + p.x();
+            tilings.add(t);
+            return true;
+        });
+    }
+
+    // some pieces of a random tiling put back on an empty board, with their codes in kept (-1 for the others)
+    private static Board.Single<Integer> partOf(int[] tiling, int[] kept, Random rnd, double keep) {
+        Board.Single<Integer> board = new Board.Single<>(W, H);
+        for (Pentomino p : PIECES) {
+            kept[p.id()] = -1;
+            if (rnd.nextDouble() >= keep) continue;
+            Orientation o = PentominoLibrary.orientations().get(tiling[p.id()] >>> 8);
+            int anchor = tiling[p.id()] & 0xff;
+            board.place(p, rotationOf(p, o), anchor % W, anchor / W, p.id());
+            kept[p.id()] = tiling[p.id()];
+        }
+        return board;
+    }
+
+    private static int rotationOf(Pentomino p, Orientation o) {
+        for (int r = 0; r < 8; r++) if (p.orientation(r) == o) return r;
+        throw new AssertionError(o);
+    }
+
+    private static int scan(int[] kept) {
+        int n = 0;
+        for (int[] t : tilings) if (agrees(t, kept)) n++;
+        return n;
+    }
+
+    private static boolean agrees(int[] tiling, int[] kept) {
+        for (int i = 0; i < kept.length; i++) if (kept[i] >= 0 && kept[i] != tiling[i]) return false;
+        return true;
+    }
+
+    @Test
+    void countMatchesAScanOverEveryTiling() {
+        assertEquals(9356, db.count(new Board.Single<Integer>(W, H)));
+        Random rnd = new Random(5);
+        int[] kept = new int[PIECES.size()];
+        for (int i = 0; i < 400; i++) {
+            // few pieces leave many buckets open, most of them pin a single tiling down
+            double keep = new double[]{0.1, 0.25, 0.5, 0.9}[i % 4];
+            Board.Single<Integer> board = partOf(tilings.get(rnd.nextInt(tilings.size())), kept, rnd, keep);
+            assertEquals(scan(kept), db.count(board), "board " + i);
+        }
+    }
+
+    // a single piece anywhere: the tilings with it right there, none if it blocks off a corner; another
+    // board size matches nothing at all
+    @Test
+    void singlePiecesAndOtherBoards() {
+        int[] kept = new int[PIECES.size()];
+        Arrays.fill(kept, -1);
+        Pentomino p = PIECES.get(0);
+        for (int y = 0; y < H; y++) {
+            for (int x = 0; x < W; x++) {
+                if (!new Board.Single<Integer>(W, H).fits(p, 0, x, y)) continue;
+                Board.Single<Integer> board = new Board.Single<>(W, H);
+                board.place(p, 0, x, y, 0);
+                kept[p.id()] = p.orientation(0).id << 8 | y * W + x;
+                assertEquals(scan(kept), db.count(board), "at " + x + "," + y);
+            }
+        }
+        Board.Single<Integer> other = new Board.Single<>(12, 5);
+        assertFalse(db.covers(other));
+        assertEquals(0, db.count(other));
+        assertNull(db.hint(other, p));
+    }
+
+    // a hint is a game rotation that leaves the board completable, and there is one whenever some
+    // matching tiling has the piece in a game rotation
+    @Test
+    void hintsKeepTheBoardCompletable() {
+        Random rnd = new Random(8);
+        int[] kept = new int[PIECES.size()];
+        int hinted = 0;
+        for (int i = 0; i < 300; i++) {
+            Board.Single<Integer> board = partOf(tilings.get(rnd.nextInt(tilings.size())), kept, rnd, 0.4);
+            Pentomino piece = PIECES.get(rnd.nextInt(PIECES.size()));
+            if (kept[piece.id()] >= 0) continue;
+            boolean reachable = false;
+            for (int[] t : tilings)
+                if (agrees(t, kept) && rotationOf(piece, PentominoLibrary.orientations().get(t[piece.id()] >>> 8)) < 4) reachable = true;
+            PlacementPolicy.Move m = db.hint(board, piece);
+            assertEquals(reachable, m != null, "board " + i);
+            if (m == null) continue;
+            hinted++;
+            assertTrue(m.rotation() >= 0 && m.rotation() < 4);
+            assertTrue(board.fits(piece, m.rotation(), m.x(), m.y()));
+            int before = db.count(board);
+            board.place(piece, m.rotation(), m.x(), m.y(), piece.id());
+            int after = db.count(board);
+            assertTrue(after > 0 && after <= before);
+        }
+        assertTrue(hinted > 100);
+    }
+
+    // every tiling has each shape once: nothing to say for a second piece of a placed shape, nor for
+    // anything once a shape is on the board twice
+    @Test
+    void noAnswerForShapesAlreadyOnTheBoard() {
+        int[] tiling = tilings.get(0);
+        Pentomino a = PIECES.get(0), b = PIECES.get(1);
+        Board.Single<Integer> board = new Board.Single<>(W, H);
+        Orientation o = PentominoLibrary.orientations().get(tiling[a.id()] >>> 8);
+        int anchor = tiling[a.id()] & 0xff;
+        board.place(a, rotationOf(a, o), anchor % W, anchor / W, 0);
+        assertFalse(db.answers(board, a));
+        assertNull(db.hint(board, a));
+        assertTrue(db.answers(board, b));
+
+        for (int y = 0; y < H; y++)
+            for (int x = 0; x < W && board.placedPieces().size() < 2; x++)
+                if (board.fits(a, 0, x, y)) board.place(a, 0, x, y, 1);
+        assertEquals(2, board.placedPieces().size());
+        for (Pentomino p : PIECES) assertFalse(db.answers(board, p), p.name());
+        assertEquals(0, db.count(board));
+
+        board.remove(1);
+        assertTrue(db.answers(board, b));
+        assertFalse(db.answers(new Board.Single<Integer>(12, 5), b));
+    }
+}
@@ -0,0 +1,83 @@
+// File: src/test/java/com/example/pentomino/SolutionPublisherTest.java
+package com.example.pentomino;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the 2339 distinct 6x10 tilings handed to subscribers that can't keep up or stop early
+class SolutionPublisherTest {
+    private static final int BUFFER = 4;
+
+    private static SolutionPublisher publisher() {
+        return new SolutionPublisher(new Solver(10, 6, new boolean[60], PentominoLibrary.all(), true), 60, null, 0, BUFFER);
+    }
+
+    // a subscriber that takes its time: the search waits for it, never more than the buffer's worth ahead.
+    // cancelling the subscription ends the search
+    @Test
+    void slowSubscribersHoldUpTheSearch() throws InterruptedException {
+        SolutionPublisher publisher = publisher();
+        CountDownLatch cancelled = new CountDownLatch(1);
+        long[] received = {0}, ahead = {0};
+        publisher.subscribe(new Flow.Subscriber<SolutionPublisher.Solution>() {
+            private Flow.Subscription subscription;
+
+            @Override public void onSubscribe(Flow.Subscription s) {
+                subscription = s;
+                s.request(1);
+            }
+
+            @Override public void onNext(SolutionPublisher.Solution item) {
+                assertEquals(received[0]++, item.index());
+                ahead[0] = Math.max(ahead[0], publisher.published() - received[0]);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (received[0] == 40) {
+                    subscription.cancel();
+                    cancelled.countDown();
+                } else {
+                    subscription.request(1);
+                }
+            }
+
+            @Override public void onError(Throwable t) { fail(t); }
+            @Override public void onComplete() { fail("the search ran to the end"); }
+        });
+        assertTrue(cancelled.await(10, TimeUnit.SECONDS));
+        awaitSearchEnd();
+        assertTrue(ahead[0] <= BUFFER, ahead[0] + " solutions ahead of the subscriber");
+        assertTrue(publisher.published() <= 40 + BUFFER + 1, publisher.published() + " published");
+    }
+
+    // closing the pull-style stream cancels the search too
+    @Test
+    void closingTheStreamStopsTheSearch() throws InterruptedException {
+        SolutionPublisher publisher = publisher();
+        try (Stream<SolutionPublisher.Solution> solutions = publisher.stream(BUFFER)) {
+            Iterator<SolutionPublisher.Solution> it = solutions.iterator();
+            for (int i = 0; i < 10; i++) assertEquals(i, it.next().index());
+        }
+        awaitSearchEnd();
+        assertTrue(publisher.published() <= 10 + BUFFER + 1, publisher.published() + " published");
+    }
+
+    private static void awaitSearchEnd() throws InterruptedException {
+        for (Thread t : searches()) t.join(5000);
+        assertTrue(searches().isEmpty(), "the search is still running");
+    }
+
+    private static List<Thread> searches() {
+        return Thread.getAllStackTraces().keySet().stream().filter(t -> t.getName().equals("solution-search") && t.isAlive()).toList();
+    }
+}
@@ -0,0 +1,102 @@
+// File: src/test/java/com/example/pentomino/SolvabilityOracleTest.java
+package com.example.pentomino;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the cache is keyed by the canonical image of a board, a wrong key hands out another board's verdict
+class SolvabilityOracleTest {
+    private static final List<Pentomino> PIECES = PentominoLibrary.all();
+    private static final int W = 10, H = 6;
+
+    private static long bit(int x, int y) {
+        return 1L << (y * W + x);
+    }
+
+    // the 10x6 board's four symmetries, written out by hand: identity, the two mirrors and the half turn
+    private static long[] images(long occ) {
+        long[] out = new long[4];
+        for (int y = 0; y < H; y++)
+            for (int x = 0; x < W; x++) {
+                if ((occ & bit(x, y)) == 0) continue;
+                out[0] |= bit(x, y);
+                out[1] |= bit(W - 1 - x, y);
+                out[2] |= bit(x, H - 1 - y);
+                out[3] |= bit(W - 1 - x, H - 1 - y);
+            }
+        return out;
+    }
+
+    // some pieces of a random tiling, so the verdicts aren't all the same
+    private static long partOfATiling(Random rnd) {
+        long occ = 0;
+        int[] rows = new int[12];
+        Solver s = new Solver(W, H, new boolean[W * H], PIECES, false);
+        int skip = rnd.nextInt(500);
+        int[] seen = {0};
+        s.solve((solver, r, k) -> {
+            if (seen[0]++ < skip) return true;
+            System.arraycopy(r, 0, rows, 0, k);
+            return false;
+        });
+        for (Solver.Placement p : s.placements(rows, 12))
+            if (rnd.nextBoolean()) occ |= p.orientation().maskAt(W, p.x(), p.y());
+        return occ;
+    }
+
+    @Test
+    void symmetricImagesShareTheirKeyAndVerdict() {
+        Random rnd = new Random(4);
+        for (int i = 0; i < 40; i++) {
+            long occ = i % 2 == 0 ? partOfATiling(rnd) : rnd.nextLong() & rnd.nextLong() & (1L << 60) - 1;
+            SolvabilityOracle oracle = new SolvabilityOracle(W, H, PIECES, 64, 100_000);
+            long[] img = images(occ);
+            for (long m : img) assertEquals(oracle.canonical(occ), oracle.canonical(m), "mask " + Long.toHexString(occ));
+            SolvabilityOracle.Verdict v = oracle.check(img[rnd.nextInt(4)]);
+            for (long m : img) assertEquals(v, oracle.cached(m));
+            // and the key doesn't lump in boards that aren't images of this one
+            long other = occ ^ bit(rnd.nextInt(W), rnd.nextInt(H));
+            for (long m : img) assertNotEquals(oracle.canonical(other), oracle.canonical(m));
+        }
+    }
+
+    @Test
+    void regionsNotAMultipleOfFiveAreDead() {
+        SolvabilityOracle oracle = new SolvabilityOracle(W, H, PIECES, 64, 100_000);
+        long corner = bit(2, 0) | bit(2, 1) | bit(0, 2) | bit(1, 2); // walls in the 2x2 top left
+        assertTrue(oracle.hasDeadRegion(corner));
+        assertEquals(SolvabilityOracle.Verdict.DEAD, oracle.check(corner));
+        long strip = bit(5, 0) | bit(5, 1) | bit(5, 2) | bit(5, 3) | bit(5, 4); // an I standing in column 5, 55 cells left
+        assertFalse(oracle.hasDeadRegion(strip));
+        assertTrue(oracle.hasDeadRegion(strip | bit(0, 5))); // 54 cells left
+        assertEquals(SolvabilityOracle.Verdict.DEAD, oracle.check(strip | bit(0, 5)));
+        assertEquals(SolvabilityOracle.Verdict.SOLVABLE, oracle.check(0));
+    }
+
+    @Test
+    void searchOutOfBudgetIsUnknown() {
+        SolvabilityOracle tight = new SolvabilityOracle(W, H, PIECES, 64, 1);
+        assertEquals(SolvabilityOracle.Verdict.UNKNOWN, tight.check(0));
+        assertEquals(SolvabilityOracle.Verdict.UNKNOWN, tight.cached(0));
+        // the cheap check still answers without any search
+        assertEquals(SolvabilityOracle.Verdict.DEAD, tight.check(bit(1, 0) | bit(0, 1)));
+    }
+
+    // an LRU of the given size: the least recently used entry goes first
+    @Test
+    void cacheEvictsAtCapacity() {
+        SolvabilityOracle oracle = new SolvabilityOracle(W, H, PIECES, 2, 100_000);
+        long a = bit(1, 0) | bit(0, 1), b = bit(3, 0) | bit(0, 3) | bit(1, 3) | bit(2, 3) | bit(3, 1) | bit(3, 2), c = 0;
+        oracle.check(a);
+        oracle.check(b);
+        assertNotNull(oracle.cached(a)); // a is now the most recently used
+        oracle.check(c);
+        assertNotNull(oracle.cached(a));
+        assertNull(oracle.cached(b), "b was the least recently used");
+        assertNotNull(oracle.cached(c));
+    }
+}
@@ -0,0 +1,170 @@
+// File: src/test/java/com/example/pentomino/SolverTest.java
+package com.example.pentomino;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverTest {
+    private static final List<Pentomino> PIECES = PentominoLibrary.all();
+
+    private static Solver rectangle(int w, int h, boolean distinct) {
+        return new Solver(w, h, new boolean[w * h], PIECES, distinct);
+    }
+
+    // the well known pentomino rectangle counts, one per class of symmetries
+    @Test
+    void countsTheClassicRectangles() {
+        assertEquals(2339, rectangle(10, 6, true).count());
+        assertEquals(1010, rectangle(12, 5, true).count());
+        assertEquals(368, rectangle(15, 4, true).count());
+        assertEquals(2, rectangle(20, 3, true).count());
+    }
+
+    // without symmetry breaking every solution shows up once per symmetry of the rectangle
+    @Test
+    void allSolutionsAreFourTimesTheDistinctOnes() {
+        assertEquals(4 * 2, rectangle(20, 3, false).count());
+        assertEquals(4 * 368, rectangle(15, 4, false).count());
+    }
+
+    @Test
+    void parallelCountMatchesTheSequentialOne() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            assertEquals(368, rectangle(15, 4, true).countParallel(pool, 2));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void everySolutionCoversTheBoardOnce() {
+        Solver s = rectangle(15, 4, true);
+        s.solve((solver, rows, k) -> {
+            assertEquals(12, k);
+            int[] cover = new int[15 * 4];
+            boolean[] used = new boolean[PIECES.size()];
+            for (Solver.Placement p : solver.placements(rows, k)) {
+                Orientation o = p.orientation();
+                assertFalse(used[o.piece.id()], "piece used twice");
+                used[o.piece.id()] = true;
+                for (int i = 0; i < o.size(); i++) cover[(p.y() + o.ys[i]) * 15 + p.x() + o.xs[i]]++;
+            }
+            for (int c : cover) assertEquals(1, c);
+            return true;
+        });
+    }
+
+    // stopping after any solution and resuming from its rows gives the rest of the list, in order
+    @Test
+    void resumesRightAfterACheckpoint() {
+        List<int[]> all = solutions(rectangle(12, 5, true), Integer.MAX_VALUE, null);
+        assertEquals(1010, all.size());
+        for (int stop : new int[]{1, 2, 137, 500, 1009}) {
+            List<int[]> before = solutions(rectangle(12, 5, true), stop, null);
+            List<int[]> after = solutions(rectangle(12, 5, true), Integer.MAX_VALUE, before.get(stop - 1));
+            assertEquals(1010 - stop, after.size(), "after " + stop);
+            for (int i = 0; i < after.size(); i++)
+                assertArrayEquals(all.get(stop + i), after.get(i), "solution " + (stop + i) + " after stopping at " + stop);
+        }
+        assertTrue(solutions(rectangle(12, 5, true), Integer.MAX_VALUE, all.get(all.size() - 1)).isEmpty());
+    }
+
+    private static List<int[]> solutions(Solver s, int max, int[] resume) {
+        List<int[]> out = new ArrayList<>();
+        Solver.Listener l = (solver, rows, k) -> {
+            out.add(Arrays.copyOf(rows, k));
+            return out.size() < max;
+        };
+        if (resume == null) s.solve(l);
+        else s.solve(l, resume);
+        return out;
+    }
+
+    @Test
+    void solveGivesUpAfterItsNodeBudget() {
+        Solver s = rectangle(10, 6, true);
+        s.solve((solver, rows, k) -> true, 1000);
+        assertTrue(s.exhausted());
+        assertTrue(s.nodes() <= 1001);
+    }
+
+    // completion only turns pieces the game's way: its solutions are exactly the free ones without mirror
+    // images, here out of all 9356 of the empty board
+    @Test
+    void completionUsesOnlyGameRotations() {
+        boolean[] empty = new boolean[60];
+        long[] noMirrors = {0};
+        long all = new Solver(10, 6, empty, PIECES, false).solve((solver, rows, k) -> {
+            for (Solver.Placement p : solver.placements(rows, k))
+                if (Solver.rotationOf(p.orientation()) < 0) return true;
+            noMirrors[0]++;
+            return true;
+        });
+        assertEquals(9356, all);
+
+        Solver completion = Solver.completion(10, 6, empty, PIECES);
+        List<int[]> found = solutions(completion, Integer.MAX_VALUE, null);
+        assertTrue(found.size() > 0 && found.size() < all);
+        assertEquals(noMirrors[0], found.size());
+        for (int[] rows : found)
+            for (Solver.Placement p : completion.placements(rows, rows.length))
+                assertTrue(Solver.rotationOf(p.orientation()) >= 0);
+    }
+
+    // part of a solution taken off again: the completion finds the way it was
+    @Test
+    void completionFinishesAPartlyFilledBoard() {
+        Solver full = rectangle(10, 6, false);
+        int[][] first = {null};
+        full.solve((solver, rows, k) -> {
+            for (Solver.Placement p : solver.placements(rows, k))
+                if (Solver.rotationOf(p.orientation()) < 0) return true;
+            first[0] = Arrays.copyOf(rows, k);
+            return false;
+        });
+        assertNotNull(first[0]);
+        boolean[] blocked = new boolean[60];
+        List<Pentomino> left = new ArrayList<>(PIECES);
+        List<Solver.Placement> removed = new ArrayList<>();
+        for (Solver.Placement p : full.placements(first[0], first[0].length)) {
+            Orientation o = p.orientation();
+            if (p.y() + o.height > 3) {
+                removed.add(p);
+                continue;
+            }
+            for (int i = 0; i < o.size(); i++) blocked[(p.y() + o.ys[i]) * 10 + p.x() + o.xs[i]] = true;
+            left.remove(o.piece);
+        }
+        Solver completion = Solver.completion(10, 6, blocked, left);
+        boolean[] seen = {false};
+        completion.solve((solver, rows, k) -> {
+            List<Solver.Placement> got = new ArrayList<>(solver.placements(rows, k));
+            if (got.containsAll(removed) && removed.containsAll(got)) seen[0] = true;
+            return true;
+        });
+        assertTrue(seen[0]);
+    }
+
+    @Test
+    void boardWithADeadCornerHasNoSolution() {
+        boolean[] blocked = new boolean[60];
+        blocked[1] = blocked[10] = true; // (0,0) cut off
+        assertFalse(new Solver(10, 6, blocked, PIECES, true).hasSolution());
+        // and the parallel search doesn't even start on it
+        Solver solver = new Solver(10, 6, blocked, PIECES, true);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            assertEquals(0, solver.countParallel(pool, 2));
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(0, solver.nodes());
+    }
+}
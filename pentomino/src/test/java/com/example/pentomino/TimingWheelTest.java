@@ -0,0 +1,186 @@
+// File: src/test/java/com/example/pentomino/TimingWheelTest.java
+package com.example.pentomino;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the wheel has one ring of slots; what makes it tricky is the two-level bitmap over the slots (64 per
+// word, a summary bit per word) and timers more than a revolution away sharing a slot with nearer ones
+class TimingWheelTest {
+    private static final long MS = 1_000_000L;
+
+    private final List<Integer> fired = new ArrayList<>();
+
+    private TimingWheel.Timer timer(int id) {
+        return new TimingWheel.Timer(() -> fired.add(id));
+    }
+
+    @Test
+    void firesInDeadlineOrderAcrossWordsAndRevolutions() {
+        TimingWheel wheel = new TimingWheel(MS, 1024, 0);
+        // last / first slot of a bitmap word, the end of the ring, and the same slots a revolution or two on
+        long[] ticks = {63, 64, 65, 127, 128, 1023, 1024, 1025, 64 + 1024, 63 + 2048, 5, 3000};
+        for (int i = 0; i < ticks.length; i++) wheel.schedule(timer(i), ticks[i] * MS);
+        wheel.advanceTo(4000 * MS);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < ticks.length; i++) expected.add(i);
+        expected.sort(Comparator.comparingLong(i -> ticks[i]));
+        assertEquals(expected, fired);
+    }
+
+    // lots of random deadlines, advanced in random steps: every timer fires in the step that reaches its
+    // tick, never before, and ties keep the order they were scheduled in
+    @Test
+    void neverEarlyNeverLateInRandomSteps() {
+        TimingWheel wheel = new TimingWheel(MS, 256, 0);
+        Random rnd = new Random(11);
+        int n = 2000;
+        long[] due = new long[n];
+        long[] firedAt = new long[n];
+        long[] now = {0};
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            int id = i;
+            due[i] = 1 + rnd.nextInt(3000); // up to ~12 revolutions out
+            wheel.schedule(new TimingWheel.Timer(() -> { firedAt[id] = now[0]; order.add(id); }), due[i] * MS);
+        }
+        long prev = 0;
+        while (now[0] < 3100) {
+            now[0] += 1 + rnd.nextInt(rnd.nextBoolean() ? 5 : 400);
+            wheel.advanceTo(now[0] * MS);
+            for (int i = 0; i < n; i++)
+                if (due[i] > prev && due[i] <= now[0]) assertEquals(now[0], firedAt[i], "timer " + i + " due " + due[i]);
+            prev = now[0];
+        }
+        assertEquals(n, order.size());
+        for (int k = 1; k < n; k++) {
+            int a = order.get(k - 1), b = order.get(k);
+            assertTrue(due[a] < due[b] || (due[a] == due[b] && a < b), "order at " + k);
+        }
+    }
+
+    // a timer a revolution or more out shares its slot with nearer ones. after the wheel went past the slot
+    // once (firing the near timer and keeping the far one) cancelling the far one must leave nothing behind
+    @Test
+    void cancelAfterTheSlotWentRoundOnce() {
+        TimingWheel wheel = new TimingWheel(MS, 64, 0);
+        TimingWheel.Timer near = timer(1), far = timer(2), farther = timer(3);
+        wheel.schedule(near, 10 * MS);
+        wheel.schedule(far, (10 + 64) * MS);
+        wheel.schedule(farther, (10 + 3 * 64) * MS);
+        wheel.advanceTo(30 * MS);
+        assertEquals(List.of(1), fired);
+        assertTrue(far.isScheduled());
+        assertEquals((10 + 64) * MS, wheel.nextDeadline());
+
+        wheel.cancel(far);
+        assertFalse(far.isScheduled());
+        assertEquals((10 + 3 * 64) * MS, wheel.nextDeadline());
+        wheel.cancel(farther);
+        assertEquals(Long.MAX_VALUE, wheel.nextDeadline());
+        wheel.advanceTo(1000 * MS);
+        assertEquals(List.of(1), fired);
+        wheel.cancel(far); // twice is fine
+    }
+
+    // rescheduling moves the timer to its new slot, the old one doesn't fire it
+    @Test
+    void rescheduleMovesTheTimer() {
+        TimingWheel wheel = new TimingWheel(MS, 64, 0);
+        TimingWheel.Timer t = timer(1), other = timer(2);
+        wheel.schedule(t, 5 * MS);
+        wheel.schedule(other, 5 * MS);
+        wheel.schedule(t, 200 * MS); // other slot, other revolution
+        wheel.advanceTo(100 * MS);
+        assertEquals(List.of(2), fired);
+        assertEquals(200 * MS, wheel.nextDeadline());
+        wheel.advanceTo(200 * MS);
+        assertEquals(List.of(2, 1), fired);
+    }
+
+    @Test
+    void nextDeadlineAfterWrappingPastTheRing() {
+        TimingWheel wheel = new TimingWheel(MS, 1024, 0);
+        assertEquals(Long.MAX_VALUE, wheel.nextDeadline());
+        wheel.advanceTo(1500 * MS); // past the end of the ring, current slot 476
+        TimingWheel.Timer soon = timer(1), late = timer(2), behind = timer(3);
+        wheel.schedule(late, (1500 + 2000) * MS); // two revolutions on, slot 428, behind the current one
+        assertEquals(3500 * MS, wheel.nextDeadline());
+        wheel.schedule(behind, (1500 + 1000) * MS); // slot 452, also behind the current slot
+        assertEquals(2500 * MS, wheel.nextDeadline());
+        wheel.schedule(soon, (1500 + 10) * MS);
+        assertEquals(1510 * MS, wheel.nextDeadline());
+
+        wheel.advanceTo(1510 * MS);
+        assertEquals(2500 * MS, wheel.nextDeadline());
+        wheel.advanceTo(2600 * MS);
+        assertEquals(List.of(1, 3), fired);
+        assertEquals(3500 * MS, wheel.nextDeadline());
+        wheel.advanceTo(3499 * MS + MS - 1);
+        assertEquals(List.of(1, 3), fired, "not early by a fraction of a tick");
+        wheel.advanceTo(3500 * MS);
+        assertEquals(List.of(1, 3, 2), fired);
+        assertEquals(Long.MAX_VALUE, wheel.nextDeadline());
+    }
+
+    // a deadline between ticks rounds up, one in the past fires on the next advance
+    @Test
+    void roundsUpAndCatchesUp() {
+        TimingWheel wheel = new TimingWheel(MS, 64, 100 * MS);
+        TimingWheel.Timer t = timer(1), past = timer(2);
+        wheel.schedule(t, 120 * MS + 1);
+        assertEquals(121 * MS, wheel.nextDeadline());
+        wheel.schedule(past, 50 * MS);
+        assertEquals(101 * MS, wheel.nextDeadline());
+        wheel.advanceTo(101 * MS);
+        assertEquals(List.of(2), fired);
+        wheel.advanceTo(120 * MS + 1);
+        assertEquals(List.of(2), fired);
+        wheel.advanceTo(121 * MS);
+        assertEquals(List.of(2, 1), fired);
+    }
+
+    // like the game's countdown: the action schedules its own timer again
+    @Test
+    void actionsCanRescheduleThemselves() {
+        TimingWheel wheel = new TimingWheel(MS, 1024, 0);
+        int[] ticks = {0};
+        TimingWheel.Timer[] countdown = new TimingWheel.Timer[1];
+        countdown[0] = new TimingWheel.Timer(() -> {
+            ticks[0]++;
+            wheel.schedule(countdown[0], (ticks[0] + 1) * 1000 * MS);
+        });
+        wheel.schedule(countdown[0], 1000 * MS);
+        wheel.advanceTo(10_500 * MS); // one call, ten revolutions
+        assertEquals(10, ticks[0]);
+        assertEquals(11_000 * MS, wheel.nextDeadline());
+    }
+
+    @Test
+    void resetDropsEverything() {
+        TimingWheel wheel = new TimingWheel(MS, 64, 0);
+        TimingWheel.Timer a = timer(1), b = timer(2);
+        wheel.schedule(a, 10 * MS);
+        wheel.schedule(b, 500 * MS);
+        wheel.reset(1000 * MS);
+        assertFalse(a.isScheduled());
+        assertFalse(b.isScheduled());
+        assertEquals(Long.MAX_VALUE, wheel.nextDeadline());
+        wheel.schedule(a, 1005 * MS);
+        wheel.advanceTo(2000 * MS);
+        assertEquals(List.of(1), fired);
+    }
+
+    @Test
+    void slotCountMustBeAPowerOfTwoInRange() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel(MS, 100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel(MS, 32, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel(MS, 8192, 0));
+    }
+}